@@ -0,0 +1,15 @@
+package by.innowise.auth.activity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last activity of a user in UTC, truncated to the tracking granularity.
+ *
+ * @param lastLoginAt {@code null} if the user hasn't logged in since tracking was enabled
+ */
+public record UserActivity(
+        Long userId,
+        LocalDateTime lastLoginAt,
+        LocalDateTime lastSeenAt
+) {
+}
@@ -0,0 +1,28 @@
+package by.innowise.auth.activity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.user-activity")
+public class UserActivityProperties {
+
+    private boolean enabled;
+
+    /**
+     * Timestamps are truncated to it, so a user is written at most once per granularity however often
+     * they are seen.
+     */
+    private Duration granularity = Duration.ofMinutes(1);
+
+    private Duration flushInterval = Duration.ofSeconds(30);
+
+    /**
+     * Most users upserted by one statement.
+     */
+    private int batchSize = 500;
+}
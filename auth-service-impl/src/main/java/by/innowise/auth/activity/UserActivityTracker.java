@@ -0,0 +1,152 @@
+package by.innowise.auth.activity;
+
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.repository.UserActivityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks when users last logged in and were last seen, i.e. validated or refreshed a token. Activity
+ * is coalesced in memory per user and periodically upserted in batches into {@code app.user_activity},
+ * a table of its own, so the user row and its version are never touched. Pending activity is flushed
+ * on shutdown as well; a crash loses at most one flush interval.
+ */
+@Slf4j
+@Component
+public class UserActivityTracker {
+
+    private static final long NONE = 0;
+
+    private final UserActivityProperties properties;
+    private final UserActivityRepository userActivityRepository;
+    private final ShardRouter shardRouter;
+    private final Map<Long, Activity> activities = new ConcurrentHashMap<>();
+    private final long granularitySeconds;
+    private final Counter flushed;
+
+    public UserActivityTracker(UserActivityProperties properties,
+                               UserActivityRepository userActivityRepository,
+                               ShardRouter shardRouter,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userActivityRepository = userActivityRepository;
+        this.shardRouter = shardRouter;
+        this.granularitySeconds = Math.max(1, properties.getGranularity().toSeconds());
+        this.flushed = meterRegistry.counter("auth.user-activity.flushed");
+        Gauge.builder("auth.user-activity.tracked", activities, Map::size)
+             .register(meterRegistry);
+    }
+
+    public void recordLogin(Long userId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = currentBucket();
+        Activity current = activities.get(userId);
+        if (current != null && current.loginAt() == now) {
+            return;
+        }
+        activities.merge(userId, new Activity(now, now, true),
+                         (existing, login) -> new Activity(now, now, true));
+    }
+
+    /**
+     * Cheap when the user was already seen within the granularity, which is the common case.
+     */
+    public void recordSeen(Long userId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = currentBucket();
+        Activity current = activities.get(userId);
+        if (current != null && current.seenAt() == now) {
+            return;
+        }
+        activities.merge(userId, new Activity(NONE, now, true),
+                         (existing, seen) -> existing.seenAt() == now
+                                 ? existing
+                                 : new Activity(existing.loginAt(), now, true));
+    }
+
+    /**
+     * Writes the changed users ordered by id, so concurrent flushes of several instances don't
+     * deadlock. An activity changed meanwhile stays pending for the next flush, users not seen within
+     * the current granularity are forgotten once written.
+     */
+    @Scheduled(fixedDelayString = "${application.user-activity.flush-interval:30s}")
+    public synchronized void flush() {
+        List<Map.Entry<Long, Activity>> changed = activities.entrySet()
+                                                            .stream()
+                                                            .filter(e -> e.getValue().dirty())
+                                                            .map(e -> Map.entry(e.getKey(), e.getValue()))
+                                                            .sorted(Map.Entry.comparingByKey())
+                                                            .toList();
+        if (!changed.isEmpty()) {
+            write(changed);
+        }
+        long now = currentBucket();
+        activities.entrySet().removeIf(e -> !e.getValue().dirty() && e.getValue().seenAt() < now);
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+        log.info("Flushed user activity on shutdown");
+    }
+
+    private void write(List<Map.Entry<Long, Activity>> changed) {
+        try {
+            shardRouter.forEachShardPartition(changed, Map.Entry::getKey, partition -> {
+                for (int from = 0; from < partition.size(); from += properties.getBatchSize()) {
+                    List<Map.Entry<Long, Activity>> batch =
+                            partition.subList(from, Math.min(partition.size(), from + properties.getBatchSize()));
+                    userActivityRepository.upsertAll(batch.stream()
+                                                          .map(e -> e.getValue().toUserActivity(e.getKey()))
+                                                          .toList());
+                    batch.forEach(e -> activities.replace(e.getKey(), e.getValue(), e.getValue().written()));
+                    flushed.increment(batch.size());
+                }
+            });
+            log.debug("Flushed activity of {} users", changed.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush activity of {} users, retrying with the next flush", changed.size(), e);
+        }
+    }
+
+    private long currentBucket() {
+        long now = Instant.now().getEpochSecond();
+        return now - now % granularitySeconds;
+    }
+
+    /**
+     * Epoch seconds truncated to the granularity, {@code loginAt} is {@link #NONE} if not logged in.
+     */
+    private record Activity(long loginAt, long seenAt, boolean dirty) {
+
+        Activity written() {
+            return new Activity(loginAt, seenAt, false);
+        }
+
+        UserActivity toUserActivity(Long userId) {
+            return new UserActivity(userId,
+                                    loginAt == NONE ? null : toDateTime(loginAt),
+                                    toDateTime(seenAt));
+        }
+
+        private static LocalDateTime toDateTime(long epochSecond) {
+            return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        }
+    }
+}
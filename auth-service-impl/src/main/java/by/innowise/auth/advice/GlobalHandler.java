@@ -1,10 +1,12 @@
 package by.innowise.auth.advice;
 
+import by.innowise.auth.exception.TokenValidationException;
 import by.innowise.common.library.exception.ApplicationException;
 import by.innowise.common.library.exception.dto.ComplexExceptionDto;
 import by.innowise.common.library.exception.dto.SimpleExceptionDto;
 import by.innowise.common.library.exception.dto.StructuredExceptionDto;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,12 +19,20 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RestControllerAdvice
 @Slf4j
+@RequiredArgsConstructor
 public class GlobalHandler {
 
+    private static final int MAX_CACHED_REJECTIONS = 64;
+
+    private final TokenRejectionLog tokenRejectionLog;
+    private final Map<String, ResponseEntity<SimpleExceptionDto>> rejections = new ConcurrentHashMap<>();
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<SimpleExceptionDto> handle(Exception e) {
         log.error("Internal server error", e);
@@ -39,6 +49,24 @@ public class GlobalHandler {
                                                           e.getMessage()));
     }
 
+    /**
+     * Occurred when a token is rejected on validate or refresh. The reasons are a handful of fixed messages,
+     * so the responses are built once and rejections are only counted, see {@link TokenRejectionLog}.
+     */
+    @ExceptionHandler(TokenValidationException.class)
+    public ResponseEntity<SimpleExceptionDto> handle(TokenValidationException e) {
+        tokenRejectionLog.record(e);
+        ResponseEntity<SimpleExceptionDto> response = rejections.get(e.getMessage());
+        if (response == null || !response.getStatusCode().equals(e.getHttpStatus())) {
+            response = ResponseEntity.status(e.getHttpStatus())
+                                     .body(new SimpleExceptionDto(e.getHttpStatus().value(), e.getMessage()));
+            if (rejections.size() < MAX_CACHED_REJECTIONS) {
+                rejections.put(e.getMessage(), response);
+            }
+        }
+        return response;
+    }
+
     /**
      * Occurred when some constraints were violated inside {@code @RequestBody}
      */
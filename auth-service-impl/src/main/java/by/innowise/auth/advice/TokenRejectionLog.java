@@ -0,0 +1,53 @@
+package by.innowise.auth.advice;
+
+import by.innowise.auth.exception.TokenValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts rejected tokens by reason and logs one summary per interval instead of a line per rejection,
+ * so a flood of bad tokens costs a counter increment rather than a log write. Reasons are the fixed
+ * messages of {@link TokenValidationException}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRejectionLog {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LongAdder> rejectionsByReason = new ConcurrentHashMap<>();
+    private final Map<Integer, Counter> rejectionsByStatus = new ConcurrentHashMap<>();
+
+    public void record(TokenValidationException e) {
+        log.debug("Token rejected: {}", e.getMessage(), e.getCause());
+        rejectionsByReason.computeIfAbsent(e.getMessage(), reason -> new LongAdder())
+                          .increment();
+        rejectionsByStatus.computeIfAbsent(e.getHttpStatus().value(),
+                                           status -> meterRegistry.counter("auth.token.rejections",
+                                                                           "status", status.toString()))
+                          .increment();
+    }
+
+    @Scheduled(fixedDelayString = "${application.token-rejection-log.interval:10s}")
+    public void report() {
+        Map<String, Long> rejections = new TreeMap<>();
+        rejectionsByReason.forEach((reason, count) -> {
+            long sum = count.sumThenReset();
+            if (sum > 0) {
+                rejections.put(reason, sum);
+            }
+        });
+        if (!rejections.isEmpty()) {
+            log.warn("Rejected tokens since the last report: {}", rejections);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package by.innowise.auth.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * @param userId     {@code null} when the user is unknown, e.g. a failed login with an unknown email
+ * @param occurredAt UTC time the event was recorded, which is also its partition key
+ */
+public record AuditEvent(
+        AuditEventType type,
+        Long userId,
+        String email,
+        String detail,
+        LocalDateTime occurredAt
+) {
+}
@@ -0,0 +1,10 @@
+package by.innowise.auth.audit;
+
+public enum AuditEventType {
+
+    LOGIN,
+    LOGIN_FAILED,
+    REFRESH,
+    TOKEN_REVOKED,
+    USER_DELETED
+}
@@ -0,0 +1,22 @@
+package by.innowise.auth.audit;
+
+/**
+ * What happens to an event recorded while the buffer is full, e.g. because the database is down.
+ */
+public enum AuditOverflowPolicy {
+
+    /**
+     * The recorded event is dropped, the buffer keeps the oldest events.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The oldest buffered event is dropped to make room.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The recorded event is written to the application log instead.
+     */
+    LOG
+}
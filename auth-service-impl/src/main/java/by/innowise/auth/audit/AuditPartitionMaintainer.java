@@ -0,0 +1,58 @@
+package by.innowise.auth.audit;
+
+import by.innowise.auth.repository.AuditEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps one partition per UTC day of the audit table: creates the upcoming ones and drops whole
+ * partitions past the retention, which costs no vacuum unlike deleting rows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.audit", name = "enabled", havingValue = "true")
+public class AuditPartitionMaintainer {
+
+    private final AuditEventRepository auditEventRepository;
+    private final AuditProperties properties;
+
+    @Scheduled(fixedDelayString = "${application.audit.maintenance-interval:1h}",
+            initialDelayString = "${application.audit.maintenance-interval:1h}")
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int i = 0; i <= properties.getPartitionsAhead(); i++) {
+            createPartition(today.plusDays(i));
+        }
+        LocalDate oldestKept = today.minusDays(properties.getRetention().toDays());
+        auditEventRepository.findPartitionDays()
+                            .stream()
+                            .filter(day -> day.isBefore(oldestKept))
+                            .forEach(day -> {
+                                auditEventRepository.dropPartition(day);
+                                log.info("Dropped audit partition of: {}", day);
+                            });
+    }
+
+    /**
+     * A failure is only logged and retried with the next run, events of the day keep going to the default
+     * partition meanwhile and are moved once the partition is created.
+     */
+    private void createPartition(LocalDate day) {
+        try {
+            int moved = auditEventRepository.createPartition(day);
+            if (moved > 0) {
+                log.warn("Moved {} events of: {} out of the default audit partition", moved, day);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to create audit partition of: {}, events of that day go to the default partition",
+                     day, e);
+        }
+    }
+}
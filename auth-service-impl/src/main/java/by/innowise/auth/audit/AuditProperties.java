@@ -0,0 +1,51 @@
+package by.innowise.auth.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.audit")
+public class AuditProperties {
+
+    private boolean enabled;
+
+    /**
+     * Events buffered in memory, rounded up to a power of two.
+     */
+    private int bufferCapacity = 65_536;
+
+    private AuditOverflowPolicy overflowPolicy = AuditOverflowPolicy.DROP_NEWEST;
+
+    /**
+     * Most rows written by one multi-row insert.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long the writer sleeps when the buffer is empty, and waits before retrying a failed batch.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * How long a stopping writer may take to write the remaining events.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Daily partitions created in advance, so events never land in the default partition.
+     */
+    private int partitionsAhead = 3;
+
+    /**
+     * Partitions older than this are dropped as a whole.
+     */
+    private Duration retention = Duration.ofDays(90);
+
+    private Duration maintenanceInterval = Duration.ofHours(1);
+
+    private int maxQueryLimit = 1_000;
+}
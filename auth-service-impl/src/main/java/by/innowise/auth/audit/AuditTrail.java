@@ -0,0 +1,107 @@
+package by.innowise.auth.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Collects audit events in a lock-free ring buffer, {@link AuditWriter} drains it to the database.
+ * Recording never touches the database nor blocks, a full buffer is handled by the overflow policy.
+ */
+@Slf4j
+@Component
+public class AuditTrail {
+
+    private static final int DROP_OLDEST_ATTEMPTS = 8;
+
+    private final AuditProperties properties;
+    private final AuditRingBuffer buffer;
+    private final Counter recorded;
+    private final Counter dropped;
+    private final Counter logged;
+
+    public AuditTrail(AuditProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buffer = new AuditRingBuffer(properties.isEnabled() ? properties.getBufferCapacity() : 2);
+        this.recorded = meterRegistry.counter("auth.audit.events", "outcome", "recorded");
+        this.dropped = meterRegistry.counter("auth.audit.events", "outcome", "dropped");
+        this.logged = meterRegistry.counter("auth.audit.events", "outcome", "logged");
+        Gauge.builder("auth.audit.buffer.size", buffer, AuditRingBuffer::size)
+             .register(meterRegistry);
+    }
+
+    /**
+     * Records the event at once, also when the current transaction rolls back.
+     */
+    public void record(AuditEventType type, Long userId, String email, String detail) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        enqueue(new AuditEvent(type, userId, email, detail, LocalDateTime.now(ZoneOffset.UTC)));
+    }
+
+    /**
+     * Records the event once the current transaction commits, or at once without a transaction.
+     */
+    public void recordOnCommit(AuditEventType type, Long userId, String email, String detail) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(type, userId, email, detail);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(type, userId, email, detail);
+            }
+        });
+    }
+
+    int drainTo(List<AuditEvent> batch, int limit) {
+        return buffer.drainTo(batch, limit);
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (buffer.offer(event)) {
+            recorded.increment();
+            return;
+        }
+        switch (properties.getOverflowPolicy()) {
+            case DROP_NEWEST -> drop(event);
+            case DROP_OLDEST -> replaceOldest(event);
+            case LOG -> {
+                log.warn("Audit buffer is full, event: {}", event);
+                logged.increment();
+            }
+        }
+    }
+
+    private void replaceOldest(AuditEvent event) {
+        for (int i = 0; i < DROP_OLDEST_ATTEMPTS; i++) {
+            AuditEvent oldest = buffer.poll();
+            if (oldest != null) {
+                drop(oldest);
+            }
+            if (buffer.offer(event)) {
+                recorded.increment();
+                return;
+            }
+        }
+        drop(event);
+    }
+
+    private void drop(AuditEvent event) {
+        log.debug("Audit buffer is full, dropped event: {}", event);
+        dropped.increment();
+    }
+}
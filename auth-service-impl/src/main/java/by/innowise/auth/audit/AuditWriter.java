@@ -0,0 +1,125 @@
+package by.innowise.auth.audit;
+
+import by.innowise.auth.repository.AuditEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single thread draining {@link AuditTrail} into multi-row inserts. A failed batch is kept and retried,
+ * meanwhile new events pile up in the buffer and are subject to its overflow policy. Each failed attempt
+ * counts as a retry, events count as failed only once they are given up on shutdown.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.audit", name = "enabled", havingValue = "true")
+public class AuditWriter implements SmartLifecycle {
+
+    private final AuditTrail auditTrail;
+    private final AuditEventRepository auditEventRepository;
+    private final AuditPartitionMaintainer partitionMaintainer;
+    private final AuditProperties properties;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter retries;
+    private final List<AuditEvent> pending;
+    private volatile boolean running;
+    private boolean failing;
+    private Thread writer;
+
+    public AuditWriter(AuditTrail auditTrail,
+                       AuditEventRepository auditEventRepository,
+                       AuditPartitionMaintainer partitionMaintainer,
+                       AuditProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.auditTrail = auditTrail;
+        this.auditEventRepository = auditEventRepository;
+        this.partitionMaintainer = partitionMaintainer;
+        this.properties = properties;
+        this.written = meterRegistry.counter("auth.audit.events", "outcome", "written");
+        this.failed = meterRegistry.counter("auth.audit.events", "outcome", "failed");
+        this.retries = meterRegistry.counter("auth.audit.batch.retries");
+        this.pending = new ArrayList<>(properties.getBatchSize());
+    }
+
+    /**
+     * Creates the upcoming partitions first, so the first events don't land in the default partition.
+     */
+    @Override
+    public void start() {
+        try {
+            partitionMaintainer.maintain();
+        } catch (RuntimeException e) {
+            log.warn("Failed to prepare audit partitions", e);
+        }
+        running = true;
+        writer = Thread.ofPlatform()
+                       .name("audit-writer")
+                       .daemon(true)
+                       .start(this::writeLoop);
+        log.info("Audit writer started, batch: {}, overflow policy: {}", properties.getBatchSize(),
+                 properties.getOverflowPolicy());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Audit writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            if (pending.isEmpty()) {
+                auditTrail.drainTo(pending, properties.getBatchSize());
+            }
+            if (pending.isEmpty() || !write()) {
+                LockSupport.parkNanos(properties.getFlushInterval().toNanos());
+            }
+        }
+        while (!pending.isEmpty() || auditTrail.drainTo(pending, properties.getBatchSize()) > 0) {
+            if (!write()) {
+                log.warn("Audit writer stopped with {} unwritten events", pending.size());
+                failed.increment(pending.size());
+                return;
+            }
+        }
+    }
+
+    private boolean write() {
+        try {
+            auditEventRepository.insertAll(pending);
+        } catch (RuntimeException e) {
+            if (!failing) {
+                log.warn("Failed to write a batch of {} audit events, retrying", pending.size(), e);
+                failing = true;
+            }
+            retries.increment();
+            return false;
+        }
+        if (failing) {
+            log.info("Audit events are written again");
+            failing = false;
+        }
+        written.increment(pending.size());
+        pending.clear();
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.audit.AuditProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditTrailConfig {
+}
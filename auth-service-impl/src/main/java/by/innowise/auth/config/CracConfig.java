@@ -0,0 +1,28 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.config.datasource.RoutingDataSource;
+import by.innowise.auth.crac.CracProperties;
+import by.innowise.auth.crac.RotatableSecretKeyPostProcessor;
+import by.innowise.auth.crac.RoutingPoolsCheckpointRestoreLifecycle;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CracProperties.class)
+public class CracConfig {
+
+    @Bean
+    public static RotatableSecretKeyPostProcessor rotatableSecretKeyPostProcessor() {
+        return new RotatableSecretKeyPostProcessor();
+    }
+
+    @Bean
+    @ConditionalOnBean(RoutingDataSource.class)
+    public RoutingPoolsCheckpointRestoreLifecycle routingPoolsCheckpointRestoreLifecycle(
+            RoutingDataSource routingDataSource, ConfigurableApplicationContext applicationContext) {
+        return new RoutingPoolsCheckpointRestoreLifecycle(routingDataSource, applicationContext);
+    }
+}
@@ -0,0 +1,82 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.config.datasource.DataSourceRoutingProperties;
+import by.innowise.auth.config.datasource.DataSourceType;
+import by.innowise.auth.config.datasource.HikariPools;
+import by.innowise.auth.config.datasource.RoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    /**
+     * Replaces the auto-configured pool with separate pools for interactive traffic, background jobs
+     * and (optionally) a read replica. The lazy proxy defers fetching a physical connection until the
+     * first statement, when the transaction read-only flag and routing hints are already known.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "application.datasource.routing", name = "enabled", havingValue = "true")
+    public DataSource dataSource(RoutingDataSource routingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routingDataSource);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.datasource.routing", name = "enabled", havingValue = "true")
+    public RoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                               DataSourceRoutingProperties routingProperties) {
+        Map<Object, Object> targets = new HashMap<>();
+        HikariDataSource primary = HikariPools.create(dataSourceProperties.determineUrl(),
+                                                   dataSourceProperties.determineUsername(),
+                                                   dataSourceProperties.determinePassword(),
+                                                   routingProperties.getInteractivePool(),
+                                                   "primary-interactive");
+        targets.put(DataSourceType.PRIMARY, primary);
+        targets.put(DataSourceType.BACKGROUND, HikariPools.create(dataSourceProperties.determineUrl(),
+                                                               dataSourceProperties.determineUsername(),
+                                                               dataSourceProperties.determinePassword(),
+                                                               routingProperties.getBackgroundPool(),
+                                                               "primary-background"));
+
+        DataSourceRoutingProperties.Replica replica = routingProperties.getReplica();
+        if (StringUtils.hasText(replica.getUrl())) {
+            HikariDataSource replicaPool = HikariPools.create(replica.getUrl(),
+                                                           StringUtils.hasText(replica.getUsername())
+                                                                   ? replica.getUsername()
+                                                                   : dataSourceProperties.determineUsername(),
+                                                           StringUtils.hasText(replica.getPassword())
+                                                                   ? replica.getPassword()
+                                                                   : dataSourceProperties.determinePassword(),
+                                                           replica.getPool(),
+                                                           "replica");
+            replicaPool.setReadOnly(true);
+            targets.put(DataSourceType.REPLICA, replicaPool);
+        } else {
+            log.info("No replica url configured, read-only transactions are served by the primary pool");
+        }
+
+        RoutingDataSource routingDataSource = new RoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primary);
+        return routingDataSource;
+    }
+}
@@ -0,0 +1,35 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.degraded.DatabaseCircuitBreaker;
+import by.innowise.auth.degraded.DegradedModeFilter;
+import by.innowise.auth.degraded.DegradedModeProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The degraded mode filter runs right after the server observation filter and before the concurrency
+ * limit filter, so requests rejected while the database is down are traced but never hold a permit.
+ */
+@Configuration
+@EnableConfigurationProperties(DegradedModeProperties.class)
+public class DegradedModeConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.degraded-mode", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<DegradedModeFilter> degradedModeFilter(DatabaseCircuitBreaker databaseCircuitBreaker,
+                                                                         ObjectMapper objectMapper,
+                                                                         MeterRegistry meterRegistry)
+            throws JsonProcessingException {
+        FilterRegistrationBean<DegradedModeFilter> registration = new FilterRegistrationBean<>(
+                new DegradedModeFilter(databaseCircuitBreaker, objectMapper, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,10 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.groupcommit.GroupCommitProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(GroupCommitProperties.class)
+public class GroupCommitConfig {
+}
@@ -0,0 +1,31 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.grpc.GrpcProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(GrpcProperties.class)
+public class GrpcConfig {
+
+    /**
+     * Bounded, so an overload is rejected at once rather than queued until callers time out.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "application.grpc", name = "enabled", havingValue = "true")
+    public ExecutorService grpcExecutor(GrpcProperties properties) {
+        return new ThreadPoolExecutor(properties.getExecutorThreads(), properties.getExecutorThreads(),
+                                      0, TimeUnit.MILLISECONDS,
+                                      new ArrayBlockingQueue<>(properties.getExecutorQueueCapacity()),
+                                      new CustomizableThreadFactory("grpc-call-"),
+                                      new ThreadPoolExecutor.AbortPolicy());
+    }
+}
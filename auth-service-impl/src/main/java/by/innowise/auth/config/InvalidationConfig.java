@@ -0,0 +1,49 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.config.sharding.ShardRoutingDataSource;
+import by.innowise.auth.invalidation.InvalidationListener;
+import by.innowise.auth.invalidation.InvalidationListener.ListenTarget;
+import by.innowise.auth.invalidation.InvalidationProperties;
+import by.innowise.auth.invalidation.InvalidationSubscriber;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(InvalidationProperties.class)
+public class InvalidationConfig {
+
+    private static final String PRIMARY_TARGET = "primary";
+
+    /**
+     * Listens on every shard, a change is notified on the shard of its user. Without sharding the
+     * primary is enough: replicas never take writes.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.invalidation", name = "enabled", havingValue = "true")
+    public InvalidationListener invalidationListener(InvalidationProperties properties,
+                                                     DataSourceProperties dataSourceProperties,
+                                                     ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource,
+                                                     List<InvalidationSubscriber> subscribers,
+                                                     MeterRegistry meterRegistry) {
+        List<ListenTarget> targets = new ArrayList<>();
+        ShardRoutingDataSource sharding = shardRoutingDataSource.getIfAvailable();
+        if (sharding == null) {
+            targets.add(new ListenTarget(PRIMARY_TARGET,
+                                         dataSourceProperties.determineUrl(),
+                                         dataSourceProperties.determineUsername(),
+                                         dataSourceProperties.determinePassword()));
+        } else {
+            sharding.getShards().forEach((id, pool) -> targets.add(
+                    new ListenTarget(id, pool.getJdbcUrl(), pool.getUsername(), pool.getPassword())));
+        }
+        return new InvalidationListener(properties, targets, subscribers, meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.service.jwt.JwtFormat;
+import by.innowise.auth.service.jwt.JwtFormatProperties;
+import by.innowise.internship.security.filter.JwtFilter;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JwtFormatProperties.class)
+public class JwtFormatConfig {
+
+    /**
+     * Refuses to start with the compact format while the starter's {@link JwtFilter} authenticates this
+     * service's requests: it reads only the legacy claims.
+     */
+    public JwtFormatConfig(JwtFormatProperties jwtFormatProperties, ListableBeanFactory beanFactory) {
+        if (jwtFormatProperties.getFormat() == JwtFormat.COMPACT
+                && beanFactory.getBeanNamesForType(JwtFilter.class, false, false).length > 0) {
+            throw new IllegalStateException(
+                    "The compact token format can't be used while the security starter's JwtFilter reads tokens");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.dto.event.SecurityEventDto;
+import by.innowise.common.library.exception.dto.ComplexExceptionDto;
+import by.innowise.common.library.exception.dto.SimpleExceptionDto;
+import by.innowise.common.library.exception.dto.StructuredExceptionDto;
+import by.innowise.internship.security.config.JwtSecurityProperties;
+import by.innowise.internship.security.dto.UserHolder;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image build, see the {@code native} maven profile.
+ * Spring AOT covers beans, JPA entities and request/response bodies; this adds what it cannot infer.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.AuthRuntimeHints.class)
+@RegisterReflectionForBinding({JwtSecurityProperties.class, UserHolder.class,
+        SimpleExceptionDto.class, ComplexExceptionDto.class, StructuredExceptionDto.class,
+        SecurityEventDto.class})
+public class NativeHintsConfig {
+
+    /**
+     * jjwt looks up its implementation classes by name at runtime.
+     */
+    private static final List<String> JJWT_REFLECTIVE_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class AuthRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources()
+                 .registerPattern("db/changelog/*.yml")
+                 .registerPattern("db/changelog/changeset/*.sql")
+                 .registerPattern("preliquibase/*.sql");
+            JJWT_REFLECTIVE_TYPES.forEach(type -> hints.reflection()
+                                                       .registerType(TypeReference.of(type),
+                                                                     MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                                                                     MemberCategory.INVOKE_PUBLIC_METHODS,
+                                                                     MemberCategory.DECLARED_FIELDS));
+        }
+    }
+}
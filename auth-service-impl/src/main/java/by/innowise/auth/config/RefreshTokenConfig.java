@@ -0,0 +1,40 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.groupcommit.RefreshTokenGroupCommitWriter;
+import by.innowise.auth.mapper.RefreshTokenMapper;
+import by.innowise.auth.refreshtoken.DatabaseRefreshTokenStore;
+import by.innowise.auth.refreshtoken.RefreshTokenProperties;
+import by.innowise.auth.refreshtoken.RefreshTokenStore;
+import by.innowise.auth.refreshtoken.embedded.EmbeddedRefreshTokenStore;
+import by.innowise.auth.repository.TokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+@Configuration
+@EnableConfigurationProperties(RefreshTokenProperties.class)
+public class RefreshTokenConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.refresh-token", name = "storage", havingValue = "embedded")
+    public EmbeddedRefreshTokenStore embeddedRefreshTokenStore(RefreshTokenProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        return new EmbeddedRefreshTokenStore(properties, meterRegistry);
+    }
+
+    /**
+     * Also backs the stateless storage, for tokens issued before it was switched on.
+     */
+    @Bean
+    @ConditionalOnMissingBean(RefreshTokenStore.class)
+    public DatabaseRefreshTokenStore databaseRefreshTokenStore(TokenRepository tokenRepository,
+                                                               RefreshTokenMapper mapper,
+                                                               Optional<RefreshTokenGroupCommitWriter> groupCommitWriter) {
+        return new DatabaseRefreshTokenStore(tokenRepository, mapper, groupCommitWriter);
+    }
+}
@@ -1,5 +1,6 @@
 package by.innowise.auth.config;
 
+import by.innowise.internship.security.dto.Role;
 import by.innowise.internship.security.filter.JwtFilter;
 import by.innowise.internship.security.filter.JwtFilterConfigurer;
 import jakarta.servlet.http.HttpServletResponse;
@@ -25,6 +26,9 @@ public class SecurityConfig {
             "/auth/register", "/auth/login",
             "/token", "/token/**",
             "/actuator/health", "/actuator/health/**");
+    private static final String AUDIT_PATHS = "/audit/**";
+    private static final String EVENT_PATHS = "/events/**";
+    private static final String TABLE_STATS_PATHS = "/actuator/tablestats";
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -45,6 +49,9 @@ public class SecurityConfig {
                                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(requests -> requests
                     .requestMatchers(WHITELIST_PATHS.toArray(String[]::new)).permitAll()
+                    .requestMatchers(AUDIT_PATHS).hasRole(Role.ADMIN.name())
+                    .requestMatchers(EVENT_PATHS).hasRole(Role.ADMIN.name())
+                    .requestMatchers(TABLE_STATS_PATHS).hasRole(Role.ADMIN.name())
                     .anyRequest().authenticated()
             )
 
@@ -0,0 +1,97 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.config.datasource.HikariPools;
+import by.innowise.auth.config.sharding.ShardRebalancer;
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.config.sharding.ShardRoutingDataSource;
+import by.innowise.auth.config.sharding.ShardedLiquibase;
+import by.innowise.auth.config.sharding.ShardingProperties;
+import by.innowise.auth.config.sharding.UserDirectory;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties({ShardingProperties.class, LiquibaseProperties.class})
+public class ShardingConfig {
+
+    /**
+     * Replaces the auto-configured pool with one pool per shard, {@code spring.datasource} being the
+     * primary shard. As with read replica routing, the lazy proxy defers picking a shard until the first
+     * statement, when {@link ShardRouter} has bound the user's shard. The two can't be combined.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "application.datasource.sharding", name = "enabled", havingValue = "true")
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.datasource.sharding", name = "enabled", havingValue = "true")
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                         ShardingProperties shardingProperties) {
+        Map<String, HikariDataSource> shards = new LinkedHashMap<>();
+        shards.put(shardingProperties.getPrimaryShardId(),
+                   HikariPools.create(dataSourceProperties.determineUrl(),
+                                      dataSourceProperties.determineUsername(),
+                                      dataSourceProperties.determinePassword(),
+                                      shardingProperties.getPrimaryPool(),
+                                      shardingProperties.getPrimaryShardId()));
+        shardingProperties.getShards().forEach(
+                shard -> shards.put(shard.getId(), HikariPools.create(shard.getUrl(),
+                                                                      shard.getUsername(),
+                                                                      shard.getPassword(),
+                                                                      shard.getPool(),
+                                                                      shard.getId())));
+        return new ShardRoutingDataSource(shards, shardingProperties.getPrimaryShardId());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.datasource.sharding", name = "enabled", havingValue = "true")
+    public UserDirectory userDirectory(ShardRoutingDataSource shardRoutingDataSource,
+                                       ShardingProperties shardingProperties) {
+        return new UserDirectory(new JdbcTemplate(
+                shardRoutingDataSource.getShards().get(shardingProperties.getPrimaryShardId())));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.datasource.sharding", name = "enabled", havingValue = "true")
+    public ShardedLiquibase liquibase(ShardRoutingDataSource shardRoutingDataSource,
+                                      ShardingProperties shardingProperties,
+                                      LiquibaseProperties liquibaseProperties) {
+        ShardedLiquibase liquibase = new ShardedLiquibase(shardRoutingDataSource.getShards(),
+                                                          shardingProperties.getPrimaryShardId(),
+                                                          liquibaseProperties.getChangeLog(),
+                                                          shardingProperties.getDirectoryChangeLog());
+        liquibase.setDefaultSchema(liquibaseProperties.getDefaultSchema());
+        liquibase.setShouldRun(liquibaseProperties.isEnabled());
+        return liquibase;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.datasource.sharding.rebalance", name = "enabled",
+            havingValue = "true")
+    public ShardRebalancer shardRebalancer(ShardRoutingDataSource shardRoutingDataSource,
+                                           ShardRouter shardRouter,
+                                           ShardingProperties shardingProperties,
+                                           ConfigurableApplicationContext applicationContext) {
+        return new ShardRebalancer(shardRoutingDataSource, shardRouter, shardingProperties, applicationContext);
+    }
+}
@@ -0,0 +1,10 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.tablestats.TableStatsProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TableStatsProperties.class)
+public class TableStatsConfig {
+}
@@ -0,0 +1,34 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.config.tracing.JsonLinesFileSpanExporter;
+import by.innowise.auth.config.tracing.TracingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Local span exporters for offline analysis. Boot registers every {@link SpanExporter} bean next to the
+ * OTLP one it configures from {@code management.otlp.tracing.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.tracing", name = "exporter", havingValue = "logging")
+    public SpanExporter loggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.tracing", name = "exporter", havingValue = "file")
+    public SpanExporter fileSpanExporter(TracingProperties properties, ObjectMapper objectMapper) throws IOException {
+        return new JsonLinesFileSpanExporter(properties.getFile(), objectMapper);
+    }
+}
@@ -0,0 +1,10 @@
+package by.innowise.auth.config;
+
+import by.innowise.auth.activity.UserActivityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UserActivityProperties.class)
+public class UserActivityConfig {
+}
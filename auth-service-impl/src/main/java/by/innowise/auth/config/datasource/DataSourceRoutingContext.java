@@ -0,0 +1,49 @@
+package by.innowise.auth.config.datasource;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound hint that overrides the read-only based routing of {@link RoutingDataSource}.
+ * The hint must be set before the first statement of a transaction, the physical connection
+ * is fetched lazily and stays bound to the transaction afterwards.
+ */
+@UtilityClass
+public class DataSourceRoutingContext {
+
+    private static final ThreadLocal<DataSourceType> FORCED_TYPE = new ThreadLocal<>();
+
+    public DataSourceType current() {
+        return FORCED_TYPE.get();
+    }
+
+    public <T> T callOnPrimary(Supplier<T> action) {
+        return callOn(DataSourceType.PRIMARY, action);
+    }
+
+    public <T> T callInBackground(Supplier<T> action) {
+        return callOn(DataSourceType.BACKGROUND, action);
+    }
+
+    public void runInBackground(Runnable action) {
+        callOn(DataSourceType.BACKGROUND, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T callOn(DataSourceType type, Supplier<T> action) {
+        DataSourceType previous = FORCED_TYPE.get();
+        FORCED_TYPE.set(type);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCED_TYPE.remove();
+            } else {
+                FORCED_TYPE.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package by.innowise.auth.config.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled;
+
+    /**
+     * How long reads for a user are pinned to the primary after a write for the same user.
+     * Should exceed the usual replication lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private Replica replica = new Replica();
+
+    private Pool interactivePool = new Pool(20, 5);
+
+    private Pool backgroundPool = new Pool(4, 1);
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private Pool pool = new Pool(20, 5);
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+
+        private int maximumPoolSize;
+
+        private int minimumIdle;
+
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+
+        public Pool() {
+        }
+
+        public Pool(int maximumPoolSize, int minimumIdle) {
+            this.maximumPoolSize = maximumPoolSize;
+            this.minimumIdle = minimumIdle;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package by.innowise.auth.config.datasource;
+
+public enum DataSourceType {
+
+    PRIMARY,
+    REPLICA,
+    BACKGROUND
+
+}
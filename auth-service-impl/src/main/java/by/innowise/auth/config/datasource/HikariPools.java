@@ -0,0 +1,21 @@
+package by.innowise.auth.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class HikariPools {
+
+    public HikariDataSource create(String url, String username, String password,
+                                   DataSourceRoutingProperties.Pool pool, String poolName) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setPoolName(poolName);
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setMinimumIdle(pool.getMinimumIdle());
+        dataSource.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+        return dataSource;
+    }
+}
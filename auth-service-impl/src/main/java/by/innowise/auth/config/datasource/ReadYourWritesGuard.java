@@ -0,0 +1,67 @@
+package by.innowise.auth.config.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers users that were recently written on the primary, so their subsequent reads are not
+ * served by a replica that may not have caught up yet (e.g. validating an access token right
+ * after register or refresh). The state is local to the replica of the service that handled the write.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesGuard {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final DataSourceRoutingProperties properties;
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public void recordWrite(Long userId) {
+        if (!properties.isEnabled() || userId == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        lastWriteByUser.put(userId, now);
+        if (lastWriteByUser.size() > CLEANUP_THRESHOLD) {
+            removeExpired(now);
+        }
+    }
+
+    public boolean isRecentlyWritten(Long userId) {
+        if (!properties.isEnabled() || userId == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteByUser.get(userId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (isExpired(writtenAt, System.nanoTime())) {
+            lastWriteByUser.remove(userId, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    public <T> T readConsistently(Long userId, Supplier<T> reading) {
+        if (isRecentlyWritten(userId)) {
+            log.info("User: {} was recently written, reading from primary", userId);
+            return DataSourceRoutingContext.callOnPrimary(reading);
+        }
+        return reading.get();
+    }
+
+    private void removeExpired(long now) {
+        lastWriteByUser.entrySet().removeIf(e -> isExpired(e.getValue(), now));
+    }
+
+    private boolean isExpired(long writtenAt, long now) {
+        return now - writtenAt > properties.getReadYourWritesWindow().toNanos();
+    }
+}
@@ -0,0 +1,34 @@
+package by.innowise.auth.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary pool,
+ * unless {@link DataSourceRoutingContext} forces a specific pool for the current thread.
+ * Unknown keys (e.g. no replica configured) fall back to the primary pool.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceType forced = DataSourceRoutingContext.current();
+        if (forced != null) {
+            return forced;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? DataSourceType.REPLICA
+                : DataSourceType.PRIMARY;
+    }
+
+    @Override
+    public void close() {
+        getResolvedDataSources().values().stream()
+                                .filter(HikariDataSource.class::isInstance)
+                                .map(HikariDataSource.class::cast)
+                                .forEach(HikariDataSource::close);
+    }
+}
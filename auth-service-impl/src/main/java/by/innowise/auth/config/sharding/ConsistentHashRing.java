@@ -0,0 +1,67 @@
+package by.innowise.auth.config.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps user ids to shards. Every shard owns {@code virtualNodes} points on a 64-bit ring and a user
+ * belongs to the first point at or after the hash of its id, so adding a shard only moves the users
+ * that land on the new shard's points.
+ */
+public class ConsistentHashRing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(List<String> shardIds, int virtualNodes) {
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String shardId : shardIds) {
+            for (int node = 0; node < virtualNodes; node++) {
+                long point = hash((shardId + '#' + node).getBytes(StandardCharsets.UTF_8));
+                ring.merge(point, shardId, (current, added) -> current.compareTo(added) <= 0 ? current : added);
+            }
+        }
+        points = new long[ring.size()];
+        owners = new String[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> entry : ring.entrySet()) {
+            points[i] = entry.getKey();
+            owners[i++] = entry.getValue();
+        }
+    }
+
+    public String shardFor(long userId) {
+        int index = Arrays.binarySearch(points, mix(userId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    private static long hash(byte[] bytes) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * MurmurHash3 finalizer, spreads sequential ids over the whole ring.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
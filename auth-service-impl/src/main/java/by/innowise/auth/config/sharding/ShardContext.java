@@ -0,0 +1,33 @@
+package by.innowise.auth.config.sharding;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound shard of {@link ShardRoutingDataSource}. Like the routing hints, it must be set before the
+ * first statement of a transaction, the connection stays bound to the transaction afterwards.
+ */
+@UtilityClass
+public class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT_SHARD = new ThreadLocal<>();
+
+    public String current() {
+        return CURRENT_SHARD.get();
+    }
+
+    public <T> T callOn(String shardId, Supplier<T> action) {
+        String previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shardId);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        }
+    }
+}
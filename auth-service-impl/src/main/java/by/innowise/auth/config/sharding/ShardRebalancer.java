@@ -0,0 +1,175 @@
+package by.innowise.auth.config.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves users with their refresh tokens and activity to the shard the ring assigns them to, fills the email directory
+ * for users written before sharding and drops directory entries without a user. Run it after adding a
+ * shard to the configuration, while no instance serves traffic (see {@code scripts/rebalance-shards.sh}).
+ * A user is copied before it is removed from its old shard, so an interrupted run can simply be repeated.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardRebalancer implements ApplicationRunner {
+
+    private static final String USER_IDS_AFTER =
+            "SELECT id FROM app.auth_users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String USERS_BY_IDS = "SELECT * FROM app.auth_users WHERE id = ANY(?)";
+    private static final String TOKENS_BY_USER_IDS = "SELECT * FROM app.refresh_tokens WHERE user_id = ANY(?)";
+    private static final String ACTIVITY_BY_USER_IDS = "SELECT * FROM app.user_activity WHERE user_id = ANY(?)";
+    private static final String DELETE_TOKENS = "DELETE FROM app.refresh_tokens WHERE user_id = ANY(?)";
+    private static final String DELETE_ACTIVITY = "DELETE FROM app.user_activity WHERE user_id = ANY(?)";
+    private static final String DELETE_USERS = "DELETE FROM app.auth_users WHERE id = ANY(?)";
+    private static final String ACTIVE_USERS_AFTER = """
+            SELECT id, email FROM app.auth_users
+            WHERE id > ? AND status = 'ACTIVATED'
+            ORDER BY id LIMIT ?
+            """;
+    private static final String DIRECTORY_INSERT = """
+            INSERT INTO app.user_directory (email, user_id, created_at) VALUES (?, ?, now())
+            ON CONFLICT (email) DO NOTHING
+            """;
+    private static final String DIRECTORY_AFTER =
+            "SELECT user_id, email FROM app.user_directory WHERE user_id > ? ORDER BY user_id LIMIT ?";
+    private static final String EXISTING_USER_IDS = "SELECT id FROM app.auth_users WHERE id = ANY(?)";
+    private static final String DIRECTORY_DELETE = "DELETE FROM app.user_directory WHERE user_id = ANY(?)";
+    private static final String MAX_USER_ID = "SELECT coalesce(max(id), 0) FROM app.auth_users";
+    private static final String ADVANCE_USER_ID_SEQUENCE = """
+            SELECT setval('app.user_id_seq', greatest(?, (SELECT last_value FROM app.user_id_seq)))
+            """;
+
+    private final ShardRoutingDataSource shardRoutingDataSource;
+    private final ShardRouter shardRouter;
+    private final ShardingProperties properties;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<String, HikariDataSource> shards = shardRoutingDataSource.getShards();
+        JdbcTemplate directory = new JdbcTemplate(shards.get(properties.getPrimaryShardId()));
+        shards.keySet().forEach(shardId -> moveMisplacedUsers(shardId, shards));
+        long maxUserId = 0;
+        for (HikariDataSource shard : shards.values()) {
+            JdbcTemplate shardJdbc = new JdbcTemplate(shard);
+            fillDirectory(shardJdbc, directory);
+            maxUserId = Math.max(maxUserId, shardJdbc.queryForObject(MAX_USER_ID, Long.class));
+        }
+        dropOrphanedDirectoryEntries(directory, shards);
+        directory.queryForObject(ADVANCE_USER_ID_SEQUENCE, Long.class, maxUserId);
+        log.info("Rebalancing finished, user ids continue after: {}", maxUserId);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    void moveMisplacedUsers(String shardId, Map<String, HikariDataSource> shards) {
+        JdbcTemplate source = new JdbcTemplate(shards.get(shardId));
+        long after = 0;
+        int moved = 0;
+        List<Long> ids;
+        do {
+            ids = source.queryForList(USER_IDS_AFTER, Long.class, after, properties.getRebalance().getBatchSize());
+            Map<String, List<Long>> misplaced = new HashMap<>();
+            for (Long id : ids) {
+                String owner = shardRouter.shardOf(id);
+                if (!owner.equals(shardId)) {
+                    misplaced.computeIfAbsent(owner, shard -> new ArrayList<>()).add(id);
+                }
+            }
+            for (Map.Entry<String, List<Long>> target : misplaced.entrySet()) {
+                move(shards.get(shardId), shards.get(target.getKey()), target.getValue().toArray(Long[]::new));
+                moved += target.getValue().size();
+            }
+            if (!ids.isEmpty()) {
+                after = ids.getLast();
+            }
+        } while (ids.size() == properties.getRebalance().getBatchSize());
+        log.info("Moved {} users away from shard: {}", moved, shardId);
+    }
+
+    private void move(HikariDataSource source, HikariDataSource target, Long[] userIds) {
+        JdbcTemplate sourceJdbc = new JdbcTemplate(source);
+        List<Map<String, Object>> users = sourceJdbc.queryForList(USERS_BY_IDS, (Object) userIds);
+        List<Map<String, Object>> tokens = sourceJdbc.queryForList(TOKENS_BY_USER_IDS, (Object) userIds);
+        List<Map<String, Object>> activities = sourceJdbc.queryForList(ACTIVITY_BY_USER_IDS, (Object) userIds);
+        JdbcTemplate targetJdbc = new JdbcTemplate(target);
+        new TransactionTemplate(new DataSourceTransactionManager(target)).executeWithoutResult(status -> {
+            copy(targetJdbc, "app.auth_users", "id", users);
+            copy(targetJdbc, "app.refresh_tokens", "id", tokens);
+            copy(targetJdbc, "app.user_activity", "user_id", activities);
+        });
+        new TransactionTemplate(new DataSourceTransactionManager(source)).executeWithoutResult(status -> {
+            sourceJdbc.update(DELETE_TOKENS, (Object) userIds);
+            sourceJdbc.update(DELETE_ACTIVITY, (Object) userIds);
+            sourceJdbc.update(DELETE_USERS, (Object) userIds);
+        });
+    }
+
+    private void copy(JdbcTemplate target, String table, String key, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.getFirst().keySet());
+        String sql = "INSERT INTO %s (%s) VALUES (%s) ON CONFLICT (%s) DO NOTHING".formatted(
+                table, String.join(", ", columns), String.join(", ", Collections.nCopies(columns.size(), "?")), key);
+        target.batchUpdate(sql, rows.stream()
+                                    .map(row -> columns.stream().map(row::get).toArray())
+                                    .toList());
+    }
+
+    private void fillDirectory(JdbcTemplate shard, JdbcTemplate directory) {
+        long after = 0;
+        List<Map<String, Object>> users;
+        do {
+            users = shard.queryForList(ACTIVE_USERS_AFTER, after, properties.getRebalance().getBatchSize());
+            directory.batchUpdate(DIRECTORY_INSERT, users.stream()
+                                                         .map(user -> new Object[]{user.get("email"), user.get("id")})
+                                                         .toList());
+            if (!users.isEmpty()) {
+                after = ((Number) users.getLast().get("id")).longValue();
+            }
+        } while (users.size() == properties.getRebalance().getBatchSize());
+    }
+
+    private void dropOrphanedDirectoryEntries(JdbcTemplate directory, Map<String, HikariDataSource> shards) {
+        long after = 0;
+        int dropped = 0;
+        List<Map<String, Object>> entries;
+        do {
+            entries = directory.queryForList(DIRECTORY_AFTER, after, properties.getRebalance().getBatchSize());
+            Map<String, List<Long>> byShard = new HashMap<>();
+            for (Map<String, Object> entry : entries) {
+                Long userId = ((Number) entry.get("user_id")).longValue();
+                byShard.computeIfAbsent(shardRouter.shardOf(userId), shard -> new ArrayList<>()).add(userId);
+            }
+            List<Long> orphaned = new ArrayList<>();
+            byShard.forEach((shardId, userIds) -> {
+                Set<Long> existing = new HashSet<>(new JdbcTemplate(shards.get(shardId)).queryForList(
+                        EXISTING_USER_IDS, Long.class, (Object) userIds.toArray(Long[]::new)));
+                userIds.stream().filter(id -> !existing.contains(id)).forEach(orphaned::add);
+            });
+            if (!orphaned.isEmpty()) {
+                dropped += directory.update(DIRECTORY_DELETE, (Object) orphaned.toArray(Long[]::new));
+            }
+            if (!entries.isEmpty()) {
+                after = ((Number) entries.getLast().get("user_id")).longValue();
+            }
+        } while (entries.size() == properties.getRebalance().getBatchSize());
+        log.info("Dropped {} directory entries without a user", dropped);
+    }
+}
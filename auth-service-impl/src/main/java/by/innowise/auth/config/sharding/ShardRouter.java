@@ -0,0 +1,178 @@
+package by.innowise.auth.config.sharding;
+
+import by.innowise.auth.exception.EmailNotAvailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Binds work to the shard that owns a user. Without sharding every method runs the work as is.
+ */
+@Slf4j
+@Component
+public class ShardRouter {
+
+    private static final String EMAIL_NOT_AVAILABLE_MESSAGE = "The user with such email address already exists!";
+
+    private final ShardingProperties properties;
+    private final Optional<UserDirectory> userDirectory;
+    private final ConsistentHashRing ring;
+
+    public ShardRouter(ShardingProperties properties, Optional<UserDirectory> userDirectory) {
+        this.properties = properties;
+        this.userDirectory = userDirectory;
+        this.ring = properties.isEnabled()
+                ? new ConsistentHashRing(properties.getShardIds(), properties.getVirtualNodes())
+                : null;
+        if (properties.isEnabled()) {
+            log.info("Sharding enabled over: {}", properties.getShardIds());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String shardOf(Long userId) {
+        return ring.shardFor(userId);
+    }
+
+    public <T> T callOnShardOf(Long userId, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        return ShardContext.callOn(shardOf(userId), action);
+    }
+
+    public void runOnShardOf(Long userId, Runnable action) {
+        callOnShardOf(userId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Unknown emails are looked up on the primary shard, where they aren't found either.
+     */
+    public <T> T callOnShardOfEmail(String email, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        String shardId = userDirectory.orElseThrow()
+                                      .findUserId(email)
+                                      .map(this::shardOf)
+                                      .orElse(properties.getPrimaryShardId());
+        return ShardContext.callOn(shardId, action);
+    }
+
+    public String getPrimaryShardId() {
+        return properties.getPrimaryShardId();
+    }
+
+    /**
+     * @return ids of all shards, the primary shard id alone without sharding
+     */
+    public List<String> getShardIds() {
+        return isEnabled() ? properties.getShardIds() : List.of(properties.getPrimaryShardId());
+    }
+
+    /**
+     * Runs the action on the given shard, e.g. to keep a position per shard.
+     */
+    public <T> T callOnShard(String shardId, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        return ShardContext.callOn(shardId, action);
+    }
+
+    /**
+     * Runs the action once on every shard, e.g. for maintenance jobs.
+     */
+    public void forEachShard(Runnable action) {
+        for (String shardId : getShardIds()) {
+            callOnShard(shardId, () -> {
+                action.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Splits the items by the shard of their user and runs the action once per shard.
+     */
+    public <T> void forEachShardPartition(List<T> items, Function<T, Long> userIdOf, Consumer<List<T>> action) {
+        if (!isEnabled()) {
+            action.accept(items);
+            return;
+        }
+        Map<String, List<T>> partitions = new LinkedHashMap<>();
+        for (T item : items) {
+            partitions.computeIfAbsent(shardOf(userIdOf.apply(item)), shard -> new ArrayList<>())
+                      .add(item);
+        }
+        partitions.forEach((shardId, partition) -> ShardContext.callOn(shardId, () -> {
+            action.accept(partition);
+            return null;
+        }));
+    }
+
+    /**
+     * Allocates the id of a new user and binds the email to it. The binding is released if the current
+     * transaction rolls back.
+     *
+     * @return the allocated id, or {@code null} without sharding, when the id comes from the database
+     */
+    public Long reserveUserId(String email) {
+        if (!isEnabled()) {
+            return null;
+        }
+        UserDirectory directory = userDirectory.orElseThrow();
+        Long userId = directory.reserve(email)
+                               .orElseThrow(() -> new EmailNotAvailableException(EMAIL_NOT_AVAILABLE_MESSAGE,
+                                                                                 HttpStatus.BAD_REQUEST));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        log.info("Registration of user: {} rolled back, releasing the email", userId);
+                        directory.release(email, userId);
+                    }
+                }
+            });
+        }
+        return userId;
+    }
+
+    /**
+     * Frees the email of a removed user once the removal commits.
+     */
+    public void releaseEmailAfterCommit(String email, Long userId) {
+        if (!isEnabled()) {
+            return;
+        }
+        UserDirectory directory = userDirectory.orElseThrow();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            directory.release(email, userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                directory.release(email, userId);
+            }
+        });
+    }
+}
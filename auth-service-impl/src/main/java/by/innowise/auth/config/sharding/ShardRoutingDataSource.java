@@ -0,0 +1,44 @@
+package by.innowise.auth.config.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Routes to the pool of the shard bound by {@link ShardContext}, or to the primary shard without one.
+ * An unknown shard id fails instead of silently reading the primary shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<String, HikariDataSource> shards;
+    private final String primaryShardId;
+
+    public ShardRoutingDataSource(Map<String, HikariDataSource> shards, String primaryShardId) {
+        this.shards = shards;
+        this.primaryShardId = primaryShardId;
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(primaryShardId));
+        setLenientFallback(false);
+    }
+
+    public Map<String, HikariDataSource> getShards() {
+        return shards;
+    }
+
+    public String getPrimaryShardId() {
+        return primaryShardId;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void close() {
+        shards.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,48 @@
+package by.innowise.auth.config.sharding;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Applies the regular changelog to every shard and the directory changelog to the primary shard.
+ * Replaces the auto-configured Liquibase bean, so JPA still starts after all migrations.
+ */
+public class ShardedLiquibase extends SpringLiquibase {
+
+    private final Map<String, ? extends DataSource> shards;
+    private final String primaryShardId;
+    private final String shardChangeLog;
+    private final String directoryChangeLog;
+
+    public ShardedLiquibase(Map<String, ? extends DataSource> shards, String primaryShardId,
+                            String shardChangeLog, String directoryChangeLog) {
+        this.shards = shards;
+        this.primaryShardId = primaryShardId;
+        this.shardChangeLog = shardChangeLog;
+        this.directoryChangeLog = directoryChangeLog;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (!shouldRun) {
+            return;
+        }
+        for (Map.Entry<String, ? extends DataSource> shard : shards.entrySet()) {
+            log.info("Migrating shard: " + shard.getKey());
+            migrate(shard.getValue(), shardChangeLog);
+        }
+        log.info("Migrating user directory on shard: " + primaryShardId);
+        migrate(shards.get(primaryShardId), directoryChangeLog);
+    }
+
+    private void migrate(DataSource dataSource, String changeLog) throws LiquibaseException {
+        new JdbcTemplate(dataSource).execute("CREATE SCHEMA IF NOT EXISTS " + getDefaultSchema());
+        setDataSource(dataSource);
+        setChangeLog(changeLog);
+        super.afterPropertiesSet();
+    }
+}
@@ -0,0 +1,69 @@
+package by.innowise.auth.config.sharding;
+
+import by.innowise.auth.config.datasource.DataSourceRoutingProperties;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.datasource.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /**
+     * Id of the shard served by {@code spring.datasource}, which also holds the email directory.
+     */
+    private String primaryShardId = "shard-0";
+
+    private DataSourceRoutingProperties.Pool primaryPool = new DataSourceRoutingProperties.Pool(20, 5);
+
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Points per shard on the hash ring, more points spread users more evenly.
+     */
+    private int virtualNodes = 128;
+
+    private String directoryChangeLog = "classpath:/db/directory/db.changelog-directory.yml";
+
+    private Rebalance rebalance = new Rebalance();
+
+    public List<String> getShardIds() {
+        List<String> ids = new ArrayList<>(shards.size() + 1);
+        ids.add(primaryShardId);
+        shards.forEach(shard -> ids.add(shard.getId()));
+        return ids;
+    }
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        private String id;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private DataSourceRoutingProperties.Pool pool = new DataSourceRoutingProperties.Pool(20, 5);
+    }
+
+    @Getter
+    @Setter
+    public static class Rebalance {
+
+        /**
+         * Runs {@link ShardRebalancer} on startup and exits afterwards.
+         */
+        private boolean enabled;
+
+        private int batchSize = 500;
+    }
+}
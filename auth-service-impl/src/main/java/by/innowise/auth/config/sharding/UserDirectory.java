@@ -0,0 +1,46 @@
+package by.innowise.auth.config.sharding;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+/**
+ * Email to user id directory on the primary shard's database. User ids are allocated here, so they are
+ * unique across shards and known before the user's shard is written.
+ * <p>
+ * Statements run in auto-commit on a pool of their own, outside of the shard transaction.
+ */
+@RequiredArgsConstructor
+public class UserDirectory {
+
+    private static final String NEXT_USER_ID = "SELECT nextval('app.user_id_seq')";
+    private static final String FIND_USER_ID = "SELECT user_id FROM app.user_directory WHERE email = ?";
+    private static final String RESERVE = """
+            INSERT INTO app.user_directory (email, user_id, created_at) VALUES (?, ?, now())
+            ON CONFLICT (email) DO NOTHING
+            """;
+    private static final String RELEASE = "DELETE FROM app.user_directory WHERE email = ? AND user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Long> findUserId(String email) {
+        return jdbcTemplate.queryForList(FIND_USER_ID, Long.class, email)
+                           .stream()
+                           .findFirst();
+    }
+
+    /**
+     * @return a new user id bound to the email, or empty when the email is already taken
+     */
+    public Optional<Long> reserve(String email) {
+        Long userId = jdbcTemplate.queryForObject(NEXT_USER_ID, Long.class);
+        return jdbcTemplate.update(RESERVE, email, userId) == 1
+                ? Optional.of(userId)
+                : Optional.empty();
+    }
+
+    public void release(String email, Long userId) {
+        jdbcTemplate.update(RELEASE, email, userId);
+    }
+}
@@ -0,0 +1,30 @@
+package by.innowise.auth.config.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.tracing")
+public class TracingProperties {
+
+    /**
+     * Local exporter for finished spans. OTLP export is switched on separately with
+     * {@code management.otlp.tracing.export.enabled} and may run alongside it.
+     */
+    private Exporter exporter = Exporter.NONE;
+
+    /**
+     * JSON lines file used by the {@code FILE} exporter.
+     */
+    private Path file = Path.of("spans.jsonl");
+
+    public enum Exporter {
+        NONE,
+        LOGGING,
+        FILE
+    }
+}
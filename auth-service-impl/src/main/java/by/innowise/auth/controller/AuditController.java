@@ -0,0 +1,41 @@
+package by.innowise.auth.controller;
+
+import by.innowise.auth.audit.AuditEventType;
+import by.innowise.auth.dto.event.AuditEventDto;
+import by.innowise.auth.service.AuditService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/audit")
+@Slf4j
+@RequiredArgsConstructor
+public class AuditController {
+
+    private static final String DEFAULT_LIMIT = "100";
+
+    private final AuditService auditService;
+
+    /**
+     * Times are UTC.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<List<AuditEventDto>> find(
+            @RequestParam(required = false) AuditEventType type,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+        log.info("Requested audit events of type: {}, user: {}", type, userId);
+        return ResponseEntity.ok(auditService.find(type, userId, from, to, limit));
+    }
+}
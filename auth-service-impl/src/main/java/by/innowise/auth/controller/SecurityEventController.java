@@ -0,0 +1,28 @@
+package by.innowise.auth.controller;
+
+import by.innowise.auth.outbox.SecurityEventDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/events")
+@Slf4j
+@RequiredArgsConstructor
+public class SecurityEventController {
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final SecurityEventDispatcher securityEventDispatcher;
+
+    @GetMapping(value = "/security", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        log.info("Requested security event stream after: {}", lastEventId);
+        return securityEventDispatcher.subscribe(lastEventId);
+    }
+}
@@ -1,14 +1,21 @@
 package by.innowise.auth.controller;
 
+import by.innowise.auth.dto.token.IntrospectionResponseDto;
 import by.innowise.auth.dto.token.TokenRequestDto;
 import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.introspection.TokenIntrospector;
+import by.innowise.auth.introspection.TokenIntrospector.Introspection;
 import by.innowise.auth.service.facade.AuthFacade;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -18,7 +25,10 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class TokenController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthFacade authFacade;
+    private final TokenIntrospector tokenIntrospector;
 
     @PostMapping("/validate")
     public ResponseEntity<Void> validate(@RequestBody @Valid TokenRequestDto tokenRequest) {
@@ -29,6 +39,37 @@ public class TokenController {
                              .build();
     }
 
+    /**
+     * RFC 7662 style introspection: a rejected token is a 200 with {@code active = false}. The token is in
+     * the body, which caches don't key on, so the response must not be stored.
+     */
+    @PostMapping("/introspect")
+    public ResponseEntity<IntrospectionResponseDto> introspect(@RequestBody @Valid TokenRequestDto tokenRequest) {
+        Introspection introspection = tokenIntrospector.introspect(tokenRequest);
+        log.info("Token introspected, active: {}", introspection.response().active());
+        return ResponseEntity.ok()
+                             .cacheControl(CacheControl.noStore())
+                             .body(introspection.response());
+    }
+
+    /**
+     * Cacheable form of {@link #introspect(TokenRequestDto)} for gateways and sidecar caches: the token is
+     * sent as a bearer token and responses vary by it. A request with a matching {@code If-None-Match}
+     * is answered with 304.
+     */
+    @GetMapping("/introspect")
+    public ResponseEntity<IntrospectionResponseDto> introspect(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        String token = authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())
+                ? authorization.substring(BEARER_PREFIX.length()).strip()
+                : "";
+        if (token.isEmpty()) {
+            log.info("Introspection request carries no bearer token");
+            return toCacheableResponse(tokenIntrospector.inactive());
+        }
+        return toCacheableResponse(tokenIntrospector.introspect(new TokenRequestDto(token)));
+    }
+
     @PostMapping("/refresh")
     public ResponseEntity<TokenResponseDto> refresh(@RequestBody @Valid TokenRequestDto tokenRequest) {
         log.info("Requested to refresh token: {}", tokenRequest.token());
@@ -37,4 +78,12 @@ public class TokenController {
         return ResponseEntity.ok(generatedTokens);
     }
 
+    private ResponseEntity<IntrospectionResponseDto> toCacheableResponse(Introspection introspection) {
+        log.info("Token introspected, active: {}", introspection.response().active());
+        return ResponseEntity.ok()
+                             .cacheControl(introspection.cacheControl())
+                             .eTag(introspection.eTag())
+                             .varyBy(HttpHeaders.AUTHORIZATION)
+                             .body(introspection.response());
+    }
 }
@@ -0,0 +1,16 @@
+package by.innowise.auth.crac;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.crac")
+public class CracProperties {
+
+    /**
+     * Environment variable the token secret is re-read from after a checkpoint is restored.
+     */
+    private String secretEnvVariable = "TOKEN_SECRET";
+}
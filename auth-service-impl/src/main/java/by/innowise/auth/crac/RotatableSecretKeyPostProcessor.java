@@ -0,0 +1,21 @@
+package by.innowise.auth.crac;
+
+import by.innowise.auth.service.jwt.RotatableSecretKey;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Wraps the security starter's signing key into a {@link RotatableSecretKey} before anything is built
+ * from it, so the starter's parser and {@code JwtFilter} share the key a restore rotates.
+ */
+public class RotatableSecretKeyPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof SecretKey key && !(bean instanceof RotatableSecretKey)) {
+            return new RotatableSecretKey(key);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,41 @@
+package by.innowise.auth.crac;
+
+import by.innowise.auth.config.datasource.RoutingDataSource;
+import org.springframework.boot.jdbc.HikariCheckpointRestoreLifecycle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.Lifecycle;
+
+import java.util.List;
+
+/**
+ * Boot suspends and reconnects only the auto-configured pool around a checkpoint.
+ * This does the same for every pool behind {@link RoutingDataSource}.
+ */
+public class RoutingPoolsCheckpointRestoreLifecycle implements Lifecycle {
+
+    private final List<HikariCheckpointRestoreLifecycle> delegates;
+
+    public RoutingPoolsCheckpointRestoreLifecycle(RoutingDataSource routingDataSource,
+                                                  ConfigurableApplicationContext applicationContext) {
+        this.delegates = routingDataSource.getResolvedDataSources()
+                                          .values().stream()
+                                          .distinct()
+                                          .map(ds -> new HikariCheckpointRestoreLifecycle(ds, applicationContext))
+                                          .toList();
+    }
+
+    @Override
+    public void start() {
+        delegates.forEach(HikariCheckpointRestoreLifecycle::start);
+    }
+
+    @Override
+    public void stop() {
+        delegates.forEach(HikariCheckpointRestoreLifecycle::stop);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return delegates.stream().allMatch(HikariCheckpointRestoreLifecycle::isRunning);
+    }
+}
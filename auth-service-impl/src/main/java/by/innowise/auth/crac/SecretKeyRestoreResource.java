@@ -0,0 +1,105 @@
+package by.innowise.auth.crac;
+
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.service.dto.TokenSubject;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
+import by.innowise.internship.security.dto.Role;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A checkpoint image must not pin the signing secret it was taken with. After restore the secret is
+ * read again from the environment and, if it changed, rotated in the key shared by {@link JwtTokenProvider}
+ * and the security starter. The key is derived the same way the security starter derived the startup key,
+ * which is detected by comparing the candidate derivations against it.
+ * <p>
+ * A token issued with the new key is then validated by the shared parser, which fails loudly if the
+ * starter doesn't verify with the rotated key.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecretKeyRestoreResource implements Resource {
+
+    private static final String SECRET_PROPERTY = "application.security.secretKey";
+    private static final TokenSubject PROBE_SUBJECT = new TokenSubject(0L, "restore@auth.local", Role.USER, 0L);
+    private static final List<Function<String, SecretKey>> KEY_DERIVATIONS = List.of(
+            secret -> Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)),
+            secret -> Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final Environment environment;
+    private final CracProperties properties;
+    private Function<String, SecretKey> keyDerivation;
+
+    @PostConstruct
+    void register() {
+        keyDerivation = detectKeyDerivation(environment.getProperty(SECRET_PROPERTY));
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        log.info("Preparing for checkpoint, the signing key will be reloaded on restore");
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        String secret = System.getenv(properties.getSecretEnvVariable());
+        if (secret == null || keyDerivation == null) {
+            log.warn("Signing key can't be reloaded after restore, the checkpointed key is kept");
+            return;
+        }
+        SecretKey restored = keyDerivation.apply(secret);
+        if (!MessageDigest.isEqual(restored.getEncoded(), jwtTokenProvider.getSecretKey().getEncoded())) {
+            jwtTokenProvider.replaceSecretKey(restored);
+            verifyRotatedKey();
+            log.info("Signing key was reloaded from the environment after restore");
+        }
+    }
+
+    private void verifyRotatedKey() {
+        try {
+            jwtTokenProvider.validate(jwtTokenProvider.generate(PROBE_SUBJECT, LocalDateTime.now(ZoneOffset.UTC),
+                                                                TokenType.ACCESS));
+        } catch (TokenValidationException e) {
+            throw new IllegalStateException("Tokens signed with the restored key are rejected, restart the instance",
+                                            e);
+        }
+    }
+
+    private Function<String, SecretKey> detectKeyDerivation(String configuredSecret) {
+        if (configuredSecret == null) {
+            return null;
+        }
+        byte[] current = jwtTokenProvider.getSecretKey().getEncoded();
+        for (Function<String, SecretKey> derivation : KEY_DERIVATIONS) {
+            try {
+                if (MessageDigest.isEqual(derivation.apply(configuredSecret).getEncoded(), current)) {
+                    return derivation;
+                }
+            } catch (RuntimeException e) {
+                log.debug("Secret key derivation doesn't apply: {}", e.getMessage());
+            }
+        }
+        log.warn("Unknown secret key derivation, the key will not be reloaded after restore");
+        return null;
+    }
+}
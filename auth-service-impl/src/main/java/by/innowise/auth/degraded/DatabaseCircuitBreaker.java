@@ -0,0 +1,166 @@
+package by.innowise.auth.degraded;
+
+import by.innowise.auth.exception.DatabaseUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around user and token lookups. It opens after {@code failureThreshold} failed or slow
+ * lookups in a row; while open, lookups fail at once with {@link DatabaseUnavailableException}. Once
+ * {@code openDuration} passed, a single lookup probes the database and closes the circuit on success.
+ * <p>
+ * Only database errors count as failures, a lookup that finds nothing is a success.
+ */
+@Slf4j
+@Component
+public class DatabaseCircuitBreaker {
+
+    private static final String UNAVAILABLE_MESSAGE = "The database is unavailable, retry later";
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final DegradedModeProperties properties;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAtNanos;
+    private long degradedSinceNanos;
+    private long degradedNanos;
+
+    @Autowired
+    public DatabaseCircuitBreaker(DegradedModeProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime source of {@link System#nanoTime()}, replaced by tests to move time forward
+     */
+    DatabaseCircuitBreaker(DegradedModeProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        Gauge.builder("auth.db.circuit.state", this, breaker -> breaker.state.ordinal())
+             .description("0 closed, 1 half open, 2 open")
+             .register(meterRegistry);
+        FunctionCounter.builder("auth.degraded.time", this, DatabaseCircuitBreaker::getDegradedSeconds)
+                       .baseUnit("seconds")
+                       .register(meterRegistry);
+    }
+
+    /**
+     * @throws DatabaseUnavailableException if the circuit is open or the lookup failed on the database
+     */
+    public <T> T call(Supplier<T> lookup) {
+        if (!properties.isEnabled()) {
+            return lookup.get();
+        }
+        if (!tryAcquirePermission()) {
+            throw new DatabaseUnavailableException(UNAVAILABLE_MESSAGE, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        long start = nanoTime.getAsLong();
+        T result;
+        try {
+            result = lookup.get();
+        } catch (DataAccessException | TransactionException e) {
+            onFailure();
+            throw new DatabaseUnavailableException(UNAVAILABLE_MESSAGE, HttpStatus.SERVICE_UNAVAILABLE, e);
+        } catch (RuntimeException e) {
+            onSuccess(nanoTime.getAsLong() - start);
+            throw e;
+        }
+        onSuccess(nanoTime.getAsLong() - start);
+        return result;
+    }
+
+    /**
+     * Whether lookups are refused right now, i.e. the circuit is open and no probe is due yet.
+     */
+    public boolean isOpen() {
+        State current = state;
+        return current == State.HALF_OPEN
+                || current == State.OPEN && nanoTime.getAsLong() - openedAtNanos < properties.getOpenDuration().toNanos();
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, properties.getOpenDuration().toSeconds());
+    }
+
+    private boolean tryAcquirePermission() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN
+                && nanoTime.getAsLong() - openedAtNanos >= properties.getOpenDuration().toNanos()
+                && probing.compareAndSet(false, true)) {
+            state = State.HALF_OPEN;
+            log.info("Probing the database after the circuit was open for: {}", properties.getOpenDuration());
+            return true;
+        }
+        return false;
+    }
+
+    private void onSuccess(long durationNanos) {
+        if (durationNanos > properties.getSlowCallThreshold().toNanos()) {
+            log.warn("Database lookup took: {}ms", TimeUnit.NANOSECONDS.toMillis(durationNanos));
+            onFailure();
+            return;
+        }
+        consecutiveFailures.set(0);
+        if (state != State.CLOSED) {
+            close();
+        }
+    }
+
+    private void onFailure() {
+        if (state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= properties.getFailureThreshold()) {
+            open();
+        }
+    }
+
+    private synchronized void open() {
+        long now = nanoTime.getAsLong();
+        if (state == State.CLOSED) {
+            degradedSinceNanos = now;
+            log.warn("Database circuit opened after {} failed lookups, validating from user snapshots",
+                     consecutiveFailures.get());
+        }
+        openedAtNanos = now;
+        state = State.OPEN;
+        probing.set(false);
+    }
+
+    private synchronized void close() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        long degradedFor = nanoTime.getAsLong() - degradedSinceNanos;
+        degradedNanos += degradedFor;
+        state = State.CLOSED;
+        consecutiveFailures.set(0);
+        probing.set(false);
+        log.info("Database circuit closed after being degraded for: {}ms", TimeUnit.NANOSECONDS.toMillis(degradedFor));
+    }
+
+    private synchronized double getDegradedSeconds() {
+        long total = state == State.CLOSED ? degradedNanos : degradedNanos + nanoTime.getAsLong() - degradedSinceNanos;
+        return total / 1e9;
+    }
+}
@@ -0,0 +1,62 @@
+package by.innowise.auth.degraded;
+
+import by.innowise.auth.limit.EndpointClass;
+import by.innowise.common.library.exception.dto.SimpleExceptionDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Fails register, login and refresh fast with {@code 503} and {@code Retry-After} while the database
+ * circuit is open. They can't do without the database, and rejecting them before the security chain
+ * spares them from waiting for a connection. Validation passes and may be served from user snapshots.
+ */
+public class DegradedModeFilter extends OncePerRequestFilter {
+
+    private static final String UNAVAILABLE_MESSAGE = "The database is unavailable, retry later";
+
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+    private final byte[] unavailableBody;
+
+    public DegradedModeFilter(DatabaseCircuitBreaker databaseCircuitBreaker, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) throws JsonProcessingException {
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        this.unavailableBody = objectMapper.writeValueAsBytes(
+                new SimpleExceptionDto(HttpStatus.SERVICE_UNAVAILABLE.value(), UNAVAILABLE_MESSAGE));
+        for (EndpointClass endpointClass : new EndpointClass[]{EndpointClass.REGISTER, EndpointClass.LOGIN,
+                EndpointClass.REFRESH}) {
+            rejections.put(endpointClass, meterRegistry.counter("auth.degraded.rejections",
+                                                                "endpoint", endpointClass.name().toLowerCase()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Counter rejected = rejections.get(EndpointClass.forRequest(request));
+        if (rejected == null || !databaseCircuitBreaker.isOpen()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected.increment();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(databaseCircuitBreaker.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(unavailableBody.length);
+        response.getOutputStream().write(unavailableBody);
+    }
+}
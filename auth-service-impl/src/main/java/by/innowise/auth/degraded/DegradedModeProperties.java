@@ -0,0 +1,37 @@
+package by.innowise.auth.degraded;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.degraded-mode")
+public class DegradedModeProperties {
+
+    private boolean enabled;
+
+    /**
+     * Failed or slow lookups in a row that open the circuit.
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * A lookup slower than this counts as failed even if it succeeds.
+     */
+    private Duration slowCallThreshold = Duration.ofSeconds(2);
+
+    /**
+     * How long the circuit stays open before a single lookup probes the database again.
+     */
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    /**
+     * Oldest user snapshot an access token may be validated against while the database is unavailable.
+     */
+    private Duration maxStaleness = Duration.ofMinutes(5);
+
+    private long snapshotCapacity = 100_000;
+}
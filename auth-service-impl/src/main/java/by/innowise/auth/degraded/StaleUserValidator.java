@@ -0,0 +1,70 @@
+package by.innowise.auth.degraded;
+
+import by.innowise.auth.degraded.UserSnapshotCache.UserSnapshot;
+import by.innowise.auth.exception.DatabaseUnavailableException;
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.service.jwt.UserVersionRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Validates a cryptographically valid access token against the last known snapshot of its user while
+ * the database is unavailable. Refresh tokens and users without a snapshot keep failing with 503.
+ */
+@Slf4j
+@Component
+public class StaleUserValidator {
+
+    private final DegradedModeProperties properties;
+    private final UserSnapshotCache userSnapshotCache;
+    private final UserVersionRegistry userVersionRegistry;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter unavailable;
+
+    public StaleUserValidator(DegradedModeProperties properties,
+                              UserSnapshotCache userSnapshotCache,
+                              UserVersionRegistry userVersionRegistry,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userSnapshotCache = userSnapshotCache;
+        this.userVersionRegistry = userVersionRegistry;
+        this.accepted = meterRegistry.counter("auth.degraded.validations", "outcome", "accepted");
+        this.rejected = meterRegistry.counter("auth.degraded.validations", "outcome", "rejected");
+        this.unavailable = meterRegistry.counter("auth.degraded.validations", "outcome", "unavailable");
+    }
+
+    /**
+     * @param cause the failure of the regular lookup, rethrown when the token can't be validated from a snapshot
+     * @throws TokenValidationException if the snapshot contradicts the token
+     */
+    public void validate(ParsedTokenDto token, DatabaseUnavailableException cause) {
+        Optional<UserSnapshot> snapshot = properties.isEnabled() && token.getTokenType() == TokenType.ACCESS
+                ? userSnapshotCache.find(token.getUserId())
+                : Optional.empty();
+        if (snapshot.isEmpty()) {
+            unavailable.increment();
+            throw cause;
+        }
+        if (isRevoked(token, snapshot.get())) {
+            rejected.increment();
+            log.info("Token of user: {} is rejected by the user snapshot", token.getUserId());
+            throw new TokenValidationException("Token contains insufficient data", HttpStatus.UNAUTHORIZED);
+        }
+        accepted.increment();
+        log.debug("Token of user: {} is validated by the user snapshot", token.getUserId());
+    }
+
+    private boolean isRevoked(ParsedTokenDto token, UserSnapshot snapshot) {
+        return snapshot.role() != token.getRole()
+                || !token.matchesEmail(snapshot.email())
+                || token.getUserVersion() != null && userVersionRegistry.isRevoked(token);
+    }
+}
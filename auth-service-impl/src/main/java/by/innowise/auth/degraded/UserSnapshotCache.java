@@ -0,0 +1,60 @@
+package by.innowise.auth.degraded;
+
+import by.innowise.auth.invalidation.Invalidation;
+import by.innowise.auth.invalidation.InvalidationSubscriber;
+import by.innowise.auth.repository.entity.AuthUser;
+import by.innowise.internship.security.dto.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Last known state of recently validated active users, kept for {@code maxStaleness} after it was
+ * read. Users changed or removed through this instance are evicted once the change commits, through
+ * other replicas once their invalidation arrives.
+ */
+@Component
+public class UserSnapshotCache implements InvalidationSubscriber {
+
+    private final DegradedModeProperties properties;
+    private final Cache<Long, UserSnapshot> snapshots;
+
+    public UserSnapshotCache(DegradedModeProperties properties) {
+        this.properties = properties;
+        this.snapshots = Caffeine.newBuilder()
+                                 .maximumSize(properties.getSnapshotCapacity())
+                                 .expireAfterWrite(properties.getMaxStaleness())
+                                 .build();
+    }
+
+    public void remember(AuthUser user) {
+        if (properties.isEnabled()) {
+            snapshots.put(user.getId(), new UserSnapshot(user.getEmail(), user.getRole()));
+        }
+    }
+
+    public void evict(Long userId) {
+        snapshots.invalidate(userId);
+    }
+
+    @Override
+    public void invalidate(Invalidation invalidation) {
+        if (invalidation.userId() != null) {
+            evict(invalidation.userId());
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    public Optional<UserSnapshot> find(Long userId) {
+        return Optional.ofNullable(snapshots.getIfPresent(userId));
+    }
+
+    public record UserSnapshot(String email, Role role) {
+    }
+}
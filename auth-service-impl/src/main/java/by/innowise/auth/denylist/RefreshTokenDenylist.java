@@ -0,0 +1,113 @@
+package by.innowise.auth.denylist;
+
+import by.innowise.auth.invalidation.Invalidation;
+import by.innowise.auth.invalidation.InvalidationSubscriber;
+import by.innowise.auth.invalidation.InvalidationType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes of rotated or revoked refresh tokens, each kept until the token itself expires. A listed hash
+ * is rejected before any query; a hash that is not listed is checked against the database as before.
+ * <p>
+ * A hash never becomes valid again once its row is deleted, so an entry can't go stale and the
+ * database stays the source of truth. Revocations of other instances arrive as invalidations or through
+ * {@link RefreshTokenDenylistSync}; until then those tokens simply take the database path.
+ */
+@Slf4j
+@Component
+public class RefreshTokenDenylist implements InvalidationSubscriber {
+
+    private static final String CACHE_NAME = "refresh-token-denylist";
+
+    private final RefreshTokenDenylistProperties properties;
+    private final Cache<String, Long> revoked;
+
+    public RefreshTokenDenylist(RefreshTokenDenylistProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.revoked = Caffeine.newBuilder()
+                               .maximumSize(properties.getCapacity())
+                               .expireAfter(new UntilTokenExpiry())
+                               .recordStats()
+                               .build();
+        if (properties.isEnabled()) {
+            CaffeineCacheMetrics.monitor(meterRegistry, revoked, CACHE_NAME);
+        }
+    }
+
+    public boolean isRevoked(String hashedToken) {
+        return properties.isEnabled() && revoked.getIfPresent(hashedToken) != null;
+    }
+
+    public void add(String hashedToken, LocalDateTime expiresAt) {
+        if (!properties.isEnabled() || hashedToken == null || expiresAt == null) {
+            return;
+        }
+        long expiresAtEpochSecond = expiresAt.toEpochSecond(ZoneOffset.UTC);
+        if (expiresAtEpochSecond > Instant.now().getEpochSecond()) {
+            revoked.put(hashedToken, expiresAtEpochSecond);
+        }
+    }
+
+    /**
+     * Lists the hash once the current transaction commits, so a rolled back rotation denies nothing.
+     */
+    public void addAfterCommit(String hashedToken, LocalDateTime expiresAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(hashedToken, expiresAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(hashedToken, expiresAt);
+            }
+        });
+    }
+
+    @Override
+    public void invalidate(Invalidation invalidation) {
+        if (invalidation.type() == InvalidationType.REFRESH_TOKEN_REVOKED) {
+            add(invalidation.tokenHash(), invalidation.expiresAt());
+        }
+    }
+
+    /**
+     * Nothing to flush: a listed hash can't go stale, and a missed one is still rejected by the database.
+     */
+    @Override
+    public void invalidateAll() {
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String hashedToken, Long expiresAtEpochSecond, long currentTime) {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, expiresAtEpochSecond - Instant.now().getEpochSecond()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String hashedToken, Long expiresAtEpochSecond, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String hashedToken, Long expiresAtEpochSecond, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
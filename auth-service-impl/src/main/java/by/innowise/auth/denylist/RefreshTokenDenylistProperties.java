@@ -0,0 +1,27 @@
+package by.innowise.auth.denylist;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.token-denylist")
+public class RefreshTokenDenylistProperties {
+
+    private boolean enabled;
+
+    /**
+     * Maximum number of remembered hashes, the least recently used are evicted first.
+     */
+    private long capacity = 100_000;
+
+    /**
+     * How often revocations made by other instances are read from the relayed security events.
+     */
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    private int syncBatchSize = 500;
+}
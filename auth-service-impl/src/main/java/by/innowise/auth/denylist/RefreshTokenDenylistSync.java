@@ -0,0 +1,56 @@
+package by.innowise.auth.denylist;
+
+import by.innowise.auth.config.datasource.DataSourceRoutingContext;
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.dto.event.RevokedTokenDto;
+import by.innowise.auth.service.SecurityEventService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists refresh tokens revoked by any instance, read from the relayed security events of every shard.
+ * Starts from the events relayed after this instance started, older rotations are found in the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.token-denylist", name = "enabled", havingValue = "true")
+public class RefreshTokenDenylistSync {
+
+    private final SecurityEventService securityEventService;
+    private final RefreshTokenDenylist refreshTokenDenylist;
+    private final RefreshTokenDenylistProperties properties;
+    private final ShardRouter shardRouter;
+    private final Map<String, Long> cursors = new HashMap<>();
+
+    @Scheduled(fixedDelayString = "${application.token-denylist.sync-interval:1s}")
+    public void sync() {
+        for (String shardId : shardRouter.getShardIds()) {
+            long cursor = shardRouter.callOnShard(shardId, () -> DataSourceRoutingContext.callInBackground(
+                    () -> sync(shardId, cursors.get(shardId))));
+            cursors.put(shardId, cursor);
+        }
+    }
+
+    private long sync(String shardId, Long from) {
+        long cursor = from == null ? securityEventService.getLastRelayedSeq() : from;
+        List<RevokedTokenDto> revoked;
+        do {
+            revoked = securityEventService.getRevokedTokensAfter(cursor, properties.getSyncBatchSize());
+            revoked.forEach(token -> refreshTokenDenylist.add(token.hashedToken(), token.expiresAt()));
+            if (!revoked.isEmpty()) {
+                cursor = revoked.getLast().seq();
+                log.debug("Listed {} refresh tokens revoked up to seq: {} on shard: {}",
+                          revoked.size(), cursor, shardId);
+            }
+        } while (revoked.size() == properties.getSyncBatchSize());
+        return cursor;
+    }
+}
@@ -0,0 +1,236 @@
+package by.innowise.auth.denylist;
+
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.refreshtoken.RefreshTokenProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revocation state of stateless refresh tokens: the last used rotation of each family, kept until the
+ * newest token of the family expires. Presenting a rotation that is already used means the token was
+ * replayed, so the whole family is revoked and the client has to log in again.
+ * <p>
+ * The state lives in memory of a single instance and is periodically written to disk, so it survives
+ * restarts but not crashes between snapshots. Rotations made by other instances are unknown here: with
+ * several instances a replayed token is detected only by the instance that served the previous refresh.
+ * Deleted or deactivated users are still rejected by the user lookup of every refresh.
+ * <p>
+ * Active families are bounded by {@code max-families}: each eviction is counted and reported with the
+ * next snapshot. Revoked families weigh nothing, so a revocation is kept until the family expires.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.refresh-token", name = "storage", havingValue = "stateless")
+public class RefreshTokenFamilyDenylist {
+
+    private static final int SNAPSHOT_MAGIC = 0x52544644;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final long REVOKED = Long.MAX_VALUE;
+
+    private final RefreshTokenProperties properties;
+    private final Cache<UUID, Family> families;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicLong evictedSinceSnapshot = new AtomicLong();
+    private final Counter evicted;
+
+    public RefreshTokenFamilyDenylist(RefreshTokenProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.families = Caffeine.newBuilder()
+                                .maximumWeight(properties.getStateless().getMaxFamilies())
+                                .weigher((UUID familyId, Family family) -> family.lastRotation() == REVOKED ? 0 : 1)
+                                .expireAfter(new UntilFamilyExpiry())
+                                .evictionListener(this::onEviction)
+                                .build();
+        this.evicted = Counter.builder("auth.refresh-token.families.evicted")
+                              .register(meterRegistry);
+        Gauge.builder("auth.refresh-token.families", families, Cache::estimatedSize)
+             .register(meterRegistry);
+    }
+
+    /**
+     * Marks the rotation of the family as used. Within a transaction the mark is undone if the transaction
+     * doesn't commit, so a refresh that failed can be retried with the same token. A revocation for reuse
+     * is kept either way.
+     *
+     * @param expiresAtEpochSecond expiration of the token issued for the next rotation
+     * @throws TokenValidationException if the family is revoked or the rotation is already used
+     */
+    public void rotate(UUID familyId, long rotation, long expiresAtEpochSecond) {
+        Family[] previous = new Family[1];
+        Family family = families.asMap().compute(familyId, (id, used) -> {
+            previous[0] = used;
+            if (used == null || used.lastRotation() < rotation) {
+                return new Family(rotation, expiresAtEpochSecond);
+            }
+            return new Family(REVOKED, Math.max(used.expiresAtEpochSecond(), expiresAtEpochSecond));
+        });
+        dirty.set(true);
+        if (family.lastRotation() == REVOKED) {
+            log.warn("Rotation: {} of refresh token family: {} is reused or revoked, the family is revoked",
+                     rotation, familyId);
+            throw new TokenValidationException("Refresh token is revoked", HttpStatus.UNAUTHORIZED);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        undoRotation(familyId, family, previous[0]);
+                    }
+                }
+            });
+        }
+    }
+
+    public void revoke(UUID familyId, long expiresAtEpochSecond) {
+        families.asMap().merge(familyId, new Family(REVOKED, expiresAtEpochSecond),
+                       (used, revoked) -> new Family(REVOKED, Math.max(used.expiresAtEpochSecond(),
+                                                                       expiresAtEpochSecond)));
+        dirty.set(true);
+        log.info("Refresh token family: {} is revoked", familyId);
+    }
+
+    @PostConstruct
+    void restore() {
+        Path file = properties.getStateless().getSnapshotFile();
+        if (!Files.exists(file)) {
+            return;
+        }
+        long now = Instant.now().getEpochSecond();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring refresh token family snapshot of unknown format: {}", file);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID familyId = new UUID(in.readLong(), in.readLong());
+                Family family = new Family(in.readLong(), in.readLong());
+                if (family.expiresAtEpochSecond() > now) {
+                    families.put(familyId, family);
+                }
+            }
+            log.info("Restored {} refresh token families from: {}", families.estimatedSize(), file);
+        } catch (IOException e) {
+            log.warn("Failed to restore refresh token families from: {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        snapshot();
+    }
+
+    /**
+     * Drops expired families and writes the rest to a temporary file that then replaces the snapshot,
+     * so a crash while writing leaves the previous snapshot intact.
+     */
+    @Scheduled(fixedDelayString = "${application.refresh-token.stateless.snapshot-interval:30s}")
+    public void snapshot() {
+        families.cleanUp();
+        long evictions = evictedSinceSnapshot.getAndSet(0);
+        if (evictions > 0) {
+            log.warn("Evicted {} refresh token families at the capacity of {}, replays of their tokens go undetected",
+                     evictions, properties.getStateless().getMaxFamilies());
+        }
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Path file = properties.getStateless().getSnapshotFile().toAbsolutePath();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Map<UUID, Family> copy = Map.copyOf(families.asMap());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(copy.size());
+            for (Map.Entry<UUID, Family> entry : copy.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeLong(entry.getValue().lastRotation());
+                out.writeLong(entry.getValue().expiresAtEpochSecond());
+            }
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("Failed to write refresh token families to: {}", temporary, e);
+            return;
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote {} refresh token families to: {}", copy.size(), file);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("Failed to replace refresh token family snapshot: {}", file, e);
+        }
+    }
+
+    /**
+     * Restores the previous state unless the family changed meanwhile, e.g. was revoked.
+     */
+    private void undoRotation(UUID familyId, Family rotated, Family previous) {
+        families.asMap().computeIfPresent(familyId, (id, current) -> current.equals(rotated) ? previous : current);
+        dirty.set(true);
+        log.info("Rotation: {} of refresh token family: {} is rolled back", rotated.lastRotation(), familyId);
+    }
+
+    private void onEviction(UUID familyId, Family family, RemovalCause cause) {
+        if (cause == RemovalCause.SIZE) {
+            evicted.increment();
+            evictedSinceSnapshot.incrementAndGet();
+        }
+    }
+
+    private record Family(long lastRotation, long expiresAtEpochSecond) {
+    }
+
+    private static class UntilFamilyExpiry implements Expiry<UUID, Family> {
+
+        @Override
+        public long expireAfterCreate(UUID familyId, Family family, long currentTime) {
+            return untilExpiry(family);
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID familyId, Family family, long currentTime, long currentDuration) {
+            return untilExpiry(family);
+        }
+
+        @Override
+        public long expireAfterRead(UUID familyId, Family family, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long untilExpiry(Family family) {
+            long seconds = family.expiresAtEpochSecond() - Instant.now().getEpochSecond();
+            return TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+        }
+    }
+}
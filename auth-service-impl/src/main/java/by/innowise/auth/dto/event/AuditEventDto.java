@@ -0,0 +1,13 @@
+package by.innowise.auth.dto.event;
+
+import java.time.LocalDateTime;
+
+public record AuditEventDto(
+        Long id,
+        String type,
+        Long userId,
+        String email,
+        String detail,
+        LocalDateTime occurredAt
+) {
+}
@@ -0,0 +1,10 @@
+package by.innowise.auth.dto.event;
+
+import java.time.LocalDateTime;
+
+public record RevokedTokenDto(
+        Long seq,
+        String hashedToken,
+        LocalDateTime expiresAt
+) {
+}
@@ -0,0 +1,13 @@
+package by.innowise.auth.dto.event;
+
+import java.time.LocalDateTime;
+
+public record SecurityEventDto(
+        Long seq,
+        String type,
+        Long userId,
+        Long userVersion,
+        String role,
+        LocalDateTime occurredAt
+) {
+}
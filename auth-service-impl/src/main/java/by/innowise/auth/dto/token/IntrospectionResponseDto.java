@@ -0,0 +1,23 @@
+package by.innowise.auth.dto.token;
+
+import by.innowise.internship.security.dto.Role;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Claims of an active token, only {@code active = false} for a rejected one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IntrospectionResponseDto(
+        boolean active,
+        Long userId,
+        String email,
+        Role role,
+        String tokenType,
+        Long issuedAt,
+        Long expiresAt,
+        Long userVersion
+) {
+
+    public static final IntrospectionResponseDto INACTIVE =
+            new IntrospectionResponseDto(false, null, null, null, null, null, null, null);
+}
@@ -0,0 +1,15 @@
+package by.innowise.auth.exception;
+
+import by.innowise.common.library.exception.ApplicationException;
+import org.springframework.http.HttpStatus;
+
+public class DatabaseUnavailableException extends ApplicationException {
+
+    public DatabaseUnavailableException(String message, HttpStatus httpStatus, Throwable cause) {
+        super(message, httpStatus, cause);
+    }
+
+    public DatabaseUnavailableException(String message, HttpStatus httpStatus) {
+        super(message, httpStatus);
+    }
+}
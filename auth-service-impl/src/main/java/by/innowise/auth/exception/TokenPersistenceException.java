@@ -0,0 +1,15 @@
+package by.innowise.auth.exception;
+
+import by.innowise.common.library.exception.ApplicationException;
+import org.springframework.http.HttpStatus;
+
+public class TokenPersistenceException extends ApplicationException {
+
+    public TokenPersistenceException(String message, HttpStatus httpStatus, Throwable cause) {
+        super(message, httpStatus, cause);
+    }
+
+    public TokenPersistenceException(String message, HttpStatus httpStatus) {
+        super(message, httpStatus);
+    }
+}
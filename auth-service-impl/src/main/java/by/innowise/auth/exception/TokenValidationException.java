@@ -3,6 +3,10 @@ package by.innowise.auth.exception;
 import by.innowise.common.library.exception.ApplicationException;
 import org.springframework.http.HttpStatus;
 
+/**
+ * Thrown for every rejected token, so it captures no stack trace: the message tells the reason and
+ * capturing the stack dominated the cost of rejecting floods of expired or forged tokens.
+ */
 public class TokenValidationException extends ApplicationException {
 
     public TokenValidationException(String message, HttpStatus httpStatus, Throwable cause) {
@@ -12,4 +16,9 @@ public class TokenValidationException extends ApplicationException {
     public TokenValidationException(String message, HttpStatus httpStatus) {
         super(message, httpStatus);
     }
+
+    @Override
+    public Throwable fillInStackTrace() {
+        return this;
+    }
 }
@@ -0,0 +1,36 @@
+package by.innowise.auth.groupcommit;
+
+import by.innowise.auth.config.datasource.DataSourceRoutingProperties;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.token-write.group-commit")
+public class GroupCommitProperties {
+
+    private boolean enabled;
+
+    private int maxBatchSize = 256;
+
+    /**
+     * How long the writer waits for more rows after the first one of a batch arrived.
+     */
+    private Duration maxDelay = Duration.ofMillis(2);
+
+    /**
+     * Rows waiting for the writer. When it is full, callers insert their row themselves.
+     */
+    private int queueCapacity = 10_000;
+
+    private Duration commitTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Writer's own pool, one per shard. Callers wait holding connections of the main pool, so the writer
+     * must never compete with them.
+     */
+    private DataSourceRoutingProperties.Pool pool = new DataSourceRoutingProperties.Pool(2, 1);
+}
@@ -0,0 +1,277 @@
+package by.innowise.auth.groupcommit;
+
+import by.innowise.auth.config.datasource.HikariPools;
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.config.sharding.ShardRoutingDataSource;
+import by.innowise.auth.exception.TokenPersistenceException;
+import by.innowise.auth.repository.RefreshTokenBatchRepository;
+import by.innowise.auth.service.dto.RefreshTokenCreateDto;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit of refresh token inserts: concurrent callers enqueue their rows, a single writer
+ * thread inserts whatever has arrived within {@code maxDelay} (up to {@code maxBatchSize} rows) in one
+ * transaction, and every caller returns only after the transaction holding its row has committed.
+ * <p>
+ * The rows are written outside the caller's transaction, so the referenced user must already be
+ * committed. New users still take the regular insert.
+ * <p>
+ * Callers wait holding a connection of the main pool, so the writer has its own small pool per shard:
+ * under peak load it would otherwise wait for a connection held by the very callers waiting for it.
+ * A caller whose transaction rolls back after its row was committed deletes the row again, on the
+ * writer's pool; if that fails too, the unused row is removed with the expired tokens.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.token-write.group-commit", name = "enabled", havingValue = "true")
+public class RefreshTokenGroupCommitWriter implements SmartLifecycle {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private static final String POOL_NAME_PREFIX = "group-commit-";
+
+    private final RefreshTokenBatchRepository batchRepository;
+    private final GroupCommitProperties properties;
+    private final ShardRouter shardRouter;
+    private final BlockingQueue<PendingInsert> queue;
+    private final Closeable writerDataSource;
+    private final RefreshTokenBatchRepository writerRepository;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public RefreshTokenGroupCommitWriter(RefreshTokenBatchRepository batchRepository,
+                                         GroupCommitProperties properties,
+                                         ShardRouter shardRouter,
+                                         DataSourceProperties dataSourceProperties,
+                                         ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        this(batchRepository, properties, shardRouter,
+             createWriterPool(properties, dataSourceProperties, shardRoutingDataSource.getIfAvailable()));
+    }
+
+    private RefreshTokenGroupCommitWriter(RefreshTokenBatchRepository batchRepository,
+                                          GroupCommitProperties properties,
+                                          ShardRouter shardRouter,
+                                          WriterPool writerPool) {
+        this(batchRepository, properties, shardRouter, writerPool.repository(), writerPool.dataSource());
+    }
+
+    /**
+     * @param writerRepository repository on the writer's own pool
+     * @param writerDataSource the writer's own pool, closed on {@link #stop()}
+     */
+    RefreshTokenGroupCommitWriter(RefreshTokenBatchRepository batchRepository,
+                                  GroupCommitProperties properties,
+                                  ShardRouter shardRouter,
+                                  RefreshTokenBatchRepository writerRepository,
+                                  Closeable writerDataSource) {
+        this.batchRepository = batchRepository;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.writerRepository = writerRepository;
+        this.writerDataSource = writerDataSource;
+    }
+
+    /**
+     * Blocks until the row is committed. Falls back to inserting in the caller's transaction when the
+     * writer is stopped or saturated.
+     */
+    public void insert(RefreshTokenCreateDto token) {
+        PendingInsert pending = new PendingInsert(token, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            log.debug("Group commit writer is unavailable, inserting refresh token directly");
+            batchRepository.insertAll(List.of(token));
+            return;
+        }
+        awaitCommit(pending);
+        deleteOnRollback(token);
+    }
+
+    private void deleteOnRollback(RefreshTokenCreateDto token) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    shardRouter.runOnShardOf(token.authUser().getId(), () -> writerRepository.deleteById(token.id()));
+                    log.info("Deleted refresh token: {} of a rolled back transaction", token.id());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to delete refresh token: {} of a rolled back transaction", token.id(), e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform()
+                       .name("refresh-token-group-commit")
+                       .daemon(true)
+                       .start(this::writeLoop);
+        log.info("Refresh token group commit writer started, max batch: {}, max delay: {}",
+                 properties.getMaxBatchSize(), properties.getMaxDelay());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(properties.getCommitTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writerDataSource.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the group commit writer pool", e);
+        }
+        log.info("Refresh token group commit writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void awaitCommit(PendingInsert pending) {
+        try {
+            pending.committed().get(properties.getCommitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new TokenPersistenceException("Refresh token couldn't be saved", HttpStatus.INTERNAL_SERVER_ERROR,
+                                                e.getCause());
+        } catch (TimeoutException e) {
+            throw new TokenPersistenceException("Refresh token wasn't saved in time", HttpStatus.SERVICE_UNAVAILABLE,
+                                                e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TokenPersistenceException("Interrupted while saving refresh token",
+                                                HttpStatus.SERVICE_UNAVAILABLE, e);
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingInsert> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                shardRouter.forEachShardPartition(batch, this::userIdOf, this::flush);
+                batch.clear();
+            }
+        }
+        queue.drainTo(batch);
+        shardRouter.forEachShardPartition(batch, this::userIdOf, partition -> partition.forEach(this::flushSingle));
+    }
+
+    private void collectBatch(List<PendingInsert> batch) throws InterruptedException {
+        PendingInsert first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.getMaxDelay().toNanos();
+        while (batch.size() < properties.getMaxBatchSize()) {
+            queue.drainTo(batch, properties.getMaxBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getMaxBatchSize() || remaining <= 0) {
+                return;
+            }
+            PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingInsert> batch) {
+        try {
+            writerRepository.insertAll(batch.stream().map(PendingInsert::token).toList());
+            batch.forEach(p -> p.committed().complete(null));
+            log.debug("Committed a batch of {} refresh tokens", batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.getFirst().committed().completeExceptionally(e);
+                return;
+            }
+            log.warn("Batch of {} refresh tokens failed, inserting one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::flushSingle);
+        }
+    }
+
+    private void flushSingle(PendingInsert pending) {
+        try {
+            writerRepository.insertAll(List.of(pending.token()));
+            pending.committed().complete(null);
+        } catch (RuntimeException e) {
+            pending.committed().completeExceptionally(e);
+        }
+    }
+
+    private static WriterPool createWriterPool(GroupCommitProperties properties,
+                                               DataSourceProperties dataSourceProperties,
+                                               ShardRoutingDataSource sharding) {
+        if (sharding == null) {
+            HikariDataSource pool = HikariPools.create(dataSourceProperties.determineUrl(),
+                                                       dataSourceProperties.determineUsername(),
+                                                       dataSourceProperties.determinePassword(),
+                                                       properties.getPool(),
+                                                       POOL_NAME_PREFIX + "primary");
+            return new WriterPool(new RefreshTokenBatchRepository(new JdbcTemplate(pool)), pool);
+        }
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        sharding.getShards().forEach((id, shard) -> pools.put(id, HikariPools.create(shard.getJdbcUrl(),
+                                                                                     shard.getUsername(),
+                                                                                     shard.getPassword(),
+                                                                                     properties.getPool(),
+                                                                                     POOL_NAME_PREFIX + id)));
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(pools, sharding.getPrimaryShardId());
+        routing.afterPropertiesSet();
+        return new WriterPool(new RefreshTokenBatchRepository(new JdbcTemplate(routing)), routing);
+    }
+
+    private Long userIdOf(PendingInsert pending) {
+        return pending.token().authUser().getId();
+    }
+
+    private record PendingInsert(RefreshTokenCreateDto token, CompletableFuture<Void> committed) {
+    }
+
+    private record WriterPool(RefreshTokenBatchRepository repository, Closeable dataSource) {
+    }
+}
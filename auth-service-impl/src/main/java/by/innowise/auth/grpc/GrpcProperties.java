@@ -0,0 +1,44 @@
+package by.innowise.auth.grpc;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.grpc")
+public class GrpcProperties {
+
+    private boolean enabled;
+
+    private int port = 9090;
+
+    /**
+     * HTTP/2 streams a single client connection may keep in flight.
+     */
+    private int maxConcurrentCallsPerConnection = 1000;
+
+    /**
+     * Threads executing calls. Every call may hit the database, so it should stay close to the pool size.
+     */
+    private int executorThreads = 32;
+
+    /**
+     * Requests waiting for an executor thread, beyond it calls fail with {@code RESOURCE_EXHAUSTED}.
+     */
+    private int executorQueueCapacity = 1000;
+
+    /**
+     * Requests of one stream handled at a time. More are read only as responses are sent and the
+     * client keeps up with reading them.
+     */
+    private int maxInFlightPerStream = 64;
+
+    private Duration keepAliveTime = Duration.ofMinutes(1);
+
+    private Duration permitKeepAliveTime = Duration.ofSeconds(20);
+
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+}
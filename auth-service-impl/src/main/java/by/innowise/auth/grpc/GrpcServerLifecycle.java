@@ -0,0 +1,70 @@
+package by.innowise.auth.grpc;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC server next to the servlet container on its own port. Callbacks run on the transport
+ * threads: the service only hands requests over to the bounded executor, which may reject them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.grpc", name = "enabled", havingValue = "true")
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private final GrpcProperties properties;
+    private final TokenIntrospectionGrpcService tokenIntrospectionService;
+    private volatile Server server;
+
+    @Override
+    public void start() {
+        try {
+            server = NettyServerBuilder.forPort(properties.getPort())
+                                       .directExecutor()
+                                       .addService(tokenIntrospectionService)
+                                       .maxConcurrentCallsPerConnection(
+                                               properties.getMaxConcurrentCallsPerConnection())
+                                       .keepAliveTime(properties.getKeepAliveTime().toMillis(),
+                                                      TimeUnit.MILLISECONDS)
+                                       .permitKeepAliveTime(properties.getPermitKeepAliveTime().toMillis(),
+                                                            TimeUnit.MILLISECONDS)
+                                       .build()
+                                       .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start gRPC server on port %d".formatted(properties.getPort()), e);
+        }
+        log.info("gRPC server started on port: {}", properties.getPort());
+    }
+
+    @Override
+    public void stop() {
+        log.info("Stopping gRPC server");
+        server.shutdown();
+        try {
+            long graceMillis = properties.getShutdownGracePeriod().toMillis();
+            if (!server.awaitTermination(graceMillis, TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,221 @@
+package by.innowise.auth.grpc;
+
+import by.innowise.auth.dto.token.TokenRequestDto;
+import by.innowise.auth.grpc.api.IntrospectResponse;
+import by.innowise.auth.grpc.api.TokenIntrospectionGrpc;
+import by.innowise.auth.grpc.api.TokenRequest;
+import by.innowise.auth.grpc.api.ValidateResponse;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.facade.AuthFacade;
+import by.innowise.common.library.exception.ApplicationException;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * gRPC front of {@link AuthFacade#introspect(TokenRequestDto)}. A rejected token is a regular response
+ * with {@code valid/active = false}, so a single bad token does not terminate a stream.
+ * <p>
+ * Requests run on the bounded gRPC executor. When it is full the call, or the whole stream, fails with
+ * {@code RESOURCE_EXHAUSTED}, which clients may retry with backoff.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.grpc", name = "enabled", havingValue = "true")
+public class TokenIntrospectionGrpcService extends TokenIntrospectionGrpc.TokenIntrospectionImplBase {
+
+    private static final String EXHAUSTED_MESSAGE = "Too many token requests in flight";
+
+    private final AuthFacade authFacade;
+    private final ExecutorService grpcExecutor;
+    private final GrpcProperties properties;
+
+    @Override
+    public void validate(TokenRequest request, StreamObserver<ValidateResponse> responseObserver) {
+        respond(request, responseObserver, this::validate);
+    }
+
+    @Override
+    public void introspect(TokenRequest request, StreamObserver<IntrospectResponse> responseObserver) {
+        respond(request, responseObserver, this::introspect);
+    }
+
+    @Override
+    public StreamObserver<TokenRequest> validateStream(StreamObserver<ValidateResponse> responseObserver) {
+        return new ConcurrentRequestStream<>(responseObserver, this::validate);
+    }
+
+    @Override
+    public StreamObserver<TokenRequest> introspectStream(StreamObserver<IntrospectResponse> responseObserver) {
+        return new ConcurrentRequestStream<>(responseObserver, this::introspect);
+    }
+
+    private ValidateResponse validate(TokenRequest request) {
+        ValidateResponse.Builder response = ValidateResponse.newBuilder()
+                                                            .setRequestId(request.getRequestId());
+        try {
+            authFacade.validate(new TokenRequestDto(request.getToken()));
+            return response.setValid(true).build();
+        } catch (ApplicationException e) {
+            return response.setValid(false).setReason(e.getMessage()).build();
+        }
+    }
+
+    private IntrospectResponse introspect(TokenRequest request) {
+        IntrospectResponse.Builder response = IntrospectResponse.newBuilder()
+                                                                .setRequestId(request.getRequestId());
+        try {
+            ParsedTokenDto claims = authFacade.introspect(new TokenRequestDto(request.getToken()));
+            if (claims.getEmail() != null) {
+                response.setEmail(claims.getEmail());
+            }
+            return response.setActive(true)
+                           .setUserId(claims.getUserId())
+                           .setRole(claims.getRole().name())
+                           .setTokenType(claims.getTokenType().getType())
+                           .setIssuedAt(claims.getIssuedAtEpochSecond())
+                           .setExpiresAt(claims.getExpiresAtEpochSecond())
+                           .build();
+        } catch (ApplicationException e) {
+            return response.setActive(false).setReason(e.getMessage()).build();
+        }
+    }
+
+    private <R> void respond(TokenRequest request, StreamObserver<R> responseObserver,
+                             Function<TokenRequest, R> handler) {
+        try {
+            grpcExecutor.execute(() -> respondNow(request, responseObserver, handler));
+        } catch (RejectedExecutionException e) {
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED.withDescription(EXHAUSTED_MESSAGE)
+                                                              .asRuntimeException());
+        }
+    }
+
+    private <R> void respondNow(TokenRequest request, StreamObserver<R> responseObserver,
+                                Function<TokenRequest, R> handler) {
+        R response;
+        try {
+            response = handler.apply(request);
+        } catch (RuntimeException e) {
+            log.error("Failed to handle gRPC token request: {}", request.getRequestId(), e);
+            responseObserver.onError(Status.INTERNAL.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Handles requests of one stream concurrently and completes the response stream
+     * once the client half-closed and every in-flight request is answered.
+     * <p>
+     * Inbound flow control is manual: at most {@code max-in-flight-per-stream} requests are read ahead,
+     * and each sent response asks for the next one only while the client is ready to receive. Otherwise
+     * the request is deferred until the stream becomes ready again.
+     */
+    private class ConcurrentRequestStream<R> implements StreamObserver<TokenRequest> {
+
+        private final ServerCallStreamObserver<R> responseObserver;
+        private final Function<TokenRequest, R> handler;
+        private final AtomicInteger inFlight = new AtomicInteger(1);
+        private volatile boolean closed;
+        private int deferredRequests;
+
+        ConcurrentRequestStream(StreamObserver<R> responseObserver, Function<TokenRequest, R> handler) {
+            this.responseObserver = (ServerCallStreamObserver<R>) responseObserver;
+            this.handler = handler;
+            this.responseObserver.disableAutoRequest();
+            this.responseObserver.setOnReadyHandler(this::requestDeferred);
+            this.responseObserver.request(properties.getMaxInFlightPerStream());
+        }
+
+        @Override
+        public void onNext(TokenRequest request) {
+            if (closed) {
+                return;
+            }
+            inFlight.incrementAndGet();
+            try {
+                grpcExecutor.execute(() -> handle(request));
+            } catch (RejectedExecutionException e) {
+                fail(Status.RESOURCE_EXHAUSTED.withDescription(EXHAUSTED_MESSAGE));
+                release();
+            }
+        }
+
+        private void handle(TokenRequest request) {
+            try {
+                R response = handler.apply(request);
+                synchronized (this) {
+                    if (!closed) {
+                        responseObserver.onNext(response);
+                        requestNext();
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to handle streamed gRPC token request: {}", request.getRequestId(), e);
+                fail(Status.INTERNAL.withDescription(e.getMessage()));
+            } finally {
+                release();
+            }
+        }
+
+        private synchronized void requestNext() {
+            if (responseObserver.isReady()) {
+                responseObserver.request(1);
+            } else {
+                deferredRequests++;
+            }
+        }
+
+        private synchronized void requestDeferred() {
+            if (!closed && deferredRequests > 0 && responseObserver.isReady()) {
+                responseObserver.request(deferredRequests);
+                deferredRequests = 0;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.info("gRPC token stream cancelled by client: {}", Status.fromThrowable(t));
+            synchronized (this) {
+                closed = true;
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            release();
+        }
+
+        private void release() {
+            if (inFlight.decrementAndGet() == 0) {
+                synchronized (this) {
+                    if (!closed) {
+                        closed = true;
+                        responseObserver.onCompleted();
+                    }
+                }
+            }
+        }
+
+        private void fail(Status status) {
+            synchronized (this) {
+                if (!closed) {
+                    closed = true;
+                    responseObserver.onError(status.asRuntimeException());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package by.innowise.auth.introspection;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.introspection")
+public class IntrospectionProperties {
+
+    /**
+     * Longest time a cache may keep reporting a token as active after it is revoked. Caps the max-age
+     * of active responses, along with the remaining lifetime of the token.
+     */
+    private Duration revocationWindow = Duration.ofSeconds(5);
+
+    /**
+     * Max-age of inactive responses. An inactive token never turns active again.
+     */
+    private Duration inactiveMaxAge = Duration.ofMinutes(1);
+}
@@ -0,0 +1,69 @@
+package by.innowise.auth.introspection;
+
+import by.innowise.auth.dto.token.IntrospectionResponseDto;
+import by.innowise.auth.dto.token.TokenRequestDto;
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.mapper.IntrospectionMapper;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.facade.AuthFacade;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Introspects a token and tells how long the answer may be cached. Every claim comes from the token
+ * itself, so the response of a token changes only when it turns inactive: its ETag is derived from the
+ * claims and a cache can revalidate a stale entry with a conditional request.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenIntrospector {
+
+    private static final String INACTIVE_ETAG = "\"inactive\"";
+
+    private final AuthFacade authFacade;
+    private final IntrospectionMapper introspectionMapper;
+    private final IntrospectionProperties properties;
+
+    public Introspection introspect(TokenRequestDto tokenRequest) {
+        ParsedTokenDto claims;
+        try {
+            claims = authFacade.introspect(tokenRequest);
+        } catch (TokenValidationException e) {
+            log.info("Token is inactive: {}", e.getMessage());
+            return inactive();
+        }
+        IntrospectionResponseDto response = introspectionMapper.toActiveDto(claims);
+        long remainingSeconds = Math.max(0, claims.getExpiresAtEpochSecond() - Instant.now().getEpochSecond());
+        long maxAge = Math.min(remainingSeconds, properties.getRevocationWindow().toSeconds());
+        return new Introspection(response, cacheFor(maxAge), eTagOf(response));
+    }
+
+    public Introspection inactive() {
+        return new Introspection(IntrospectionResponseDto.INACTIVE,
+                                 cacheFor(properties.getInactiveMaxAge().toSeconds()), INACTIVE_ETAG);
+    }
+
+    /**
+     * Derived from the text form, enum hash codes differ between instances.
+     */
+    private String eTagOf(IntrospectionResponseDto response) {
+        return "\"%08x\"".formatted(response.toString().hashCode());
+    }
+
+    /**
+     * Public, so shared caches such as gateways may store responses to requests with a bearer token.
+     */
+    private CacheControl cacheFor(long maxAgeSeconds) {
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+                           .cachePublic();
+    }
+
+    public record Introspection(IntrospectionResponseDto response, CacheControl cacheControl, String eTag) {
+    }
+}
@@ -0,0 +1,60 @@
+package by.innowise.auth.invalidation;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * A change that makes cached state of other replicas stale, encoded as a short notification payload:
+ * the type code followed by its fields, separated by {@code ':'}.
+ *
+ * @param version user version after the change, for {@link InvalidationType#USER_CHANGED}
+ * @param tokenHash hash of the revoked refresh token, for {@link InvalidationType#REFRESH_TOKEN_REVOKED}
+ * @param expiresAt expiration of the revoked refresh token
+ */
+public record Invalidation(InvalidationType type, Long userId, Long version, String tokenHash,
+                           LocalDateTime expiresAt) {
+
+    private static final char SEPARATOR = ':';
+
+    public static Invalidation userChanged(Long userId, Long version) {
+        return new Invalidation(InvalidationType.USER_CHANGED, userId, version, null, null);
+    }
+
+    public static Invalidation userRemoved(Long userId) {
+        return new Invalidation(InvalidationType.USER_REMOVED, userId, null, null, null);
+    }
+
+    public static Invalidation refreshTokenRevoked(String tokenHash, LocalDateTime expiresAt) {
+        return new Invalidation(InvalidationType.REFRESH_TOKEN_REVOKED, null, null, tokenHash, expiresAt);
+    }
+
+    public String encode() {
+        return switch (type) {
+            case USER_CHANGED -> "" + type.getCode() + SEPARATOR + userId + SEPARATOR + version;
+            case USER_REMOVED -> "" + type.getCode() + SEPARATOR + userId;
+            case REFRESH_TOKEN_REVOKED -> "" + type.getCode() + SEPARATOR + tokenHash + SEPARATOR
+                    + expiresAt.toEpochSecond(ZoneOffset.UTC);
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payload is not an encoded invalidation
+     */
+    public static Invalidation decode(String payload) {
+        String[] fields = payload.split(String.valueOf(SEPARATOR));
+        if (fields[0].length() != 1) {
+            throw new IllegalArgumentException("Invalid invalidation payload: " + payload);
+        }
+        InvalidationType type = InvalidationType.fromCode(fields[0].charAt(0));
+        try {
+            return switch (type) {
+                case USER_CHANGED -> userChanged(Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+                case USER_REMOVED -> userRemoved(Long.parseLong(fields[1]));
+                case REFRESH_TOKEN_REVOKED -> refreshTokenRevoked(
+                        fields[1], LocalDateTime.ofEpochSecond(Long.parseLong(fields[2]), 0, ZoneOffset.UTC));
+            };
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid invalidation payload: " + payload, e);
+        }
+    }
+}
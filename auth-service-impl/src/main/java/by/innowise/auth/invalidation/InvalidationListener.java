@@ -0,0 +1,190 @@
+package by.innowise.auth.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Receives invalidations published by any replica and hands them to every {@link InvalidationSubscriber}.
+ * Each database a change can be written to gets its own thread and a dedicated connection outside the
+ * pools, which LISTENs on the channel for as long as it lives.
+ * <p>
+ * Notifications sent while a connection is down are lost, so every time a connection starts listening,
+ * the first one included, the subscribers are flushed entirely. A lost connection is retried after
+ * {@code reconnectDelay}.
+ */
+@Slf4j
+public class InvalidationListener implements SmartLifecycle {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String APPLICATION_NAME = "auth-service-invalidation";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final InvalidationProperties properties;
+    private final List<ListenTarget> targets;
+    private final List<InvalidationSubscriber> subscribers;
+    private final Map<InvalidationType, Counter> received = new EnumMap<>(InvalidationType.class);
+    private final Counter flushes;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public InvalidationListener(InvalidationProperties properties, List<ListenTarget> targets,
+                                List<InvalidationSubscriber> subscribers, MeterRegistry meterRegistry) {
+        if (!CHANNEL_NAME.matcher(properties.getChannel()).matches()) {
+            throw new IllegalStateException("Invalid invalidation channel name: " + properties.getChannel());
+        }
+        this.properties = properties;
+        this.targets = targets;
+        this.subscribers = subscribers;
+        for (InvalidationType type : InvalidationType.values()) {
+            received.put(type, Counter.builder("auth.invalidation.received")
+                                      .tag("type", type.name().toLowerCase())
+                                      .register(meterRegistry));
+        }
+        this.flushes = meterRegistry.counter("auth.invalidation.flushes");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (ListenTarget target : targets) {
+            threads.add(Thread.ofPlatform()
+                              .name("invalidation-listener-" + target.name())
+                              .daemon(true)
+                              .start(() -> listenLoop(target)));
+        }
+        log.info("Invalidation listener started on channel: {} of {} databases", properties.getChannel(),
+                 targets.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join(properties.getPollTimeout().multipliedBy(2).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        threads.clear();
+        log.info("Invalidation listener stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop(ListenTarget target) {
+        while (running) {
+            try (Connection connection = connect(target)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                log.info("Listening for invalidations on: {}", target.name());
+                invalidateAll();
+                receive(connection);
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listen connection to: {} failed, reconnecting in: {}", target.name(),
+                             properties.getReconnectDelay(), e);
+                }
+            }
+            if (running && !pause()) {
+                return;
+            }
+        }
+    }
+
+    private Connection connect(ListenTarget target) throws SQLException {
+        Properties info = new Properties();
+        info.setProperty("user", target.username());
+        info.setProperty("password", target.password());
+        info.setProperty("ApplicationName", APPLICATION_NAME);
+        return DriverManager.getConnection(target.url(), info);
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        int pollTimeoutMillis = (int) Math.max(1, properties.getPollTimeout().toMillis());
+        long validationIntervalNanos = properties.getValidationInterval().toNanos();
+        long validatedAt = System.nanoTime();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+            if (notifications != null && notifications.length > 0) {
+                for (PGNotification notification : notifications) {
+                    dispatch(notification.getParameter());
+                }
+                validatedAt = System.nanoTime();
+            } else if (System.nanoTime() - validatedAt >= validationIntervalNanos) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Invalidation listen connection is no longer valid");
+                }
+                validatedAt = System.nanoTime();
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        Invalidation invalidation;
+        try {
+            invalidation = Invalidation.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping invalidation of unknown format: {}", payload, e);
+            return;
+        }
+        received.get(invalidation.type()).increment();
+        log.debug("Received invalidation: {}", invalidation);
+        for (InvalidationSubscriber subscriber : subscribers) {
+            try {
+                subscriber.invalidate(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation: {} failed in: {}", invalidation, subscriber.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void invalidateAll() {
+        flushes.increment();
+        for (InvalidationSubscriber subscriber : subscribers) {
+            try {
+                subscriber.invalidateAll();
+            } catch (RuntimeException e) {
+                log.warn("Full invalidation failed in: {}", subscriber.getClass().getSimpleName(), e);
+            }
+        }
+        log.info("Flushed {} invalidation subscribers", subscribers.size());
+    }
+
+    /**
+     * @return false if interrupted
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getReconnectDelay());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public record ListenTarget(String name, String url, String username, String password) {
+    }
+}
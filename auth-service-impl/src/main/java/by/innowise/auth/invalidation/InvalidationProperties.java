@@ -0,0 +1,33 @@
+package by.innowise.auth.invalidation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.invalidation")
+public class InvalidationProperties {
+
+    private boolean enabled;
+
+    /**
+     * Postgres channel shared by all replicas, a lower case identifier.
+     */
+    private String channel = "auth_invalidation";
+
+    /**
+     * Longest wait for notifications before the listener checks whether it is still running.
+     */
+    private Duration pollTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Idle time after which the listen connection is checked, a dead connection may otherwise stay
+     * silent.
+     */
+    private Duration validationInterval = Duration.ofSeconds(10);
+
+    private Duration reconnectDelay = Duration.ofSeconds(2);
+}
@@ -0,0 +1,31 @@
+package by.innowise.auth.invalidation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends invalidations to every replica through Postgres NOTIFY. The notification is sent on the
+ * connection of the current transaction, so Postgres delivers it only when the change commits and drops
+ * it on rollback.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InvalidationPublisher {
+
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+
+    private final InvalidationProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void publish(Invalidation invalidation) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        jdbcTemplate.query(NOTIFY, rs -> {
+        }, properties.getChannel(), invalidation.encode());
+        log.debug("Published invalidation: {}", invalidation);
+    }
+}
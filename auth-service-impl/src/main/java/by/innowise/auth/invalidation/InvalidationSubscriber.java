@@ -0,0 +1,15 @@
+package by.innowise.auth.invalidation;
+
+/**
+ * An in-process cache kept consistent across replicas by {@link InvalidationListener}.
+ */
+public interface InvalidationSubscriber {
+
+    void invalidate(Invalidation invalidation);
+
+    /**
+     * Called once the listen connection is (re)established: notifications sent before may have been
+     * missed, so nothing cached from other replicas' changes can be trusted.
+     */
+    void invalidateAll();
+}
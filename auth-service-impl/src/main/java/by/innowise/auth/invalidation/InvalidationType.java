@@ -0,0 +1,31 @@
+package by.innowise.auth.invalidation;
+
+import lombok.Getter;
+
+public enum InvalidationType {
+
+    USER_CHANGED('u'),
+    USER_REMOVED('d'),
+    REFRESH_TOKEN_REVOKED('t');
+
+    private static final InvalidationType[] VALUES = values();
+
+    /**
+     * Code of the type in notification payloads, kept stable across releases.
+     */
+    @Getter
+    private final char code;
+
+    InvalidationType(char code) {
+        this.code = code;
+    }
+
+    public static InvalidationType fromCode(char code) {
+        for (InvalidationType type : VALUES) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Haven't found an InvalidationType for [%s] code".formatted(code));
+    }
+}
@@ -0,0 +1,85 @@
+package by.innowise.auth.limit;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit of one endpoint class: grows by one for a fast request while at least half of
+ * the limit is in use, shrinks multiplicatively on congestion.
+ */
+public class AdaptiveLimit {
+
+    @Getter
+    private final EndpointClass endpointClass;
+    private final ConcurrencyLimitProperties.ClassLimit config;
+    private final double backoffRatio;
+    private final long decreaseIntervalNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecreaseAt;
+
+    public AdaptiveLimit(EndpointClass endpointClass, ConcurrencyLimitProperties.ClassLimit config,
+                         ConcurrencyLimitProperties properties) {
+        this.endpointClass = endpointClass;
+        this.config = config;
+        this.backoffRatio = properties.getBackoffRatio();
+        this.decreaseIntervalNanos = properties.getDecreaseInterval().toNanos();
+        this.limit = config.getInitialLimit();
+        this.lastDecreaseAt = System.nanoTime() - decreaseIntervalNanos;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return whether the request was slow enough to be a congestion signal
+     */
+    public boolean release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        boolean congested = latencyNanos > config.getLatencyThreshold().toNanos();
+        if (!congested && current * 2 >= limit) {
+            increase();
+        }
+        return congested;
+    }
+
+    public synchronized boolean decrease() {
+        long now = System.nanoTime();
+        if (limit <= config.getMinLimit() || now - lastDecreaseAt < decreaseIntervalNanos) {
+            return false;
+        }
+        limit = Math.max(config.getMinLimit(), limit * backoffRatio);
+        lastDecreaseAt = now;
+        return true;
+    }
+
+    public boolean isAtMinimum() {
+        return limit <= config.getMinLimit();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, config.getRetryAfter().toSeconds());
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(config.getMaxLimit(), limit + 1);
+    }
+}
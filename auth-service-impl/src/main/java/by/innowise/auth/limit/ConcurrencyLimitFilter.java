@@ -0,0 +1,64 @@
+package by.innowise.auth.limit;
+
+import by.innowise.common.library.exception.dto.SimpleExceptionDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds requests of a saturated {@link EndpointClass} with {@code 503} and {@code Retry-After}. Runs
+ * before the security chain, so a shed request costs neither token parsing nor a database connection.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String SHED_MESSAGE = "The service is overloaded, retry later";
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final byte[] shedBody;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiter concurrencyLimiter, ObjectMapper objectMapper)
+            throws JsonProcessingException {
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.shedBody = objectMapper.writeValueAsBytes(
+                new SimpleExceptionDto(HttpStatus.SERVICE_UNAVAILABLE.value(), SHED_MESSAGE));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.forRequest(request);
+        if (endpointClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        AdaptiveLimit limit = concurrencyLimiter.tryAcquire(endpointClass);
+        if (limit == null) {
+            shed(response, endpointClass);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(limit, System.nanoTime() - start);
+        }
+    }
+
+    private void shed(HttpServletResponse response, EndpointClass endpointClass) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                           String.valueOf(concurrencyLimiter.getRetryAfterSeconds(endpointClass)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(shedBody.length);
+        response.getOutputStream().write(shedBody);
+    }
+}
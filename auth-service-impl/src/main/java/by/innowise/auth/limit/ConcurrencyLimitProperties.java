@@ -0,0 +1,67 @@
+package by.innowise.auth.limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled;
+
+    /**
+     * Multiplier applied to a limit on congestion.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Minimum time between two decreases of the same limit, so one slow burst counts once.
+     */
+    private Duration decreaseInterval = Duration.ofMillis(100);
+
+    private Map<EndpointClass, ClassLimit> classes = defaultClasses();
+
+    private static Map<EndpointClass, ClassLimit> defaultClasses() {
+        Map<EndpointClass, ClassLimit> classes = new EnumMap<>(EndpointClass.class);
+        classes.put(EndpointClass.REGISTER, new ClassLimit(10, 2, 50, Duration.ofMillis(800)));
+        classes.put(EndpointClass.LOGIN, new ClassLimit(20, 2, 100, Duration.ofMillis(500)));
+        classes.put(EndpointClass.REFRESH, new ClassLimit(50, 5, 200, Duration.ofMillis(200)));
+        classes.put(EndpointClass.INTROSPECT, new ClassLimit(200, 20, 1000, Duration.ofMillis(50)));
+        classes.put(EndpointClass.VALIDATE, new ClassLimit(200, 20, 1000, Duration.ofMillis(50)));
+        return classes;
+    }
+
+    @Getter
+    @Setter
+    public static class ClassLimit {
+
+        private int initialLimit;
+
+        private int minLimit;
+
+        private int maxLimit;
+
+        /**
+         * Requests slower than this are a congestion signal.
+         */
+        private Duration latencyThreshold;
+
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        public ClassLimit() {
+        }
+
+        public ClassLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package by.innowise.auth.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds one {@link AdaptiveLimit} per {@link EndpointClass}. A congestion signal of any class shrinks the
+ * lowest priority class whose limit is above its minimum, so the shared database pool and CPU are freed
+ * for higher priorities first and a class only backs off itself once everything below it is at minimum.
+ */
+@Slf4j
+public class ConcurrencyLimiter {
+
+    private static final String LIMIT_METER = "auth.concurrency.limit";
+    private static final String IN_FLIGHT_METER = "auth.concurrency.in-flight";
+    private static final String REJECTED_METER = "auth.concurrency.rejected";
+    private static final String CLASS_TAG = "class";
+
+    private final Map<EndpointClass, AdaptiveLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+    private final AdaptiveLimit[] byPriority;
+
+    public ConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        byPriority = new AdaptiveLimit[EndpointClass.values().length];
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdaptiveLimit limit = new AdaptiveLimit(endpointClass, properties.getClasses().get(endpointClass),
+                                                    properties);
+            limits.put(endpointClass, limit);
+            byPriority[endpointClass.getPriority()] = limit;
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder(LIMIT_METER, limit, AdaptiveLimit::getLimit)
+                 .tag(CLASS_TAG, tag)
+                 .register(meterRegistry);
+            Gauge.builder(IN_FLIGHT_METER, limit, AdaptiveLimit::getInFlight)
+                 .tag(CLASS_TAG, tag)
+                 .register(meterRegistry);
+            rejections.put(endpointClass, Counter.builder(REJECTED_METER)
+                                                 .tag(CLASS_TAG, tag)
+                                                 .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return the acquired limit or {@code null} when the request has to be shed
+     */
+    public AdaptiveLimit tryAcquire(EndpointClass endpointClass) {
+        AdaptiveLimit limit = limits.get(endpointClass);
+        if (limit.tryAcquire()) {
+            return limit;
+        }
+        rejections.get(endpointClass).increment();
+        return null;
+    }
+
+    public long getRetryAfterSeconds(EndpointClass endpointClass) {
+        return limits.get(endpointClass).getRetryAfterSeconds();
+    }
+
+    public void release(AdaptiveLimit limit, long latencyNanos) {
+        if (limit.release(latencyNanos)) {
+            onCongestion(limit);
+        }
+    }
+
+    private void onCongestion(AdaptiveLimit congested) {
+        for (AdaptiveLimit limit : byPriority) {
+            if (limit == congested || !limit.isAtMinimum()) {
+                if (limit.decrease()) {
+                    log.debug("Concurrency limit of {} decreased to {} on congestion of {}",
+                              limit.getEndpointClass(), limit.getLimit(), congested.getEndpointClass());
+                }
+                return;
+            }
+        }
+    }
+}
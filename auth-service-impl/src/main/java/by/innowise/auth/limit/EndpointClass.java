@@ -0,0 +1,64 @@
+package by.innowise.auth.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Endpoints with a concurrency limit of their own. Under congestion the lowest priority is shed first,
+ * so {@link #INTROSPECT} and {@link #VALIDATE}, which every other service depends on, are shed last.
+ */
+@Getter
+public enum EndpointClass {
+
+    REGISTER("/auth/register", 0),
+    LOGIN("/auth/login", 1),
+    REFRESH("/token/refresh", 2),
+    INTROSPECT("/token/introspect", 3),
+    VALIDATE("/token/validate", 4);
+
+    private static final EndpointClass[] VALUES = values();
+    private static final char SEPARATOR = '/';
+
+    private final String path;
+    private final int priority;
+    @Getter(AccessLevel.NONE)
+    private final PathPattern pattern;
+
+    EndpointClass(String path, int priority) {
+        this.path = path;
+        this.priority = priority;
+        this.pattern = PathPatternParser.defaultInstance.parse(path);
+    }
+
+    /**
+     * Matches the path within the application, e.g. {@link HttpServletRequest#getServletPath()}, which the
+     * container has already stripped of the context path and path parameters and normalized. A trailing
+     * slash still matches.
+     *
+     * @return the class of the request path or {@code null} when the path is not limited
+     */
+    public static EndpointClass forPath(String path) {
+        int end = path.length();
+        while (end > 1 && path.charAt(end - 1) == SEPARATOR) {
+            end--;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path.substring(0, end));
+        for (EndpointClass endpointClass : VALUES) {
+            if (endpointClass.pattern.matches(pathContainer)) {
+                return endpointClass;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the class of the request or {@code null} when it is not limited
+     */
+    public static EndpointClass forRequest(HttpServletRequest request) {
+        return forPath(request.getServletPath());
+    }
+}
@@ -0,0 +1,16 @@
+package by.innowise.auth.mapper;
+
+import by.innowise.auth.dto.token.IntrospectionResponseDto;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = BaseMapper.class)
+public interface IntrospectionMapper {
+
+    @Mapping(target = "active", constant = "true")
+    @Mapping(target = "tokenType", source = "tokenType.type")
+    @Mapping(target = "issuedAt", source = "issuedAtEpochSecond")
+    @Mapping(target = "expiresAt", source = "expiresAtEpochSecond")
+    IntrospectionResponseDto toActiveDto(ParsedTokenDto parsedTokenDto);
+}
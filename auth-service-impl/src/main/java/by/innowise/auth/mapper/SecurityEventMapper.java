@@ -0,0 +1,27 @@
+package by.innowise.auth.mapper;
+
+import by.innowise.auth.dto.event.RevokedTokenDto;
+import by.innowise.auth.dto.event.SecurityEventDto;
+import by.innowise.auth.repository.entity.SecurityEvent;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(config = BaseMapper.class)
+public interface SecurityEventMapper {
+
+    @Mapping(target = "seq", source = "relaySeq")
+    @Mapping(target = "type", source = "eventType")
+    @Mapping(target = "occurredAt", source = "createdAt")
+    SecurityEventDto toDto(SecurityEvent event);
+
+    List<SecurityEventDto> toDto(List<SecurityEvent> events);
+
+    @Mapping(target = "seq", source = "relaySeq")
+    @Mapping(target = "hashedToken", source = "tokenHash")
+    @Mapping(target = "expiresAt", source = "tokenExpiresAt")
+    RevokedTokenDto toRevokedTokenDto(SecurityEvent event);
+
+    List<RevokedTokenDto> toRevokedTokenDto(List<SecurityEvent> events);
+}
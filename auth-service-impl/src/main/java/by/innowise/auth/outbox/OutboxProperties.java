@@ -0,0 +1,30 @@
+package by.innowise.auth.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.outbox")
+public class OutboxProperties {
+
+    private Duration relayInterval = Duration.ofMillis(500);
+
+    private Duration dispatchInterval = Duration.ofMillis(500);
+
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    private int batchSize = 500;
+
+    /**
+     * How long relayed events are kept, consumers further behind than this lose events.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
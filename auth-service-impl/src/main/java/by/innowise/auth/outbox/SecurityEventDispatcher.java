@@ -0,0 +1,189 @@
+package by.innowise.auth.outbox;
+
+import by.innowise.auth.config.datasource.DataSourceRoutingContext;
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.dto.event.SecurityEventDto;
+import by.innowise.auth.service.SecurityEventService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streams relayed security events to the SSE subscribers of this instance. Each instance polls the
+ * relayed rows of every shard on its own, a subscriber resumes from the last event id it has seen,
+ * which carries its {@link StreamPosition} on every shard.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecurityEventDispatcher {
+
+    private static final String EVENT_NAME = "security-event";
+
+    private final SecurityEventService securityEventService;
+    private final OutboxProperties properties;
+    private final ShardRouter shardRouter;
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private StreamPosition cursor;
+    private long lastSentAt = System.nanoTime();
+
+    /**
+     * Replays the events after {@code lastEventId} and subscribes to the live stream. Without an id, or
+     * for shards the id doesn't name, only events relayed from now on are sent.
+     */
+    public synchronized SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        initCursor();
+        StreamPosition replayed = resumePosition(lastEventId);
+        try {
+            for (String shardId : shardRouter.getShardIds()) {
+                replay(emitter, replayed, shardId);
+            }
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        log.info("Security event subscriber added from: {}, active: {}", replayed, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Reads the new events under the lock and sends them outside of it, so a slow subscriber doesn't
+     * hold up {@link #subscribe}. Nothing is read without subscribers, the next one starts from then.
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.dispatch-interval:500ms}")
+    public void dispatch() {
+        Batch batch = poll();
+        if (batch == null) {
+            return;
+        }
+        if (batch.heartbeat()) {
+            batch.subscribers().forEach(this::heartbeat);
+        }
+        for (PendingEvent pending : batch.events()) {
+            batch.subscribers().forEach(emitter -> sendOrDrop(emitter, pending.id(), pending.event()));
+        }
+    }
+
+    /**
+     * The subscribers are taken together with the events, so one added meanwhile has already replayed
+     * them.
+     */
+    private synchronized Batch poll() {
+        if (subscribers.isEmpty()) {
+            cursor = null;
+            return null;
+        }
+        initCursor();
+        List<PendingEvent> pending = new ArrayList<>();
+        for (String shardId : shardRouter.getShardIds()) {
+            for (SecurityEventDto event : read(shardId, cursor.seqOf(shardId))) {
+                cursor.advance(shardId, event.seq());
+                pending.add(new PendingEvent(cursor.toEventId(), event));
+            }
+        }
+        boolean heartbeat = pending.isEmpty()
+                && System.nanoTime() - lastSentAt > properties.getHeartbeatInterval().toNanos();
+        if (!pending.isEmpty() || heartbeat) {
+            lastSentAt = System.nanoTime();
+        }
+        return new Batch(List.copyOf(subscribers), pending, heartbeat);
+    }
+
+    private void initCursor() {
+        if (cursor == null) {
+            StreamPosition position = new StreamPosition();
+            for (String shardId : shardRouter.getShardIds()) {
+                position.advance(shardId, shardRouter.callOnShard(shardId, () -> DataSourceRoutingContext
+                        .callInBackground(securityEventService::getLastRelayedSeq)));
+            }
+            cursor = position;
+        }
+    }
+
+    private StreamPosition resumePosition(String lastEventId) {
+        StreamPosition position = lastEventId == null
+                ? null
+                : StreamPosition.parse(lastEventId, shardRouter.getPrimaryShardId());
+        if (position == null) {
+            if (lastEventId != null) {
+                log.warn("Ignoring malformed security event id: {}", lastEventId);
+            }
+            return cursor.copy();
+        }
+        for (String shardId : shardRouter.getShardIds()) {
+            if (position.seqOf(shardId) == null) {
+                position.advance(shardId, cursor.seqOf(shardId));
+            }
+        }
+        return position;
+    }
+
+    private void replay(SseEmitter emitter, StreamPosition replayed, String shardId) throws IOException {
+        long last = cursor.seqOf(shardId);
+        long after = replayed.seqOf(shardId);
+        while (after < last) {
+            List<SecurityEventDto> events = read(shardId, after);
+            if (events.isEmpty()) {
+                break;
+            }
+            for (SecurityEventDto event : events) {
+                if (event.seq() <= last) {
+                    replayed.advance(shardId, event.seq());
+                    send(emitter, replayed.toEventId(), event);
+                }
+            }
+            after = events.getLast().seq();
+        }
+    }
+
+    private List<SecurityEventDto> read(String shardId, long after) {
+        return shardRouter.callOnShard(shardId, () -> DataSourceRoutingContext.callInBackground(
+                () -> securityEventService.getRelayedAfter(after, properties.getBatchSize())));
+    }
+
+    private void sendOrDrop(SseEmitter emitter, String eventId, SecurityEventDto event) {
+        try {
+            send(emitter, eventId, event);
+        } catch (IOException e) {
+            drop(emitter, e);
+        }
+    }
+
+    private void send(SseEmitter emitter, String eventId, SecurityEventDto event) throws IOException {
+        emitter.send(SseEmitter.event()
+                               .id(eventId)
+                               .name(EVENT_NAME)
+                               .data(event));
+    }
+    private void heartbeat(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } catch (IOException e) {
+            drop(emitter, e);
+        }
+    }
+
+    private void drop(SseEmitter emitter, IOException e) {
+        log.info("Dropping security event subscriber: {}", e.getMessage());
+        subscribers.remove(emitter);
+        emitter.completeWithError(e);
+    }
+
+    private record PendingEvent(String id, SecurityEventDto event) {
+    }
+
+    private record Batch(List<SseEmitter> subscribers, List<PendingEvent> events, boolean heartbeat) {
+    }
+}
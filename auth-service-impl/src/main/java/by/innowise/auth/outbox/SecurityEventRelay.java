@@ -0,0 +1,47 @@
+package by.innowise.auth.outbox;
+
+import by.innowise.auth.config.datasource.DataSourceRoutingContext;
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.service.SecurityEventService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Publishes committed outbox rows by giving them consecutive stream positions. Ids are assigned at
+ * insert time and may commit out of order, relay positions only ever grow for committed rows.
+ * Only the instance holding the advisory lock relays, every instance may run this.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecurityEventRelay {
+
+    private final SecurityEventService securityEventService;
+    private final OutboxProperties properties;
+    private final ShardRouter shardRouter;
+
+    @Scheduled(fixedDelayString = "${application.outbox.relay-interval:500ms}")
+    public void relay() {
+        shardRouter.forEachShard(() -> DataSourceRoutingContext.runInBackground(() -> {
+            int relayed;
+            do {
+                relayed = securityEventService.relayPending(properties.getBatchSize());
+                log.debug("Relayed {} security events", relayed);
+            } while (relayed == properties.getBatchSize());
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.purge-interval:1h}")
+    public void purge() {
+        LocalDateTime threshold = LocalDateTime.now(ZoneOffset.UTC).minus(properties.getRetention());
+        shardRouter.forEachShard(() -> DataSourceRoutingContext.runInBackground(() -> {
+            int purged = securityEventService.purgeRelayedBefore(threshold);
+            log.info("Purged {} security events relayed before {}", purged, threshold);
+        }));
+    }
+}
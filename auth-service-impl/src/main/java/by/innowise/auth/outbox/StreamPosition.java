@@ -0,0 +1,75 @@
+package by.innowise.auth.outbox;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Last relayed seq seen on every shard. Relay seqs are assigned per shard, so the SSE event id carries
+ * all of them, e.g. {@code shard-0:12,shard-1:40}. A single shard is written as its plain seq, which is
+ * also how event ids sent before sharding are read back.
+ */
+final class StreamPosition {
+
+    private static final char SHARD_SEPARATOR = ',';
+    private static final char SEQ_SEPARATOR = ':';
+
+    private final Map<String, Long> seqs;
+
+    StreamPosition() {
+        this(new LinkedHashMap<>());
+    }
+
+    private StreamPosition(Map<String, Long> seqs) {
+        this.seqs = seqs;
+    }
+
+    /**
+     * @return the position, or {@code null} if the event id is malformed
+     */
+    static StreamPosition parse(String eventId, String primaryShardId) {
+        Map<String, Long> seqs = new LinkedHashMap<>();
+        try {
+            if (eventId.indexOf(SEQ_SEPARATOR) < 0) {
+                seqs.put(primaryShardId, Long.parseLong(eventId));
+                return new StreamPosition(seqs);
+            }
+            for (String entry : eventId.split(String.valueOf(SHARD_SEPARATOR))) {
+                int separator = entry.lastIndexOf(SEQ_SEPARATOR);
+                if (separator <= 0) {
+                    return null;
+                }
+                seqs.put(entry.substring(0, separator), Long.parseLong(entry.substring(separator + 1)));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return new StreamPosition(seqs);
+    }
+
+    Long seqOf(String shardId) {
+        return seqs.get(shardId);
+    }
+
+    void advance(String shardId, long seq) {
+        seqs.put(shardId, seq);
+    }
+
+    StreamPosition copy() {
+        return new StreamPosition(new LinkedHashMap<>(seqs));
+    }
+
+    String toEventId() {
+        if (seqs.size() == 1) {
+            return String.valueOf(seqs.values().iterator().next());
+        }
+        StringJoiner eventId = new StringJoiner(String.valueOf(SHARD_SEPARATOR));
+        seqs.forEach((shardId, seq) -> eventId.add(shardId + SEQ_SEPARATOR + seq));
+        return eventId.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toEventId();
+    }
+}
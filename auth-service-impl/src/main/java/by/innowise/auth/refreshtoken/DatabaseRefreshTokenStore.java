@@ -0,0 +1,56 @@
+package by.innowise.auth.refreshtoken;
+
+import by.innowise.auth.groupcommit.RefreshTokenGroupCommitWriter;
+import by.innowise.auth.mapper.RefreshTokenMapper;
+import by.innowise.auth.repository.TokenRepository;
+import by.innowise.auth.repository.entity.RefreshToken;
+import by.innowise.auth.service.dto.RefreshTokenCreateDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+
+/**
+ * Refresh tokens in {@code app.refresh_tokens}, written in the caller's transaction or by the group
+ * commit writer when it is enabled.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DatabaseRefreshTokenStore implements RefreshTokenStore {
+
+    private final TokenRepository tokenRepository;
+    private final RefreshTokenMapper mapper;
+    private final Optional<RefreshTokenGroupCommitWriter> groupCommitWriter;
+
+    @Override
+    public void save(RefreshTokenCreateDto token) {
+        RefreshToken toSave = mapper.toEntity(token);
+        log.info("Saving refresh token to db: {}", toSave);
+        tokenRepository.saveAndFlush(toSave);
+    }
+
+    @Override
+    public void saveForExistingUser(RefreshTokenCreateDto token) {
+        groupCommitWriter.ifPresentOrElse(writer -> writer.insert(token), () -> save(token));
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        return tokenRepository.findTokenByTokenHash(tokenHash);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByUserId(Long userId) {
+        return tokenRepository.findTokenByAuthUserId(userId);
+    }
+
+    @Override
+    public void delete(RefreshToken token) {
+        tokenRepository.delete(token);
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+}
@@ -0,0 +1,69 @@
+package by.innowise.auth.refreshtoken;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.refresh-token")
+public class RefreshTokenProperties {
+
+    private RefreshTokenStorage storage = RefreshTokenStorage.DATABASE;
+
+    private Stateless stateless = new Stateless();
+
+    private Embedded embedded = new Embedded();
+
+    @Getter
+    @Setter
+    public static class Stateless {
+
+        /**
+         * File the family denylist is written to and restored from on startup.
+         */
+        private Path snapshotFile = Path.of("refresh-token-families.bin");
+
+        /**
+         * Maximum number of remembered active families. Beyond it the cache evicts the least used ones and
+         * a replay of their tokens goes undetected. Revoked families are never evicted before they expire.
+         */
+        private long maxFamilies = 500_000;
+
+        /**
+         * Rotations made since the last snapshot are lost if the instance crashes.
+         */
+        private Duration snapshotInterval = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Embedded {
+
+        private Path directory = Path.of("refresh-tokens");
+
+        /**
+         * Size of one segment file, a full segment is closed and a new one is started.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(8);
+
+        /**
+         * Oldest segments holding at most this share of live tokens are compacted.
+         */
+        private double compactionLiveRatio = 0.5;
+
+        private Duration compactionInterval = Duration.ofMinutes(1);
+
+        /**
+         * Forces every write to disk. Otherwise writes survive a process crash at once, but an OS
+         * crash only once they are flushed every {@link #flushInterval}.
+         */
+        private boolean syncWrites;
+
+        private Duration flushInterval = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,21 @@
+package by.innowise.auth.refreshtoken;
+
+public enum RefreshTokenStorage {
+
+    /**
+     * One row per refresh token in {@code app.refresh_tokens}, every rotation deletes and inserts a row.
+     */
+    DATABASE,
+
+    /**
+     * Self-contained encrypted refresh tokens, rotations and revocations are kept by
+     * {@link by.innowise.auth.denylist.RefreshTokenFamilyDenylist}.
+     */
+    STATELESS,
+
+    /**
+     * Memory-mapped append-only files on local disk, for single-node deployments, see
+     * {@link by.innowise.auth.refreshtoken.embedded.EmbeddedRefreshTokenStore}.
+     */
+    EMBEDDED
+}
@@ -0,0 +1,34 @@
+package by.innowise.auth.refreshtoken;
+
+import by.innowise.auth.repository.entity.RefreshToken;
+import by.innowise.auth.service.dto.RefreshTokenCreateDto;
+
+import java.util.Optional;
+
+/**
+ * Where stored refresh tokens live. Tokens are looked up by the hash of the token and by their user.
+ */
+public interface RefreshTokenStore {
+
+    void save(RefreshTokenCreateDto token);
+
+    /**
+     * Same as {@link #save(RefreshTokenCreateDto)} for a token of a user that is already committed,
+     * which the database store may batch with concurrent inserts.
+     */
+    default void saveForExistingUser(RefreshTokenCreateDto token) {
+        save(token);
+    }
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    Optional<RefreshToken> findByUserId(Long userId);
+
+    void delete(RefreshToken token);
+
+    /**
+     * @return whether every instance sees the same tokens, so revocations are published as security
+     * events for the denylists of the other instances
+     */
+    boolean isShared();
+}
@@ -0,0 +1,276 @@
+package by.innowise.auth.refreshtoken.embedded;
+
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.refreshtoken.RefreshTokenProperties;
+import by.innowise.auth.refreshtoken.RefreshTokenStore;
+import by.innowise.auth.refreshtoken.embedded.Segment.Record;
+import by.innowise.auth.repository.entity.AuthUser;
+import by.innowise.auth.repository.entity.RefreshToken;
+import by.innowise.auth.service.dto.RefreshTokenCreateDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Refresh tokens kept on local disk in memory-mapped segment files and indexed in memory by hash and by
+ * user. Every change is appended as a record, a deletion included, and the indexes are rebuilt by
+ * replaying the segments on startup.
+ * <p>
+ * Tokens share one TTL, so older segments hold the tokens that expire first. Compaction walks the
+ * segments from the oldest: a segment is dropped once its live share falls below the threshold, after
+ * its remaining live tokens are appended again. Only the oldest segments are compacted, so a dropped
+ * deletion never uncovers an older record of the same token.
+ * <p>
+ * A token is saved once the caller's transaction commits and deleted at once: a deletion claims the
+ * token, so concurrent rotations of one token can't both succeed. The store is local to one instance,
+ * use it only for single-node deployments.
+ */
+@Slf4j
+public class EmbeddedRefreshTokenStore implements RefreshTokenStore, Closeable {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final RefreshTokenProperties.Embedded properties;
+    private final Map<String, Entry> byHash = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> byUser = new ConcurrentHashMap<>();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Counter compactions;
+    private Segment active;
+    private long nextSegmentId;
+
+    public EmbeddedRefreshTokenStore(RefreshTokenProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getEmbedded();
+        restore();
+        Gauge.builder("auth.refresh-token.store.tokens", byHash, Map::size)
+             .register(meterRegistry);
+        Gauge.builder("auth.refresh-token.store.segments", this, store -> store.segmentCount())
+             .register(meterRegistry);
+        this.compactions = meterRegistry.counter("auth.refresh-token.store.compactions");
+    }
+
+    @Override
+    public void save(RefreshTokenCreateDto token) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(token);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(token);
+            }
+        });
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        Entry entry = byHash.get(tokenHash);
+        return entry == null || entry.isExpired(Instant.now().getEpochSecond())
+                ? Optional.empty()
+                : Optional.of(entry.toRefreshToken(tokenHash));
+    }
+
+    @Override
+    public Optional<RefreshToken> findByUserId(Long userId) {
+        long now = Instant.now().getEpochSecond();
+        return byUser.getOrDefault(userId, Set.of()).stream()
+                     .flatMap(hash -> Optional.ofNullable(byHash.get(hash))
+                                              .filter(entry -> !entry.isExpired(now))
+                                              .map(entry -> entry.toRefreshToken(hash))
+                                              .stream())
+                     .findFirst();
+    }
+
+    /**
+     * @throws TokenValidationException if the token is already deleted, e.g. by a concurrent rotation
+     */
+    @Override
+    public synchronized void delete(RefreshToken token) {
+        Entry entry = remove(token.getTokenHash());
+        if (entry == null) {
+            throw new TokenValidationException("Refresh token is revoked", HttpStatus.UNAUTHORIZED);
+        }
+        write(new Record(Segment.DELETE, HEX.parseHex(token.getTokenHash()), entry.id(), entry.userId(),
+                         entry.expiresAtEpochSecond()));
+    }
+
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    private synchronized void put(RefreshTokenCreateDto token) {
+        Record record = new Record(Segment.PUT, HEX.parseHex(token.tokenHash()), token.id(),
+                                   token.authUser().getId(), token.expiresAt().toEpochSecond(ZoneOffset.UTC));
+        index(token.tokenHash(), record, write(record));
+    }
+
+    private Segment write(Record record) {
+        if (!active.hasRoom()) {
+            active = newSegment();
+        }
+        int offset = active.append(record);
+        if (properties.isSyncWrites()) {
+            active.force(offset);
+        }
+        return active;
+    }
+
+    private void index(String hash, Record record, Segment segment) {
+        Entry previous = byHash.put(hash, new Entry(record.id(), record.userId(), record.expiresAtEpochSecond(),
+                                                    segment));
+        if (previous != null) {
+            previous.segment().getLive().decrementAndGet();
+        }
+        segment.getLive().incrementAndGet();
+        byUser.computeIfAbsent(record.userId(), id -> ConcurrentHashMap.newKeySet()).add(hash);
+    }
+
+    private Entry remove(String hash) {
+        Entry entry = byHash.remove(hash);
+        if (entry != null) {
+            entry.segment().getLive().decrementAndGet();
+            byUser.computeIfPresent(entry.userId(), (id, hashes) -> {
+                hashes.remove(hash);
+                return hashes.isEmpty() ? null : hashes;
+            });
+        }
+        return entry;
+    }
+
+    @Scheduled(fixedDelayString = "${application.refresh-token.embedded.flush-interval:1s}")
+    public synchronized void flush() {
+        active.force();
+    }
+
+    /**
+     * Drops expired tokens from the indexes, then compacts the oldest segments while their live share
+     * is below the threshold.
+     */
+    @Scheduled(fixedDelayString = "${application.refresh-token.embedded.compaction-interval:1m}")
+    public synchronized void compact() {
+        long now = Instant.now().getEpochSecond();
+        byHash.entrySet().stream()
+              .filter(e -> e.getValue().isExpired(now))
+              .map(Map.Entry::getKey)
+              .toList()
+              .forEach(this::remove);
+        while (segments.size() > 1 && isCompactable(segments.peekFirst(), now)) {
+            Segment oldest = segments.pollFirst();
+            int moved = relocateLive(oldest);
+            oldest.delete();
+            compactions.increment();
+            log.info("Compacted refresh token segment: {}, moved {} live tokens", oldest.getId(), moved);
+        }
+    }
+
+    private boolean isCompactable(Segment segment, long now) {
+        return segment.getMaxExpiresAtEpochSecond() <= now
+                || segment.getLive().get() <= segment.getRecords() * properties.getCompactionLiveRatio();
+    }
+
+    private int relocateLive(Segment segment) {
+        int[] moved = {0};
+        segment.replay(record -> {
+            String hash = HEX.formatHex(record.hash());
+            Entry entry = byHash.get(hash);
+            if (record.type() == Segment.PUT && entry != null && entry.segment() == segment) {
+                index(hash, record, write(record));
+                moved[0]++;
+            }
+        });
+        return moved[0];
+    }
+
+    private void restore() {
+        try {
+            Files.createDirectories(properties.getDirectory());
+            try (Stream<Path> files = Files.list(properties.getDirectory())) {
+                List<Path> segmentFiles = files.filter(file -> Segment.idOf(file) >= 0)
+                                               .sorted()
+                                               .toList();
+                for (Path file : segmentFiles) {
+                    Segment segment = Segment.open(file, Segment.idOf(file), properties.getSegmentSize().toBytes());
+                    segment.replay(record -> replay(record, segment));
+                    segments.addLast(segment);
+                    nextSegmentId = segment.getId() + 1;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to restore refresh tokens from: " + properties.getDirectory(), e);
+        }
+        active = segments.isEmpty() ? newSegment() : segments.peekLast();
+        log.info("Restored {} refresh tokens from {} segments in: {}", byHash.size(), segments.size(),
+                 properties.getDirectory().toAbsolutePath());
+    }
+
+    private void replay(Record record, Segment segment) {
+        String hash = HEX.formatHex(record.hash());
+        if (record.type() == Segment.PUT) {
+            index(hash, record, segment);
+        } else {
+            remove(hash);
+        }
+    }
+
+    private Segment newSegment() {
+        Segment segment = Segment.create(properties.getDirectory(), nextSegmentId++,
+                                         properties.getSegmentSize().toBytes());
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.forEach(segment -> {
+            segment.force();
+            segment.close();
+        });
+    }
+
+    private record Entry(UUID id, long userId, long expiresAtEpochSecond, Segment segment) {
+
+        boolean isExpired(long nowEpochSecond) {
+            return expiresAtEpochSecond <= nowEpochSecond;
+        }
+
+        RefreshToken toRefreshToken(String hash) {
+            return RefreshToken.builder()
+                               .id(id)
+                               .tokenHash(hash)
+                               .expiresAt(LocalDateTime.ofEpochSecond(expiresAtEpochSecond, 0, ZoneOffset.UTC))
+                               .authUser(AuthUser.builder()
+                                                 .id(userId)
+                                                 .build())
+                               .build();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package by.innowise.auth.refreshtoken.embedded;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file of fixed-size records, written append-only. A record is valid if its checksum
+ * matches, so a record torn by a crash ends the segment and is overwritten by the next append.
+ * Not thread-safe, {@link EmbeddedRefreshTokenStore} serializes access.
+ */
+final class Segment implements Closeable {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final int RECORD_SIZE = 72;
+
+    private static final int HASH_SIZE = 32;
+    private static final int TYPE_OFFSET = 0;
+    private static final int HASH_OFFSET = 1;
+    private static final int ID_OFFSET = HASH_OFFSET + HASH_SIZE;
+    private static final int USER_ID_OFFSET = ID_OFFSET + 16;
+    private static final int EXPIRES_AT_OFFSET = USER_ID_OFFSET + 8;
+    private static final int CHECKSUM_OFFSET = EXPIRES_AT_OFFSET + 8;
+    private static final String FILE_PREFIX = "tokens-";
+    private static final String FILE_SUFFIX = ".seg";
+
+    private final long id;
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger live = new AtomicInteger();
+    private final CRC32 checksum = new CRC32();
+    private int position;
+    private long maxExpiresAtEpochSecond;
+
+    private Segment(long id, Path file, FileChannel channel, MappedByteBuffer buffer) {
+        this.id = id;
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static Segment create(Path directory, long id, long size) {
+        return open(directory.resolve(FILE_PREFIX + "%019d".formatted(id) + FILE_SUFFIX), id, size);
+    }
+
+    /**
+     * @return the id of a segment file, or -1 if the file is not a segment
+     */
+    static long idOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        return Long.parseLong(name, FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length(), 10);
+    }
+
+    static Segment open(Path file, long id, long size) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                   StandardOpenOption.WRITE);
+            long mappedSize = Math.max(size, channel.size()) / RECORD_SIZE * RECORD_SIZE;
+            return new Segment(id, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open refresh token segment: " + file, e);
+        }
+    }
+
+    long getId() {
+        return id;
+    }
+
+    AtomicInteger getLive() {
+        return live;
+    }
+
+    long getMaxExpiresAtEpochSecond() {
+        return maxExpiresAtEpochSecond;
+    }
+
+    int getRecords() {
+        return position / RECORD_SIZE;
+    }
+
+    boolean hasRoom() {
+        return position + RECORD_SIZE <= buffer.capacity();
+    }
+
+    /**
+     * Reads the valid records from the start and positions the segment after the last one.
+     */
+    void replay(Consumer<Record> consumer) {
+        position = 0;
+        while (hasRoom() && buffer.get(position + TYPE_OFFSET) != 0 && isValid(position)) {
+            Record record = read(position);
+            maxExpiresAtEpochSecond = Math.max(maxExpiresAtEpochSecond, record.expiresAtEpochSecond());
+            consumer.accept(record);
+            position += RECORD_SIZE;
+        }
+    }
+
+    /**
+     * @return offset of the written record
+     */
+    int append(Record record) {
+        int offset = position;
+        buffer.put(offset + TYPE_OFFSET, record.type());
+        buffer.put(offset + HASH_OFFSET, record.hash());
+        buffer.putLong(offset + ID_OFFSET, record.id().getMostSignificantBits());
+        buffer.putLong(offset + ID_OFFSET + 8, record.id().getLeastSignificantBits());
+        buffer.putLong(offset + USER_ID_OFFSET, record.userId());
+        buffer.putLong(offset + EXPIRES_AT_OFFSET, record.expiresAtEpochSecond());
+        buffer.putInt(offset + CHECKSUM_OFFSET, checksum(offset));
+        position += RECORD_SIZE;
+        maxExpiresAtEpochSecond = Math.max(maxExpiresAtEpochSecond, record.expiresAtEpochSecond());
+        return offset;
+    }
+
+    void force(int offset) {
+        buffer.force(offset, RECORD_SIZE);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close refresh token segment: " + file, e);
+        }
+    }
+
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete refresh token segment: " + file, e);
+        }
+    }
+
+    private boolean isValid(int offset) {
+        return buffer.getInt(offset + CHECKSUM_OFFSET) == checksum(offset);
+    }
+
+    private int checksum(int offset) {
+        checksum.reset();
+        checksum.update(buffer.slice(offset, CHECKSUM_OFFSET));
+        return (int) checksum.getValue();
+    }
+
+    private Record read(int offset) {
+        byte[] hash = new byte[HASH_SIZE];
+        buffer.get(offset + HASH_OFFSET, hash);
+        return new Record(buffer.get(offset + TYPE_OFFSET),
+                          hash,
+                          new UUID(buffer.getLong(offset + ID_OFFSET), buffer.getLong(offset + ID_OFFSET + 8)),
+                          buffer.getLong(offset + USER_ID_OFFSET),
+                          buffer.getLong(offset + EXPIRES_AT_OFFSET));
+    }
+
+    record Record(byte type, byte[] hash, UUID id, long userId, long expiresAtEpochSecond) {
+    }
+}
@@ -0,0 +1,141 @@
+package by.innowise.auth.repository;
+
+import by.innowise.auth.audit.AuditEvent;
+import by.innowise.auth.audit.AuditEventType;
+import by.innowise.auth.dto.event.AuditEventDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes audit events with a single multi-row statement into the table partitioned by day, and
+ * manages its partitions, named {@code audit_events_pYYYYMMDD}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditEventRepository {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO app.audit_events (occurred_at, event_type, user_id, email, detail) VALUES ";
+    private static final String ROW_VALUES = "(?, ?, ?, ?, ?)";
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final String PARTITION_PREFIX = "audit_events_p";
+    private static final DateTimeFormatter PARTITION_DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String LOCK_PARTITIONS = "SELECT pg_advisory_xact_lock(hashtext('app.audit_events'))";
+    private static final String PARTITION_EXISTS = "SELECT to_regclass(?) IS NOT NULL";
+    private static final String CREATE_DETACHED_PARTITION =
+            "CREATE TABLE app.%s (LIKE app.audit_events INCLUDING DEFAULTS INCLUDING CONSTRAINTS)";
+    private static final String MOVE_FROM_DEFAULT_PARTITION = """
+            WITH moved AS (
+                DELETE FROM app.audit_events_default WHERE occurred_at >= ? AND occurred_at < ? RETURNING *
+            )
+            INSERT INTO app.%s SELECT * FROM moved
+            """;
+    private static final String ATTACH_PARTITION =
+            "ALTER TABLE app.audit_events ATTACH PARTITION app.%s FOR VALUES FROM ('%s') TO ('%s')";
+    private static final String FIND_PARTITIONS = """
+            SELECT c.relname
+            FROM pg_inherits i
+                     JOIN pg_class c ON c.oid = i.inhrelid
+                     JOIN pg_class p ON p.oid = i.inhparent
+                     JOIN pg_namespace n ON n.oid = p.relnamespace
+            WHERE n.nspname = 'app' AND p.relname = 'audit_events' AND c.relname LIKE 'audit\\_events\\_p%'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void insertAll(List<AuditEvent> events) {
+        List<Object> args = new ArrayList<>(events.size() * 5);
+        for (AuditEvent event : events) {
+            args.add(Timestamp.valueOf(event.occurredAt()));
+            args.add(event.type().name());
+            args.add(event.userId());
+            args.add(truncate(event.email()));
+            args.add(truncate(event.detail()));
+        }
+        jdbcTemplate.update(INSERT_PREFIX + String.join(", ", Collections.nCopies(events.size(), ROW_VALUES)),
+                            args.toArray());
+    }
+
+    /**
+     * Newest first. The time range lets the planner skip the partitions outside of it.
+     */
+    @Transactional(readOnly = true)
+    public List<AuditEventDto> find(AuditEventType type, Long userId, LocalDateTime from, LocalDateTime to,
+                                    int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, occurred_at, event_type, user_id, email, detail
+                FROM app.audit_events
+                WHERE occurred_at >= ? AND occurred_at < ?
+                """);
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (type != null) {
+            sql.append(" AND event_type = ?");
+            args.add(type.name());
+        }
+        if (userId != null) {
+            sql.append(" AND user_id = ?");
+            args.add(userId);
+        }
+        sql.append(" ORDER BY occurred_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AuditEventDto(
+                rs.getLong("id"),
+                rs.getString("event_type"),
+                rs.getObject("user_id", Long.class),
+                rs.getString("email"),
+                rs.getString("detail"),
+                rs.getTimestamp("occurred_at").toLocalDateTime()), args.toArray());
+    }
+
+    /**
+     * Creates the partition of the day unless it exists. Events of that day already written to the default
+     * partition are moved into it first, as Postgres refuses to attach a partition whose range has rows in
+     * the default one. Instances creating partitions concurrently are serialized by an advisory lock.
+     *
+     * @return the number of events moved out of the default partition
+     */
+    @Transactional
+    public int createPartition(LocalDate day) {
+        String partition = partitionOf(day);
+        jdbcTemplate.queryForObject(LOCK_PARTITIONS, Object.class);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(PARTITION_EXISTS, Boolean.class, "app." + partition))) {
+            return 0;
+        }
+        jdbcTemplate.execute(CREATE_DETACHED_PARTITION.formatted(partition));
+        int moved = jdbcTemplate.update(MOVE_FROM_DEFAULT_PARTITION.formatted(partition),
+                                        Timestamp.valueOf(day.atStartOfDay()),
+                                        Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        jdbcTemplate.execute(ATTACH_PARTITION.formatted(partition, day, day.plusDays(1)));
+        return moved;
+    }
+
+    public List<LocalDate> findPartitionDays() {
+        return jdbcTemplate.queryForList(FIND_PARTITIONS, String.class)
+                           .stream()
+                           .map(name -> LocalDate.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_DAY))
+                           .toList();
+    }
+
+    public void dropPartition(LocalDate day) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS app.%s".formatted(partitionOf(day)));
+    }
+
+    private String partitionOf(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_DAY.format(day);
+    }
+
+    private String truncate(String text) {
+        return text == null || text.length() <= MAX_TEXT_LENGTH ? text : text.substring(0, MAX_TEXT_LENGTH);
+    }
+}
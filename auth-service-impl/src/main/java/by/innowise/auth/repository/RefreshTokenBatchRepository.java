@@ -0,0 +1,50 @@
+package by.innowise.auth.repository;
+
+import by.innowise.auth.service.dto.RefreshTokenCreateDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts refresh tokens with a single multi-row statement, bypassing the persistence context.
+ * Outside a transaction, e.g. on the group commit writer's own pool, the statement commits by itself.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenBatchRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO app.refresh_tokens "
+            + "(id, hashed_token, expires_at, user_id, created_at, updated_at, version) VALUES ";
+    private static final String ROW_VALUES = "(?, ?, ?, ?, ?, ?, 0)";
+    private static final String DELETE_BY_ID = "DELETE FROM app.refresh_tokens WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void insertAll(List<RefreshTokenCreateDto> tokens) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> args = new ArrayList<>(tokens.size() * 6);
+        for (RefreshTokenCreateDto token : tokens) {
+            args.add(token.id());
+            args.add(token.tokenHash());
+            args.add(Timestamp.valueOf(token.expiresAt()));
+            args.add(token.authUser().getId());
+            args.add(now);
+            args.add(now);
+        }
+        jdbcTemplate.update(INSERT_PREFIX + String.join(", ", Collections.nCopies(tokens.size(), ROW_VALUES)),
+                            args.toArray());
+    }
+
+    public void deleteById(UUID id) {
+        jdbcTemplate.update(DELETE_BY_ID, id);
+    }
+}
@@ -0,0 +1,44 @@
+package by.innowise.auth.repository;
+
+import by.innowise.auth.repository.entity.SecurityEvent;
+import by.innowise.auth.repository.entity.SecurityEventType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SecurityEventRepository extends JpaRepository<SecurityEvent, Long> {
+
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+
+    @Modifying
+    @Query(value = """
+            UPDATE app.security_events e
+            SET relay_seq = s.seq, relayed_at = now()
+            FROM (SELECT b.id, nextval('app.security_events_relay_seq') AS seq
+                  FROM (SELECT id FROM app.security_events
+                        WHERE relay_seq IS NULL
+                        ORDER BY id
+                        LIMIT :batchSize) b
+                  ORDER BY b.id) s
+            WHERE e.id = s.id
+            """, nativeQuery = true)
+    int assignRelaySeq(@Param("batchSize") int batchSize);
+
+    List<SecurityEvent> findByRelaySeqGreaterThanOrderByRelaySeq(Long relaySeq, Limit limit);
+
+    List<SecurityEvent> findByEventTypeAndRelaySeqGreaterThanOrderByRelaySeq(SecurityEventType eventType,
+                                                                            Long relaySeq, Limit limit);
+
+    @Query("SELECT max(e.relaySeq) FROM SecurityEvent e")
+    Long findMaxRelaySeq();
+
+    @Modifying
+    @Query("DELETE FROM SecurityEvent e WHERE e.relaySeq IS NOT NULL AND e.relayedAt < :threshold")
+    int deleteRelayedBefore(@Param("threshold") LocalDateTime threshold);
+}
@@ -0,0 +1,56 @@
+package by.innowise.auth.repository;
+
+import by.innowise.auth.tablestats.IndexStats;
+import by.innowise.auth.tablestats.TableStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Reads the cumulative statistics views of the current database.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TableStatsRepository {
+
+    private static final String TABLE_STATS = """
+            SELECT relname, n_live_tup, n_dead_tup, autovacuum_count,
+                   seq_scan, coalesce(idx_scan, 0) AS idx_scan,
+                   coalesce(extract(EPOCH FROM now() - greatest(last_autovacuum, last_vacuum))::bigint, -1)
+                       AS vacuum_age,
+                   pg_total_relation_size(relid) AS total_bytes
+            FROM pg_stat_user_tables
+            WHERE schemaname = ?
+            ORDER BY relname
+            """;
+    private static final String INDEX_STATS = """
+            SELECT relname, indexrelname, idx_scan, pg_relation_size(indexrelid) AS size_bytes
+            FROM pg_stat_user_indexes
+            WHERE schemaname = ?
+            ORDER BY relname, indexrelname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<TableStats> findTableStats(String schema) {
+        return jdbcTemplate.query(TABLE_STATS, (rs, rowNum) -> new TableStats(rs.getString("relname"),
+                                                                              rs.getLong("n_live_tup"),
+                                                                              rs.getLong("n_dead_tup"),
+                                                                              rs.getLong("vacuum_age"),
+                                                                              rs.getLong("autovacuum_count"),
+                                                                              rs.getLong("seq_scan"),
+                                                                              rs.getLong("idx_scan"),
+                                                                              rs.getLong("total_bytes")),
+                                  schema);
+    }
+
+    public List<IndexStats> findIndexStats(String schema) {
+        return jdbcTemplate.query(INDEX_STATS, (rs, rowNum) -> new IndexStats(rs.getString("relname"),
+                                                                              rs.getString("indexrelname"),
+                                                                              rs.getLong("idx_scan"),
+                                                                              rs.getLong("size_bytes")),
+                                  schema);
+    }
+}
@@ -0,0 +1,75 @@
+package by.innowise.auth.repository;
+
+import by.innowise.auth.activity.UserActivity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Upserts user activity with a single multi-row statement. Timestamps only move forward, so flushes of
+ * several instances can be applied in any order. Users deleted meanwhile are skipped.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserActivityRepository {
+
+    private static final String UPSERT_PREFIX = """
+            INSERT INTO app.user_activity (user_id, last_login_at, last_seen_at)
+            SELECT v.user_id, v.last_login_at, v.last_seen_at
+            FROM (VALUES\s""";
+    /**
+     * Casts of the first row type the columns of the values list, untyped parameters would be text.
+     */
+    private static final String FIRST_ROW_VALUES = "(?::bigint, ?::timestamp, ?::timestamp)";
+    private static final String ROW_VALUES = "(?, ?, ?)";
+    private static final String UPSERT_SUFFIX = """
+            ) AS v (user_id, last_login_at, last_seen_at)
+            WHERE EXISTS (SELECT 1 FROM app.auth_users u WHERE u.id = v.user_id)
+            ON CONFLICT (user_id) DO UPDATE
+                SET last_login_at = greatest(user_activity.last_login_at, excluded.last_login_at),
+                    last_seen_at = greatest(user_activity.last_seen_at, excluded.last_seen_at)
+            """;
+    private static final String FIND_BY_USER_ID =
+            "SELECT user_id, last_login_at, last_seen_at FROM app.user_activity WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void upsertAll(List<UserActivity> activities) {
+        List<Object> args = new ArrayList<>(activities.size() * 3);
+        for (UserActivity activity : activities) {
+            args.add(activity.userId());
+            args.add(toTimestamp(activity.lastLoginAt()));
+            args.add(toTimestamp(activity.lastSeenAt()));
+        }
+        List<String> rows = new ArrayList<>(Collections.nCopies(activities.size(), ROW_VALUES));
+        rows.set(0, FIRST_ROW_VALUES);
+        jdbcTemplate.update(UPSERT_PREFIX + String.join(", ", rows) + UPSERT_SUFFIX, args.toArray());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UserActivity> findByUserId(Long userId) {
+        return jdbcTemplate.query(FIND_BY_USER_ID, (rs, rowNum) -> new UserActivity(
+                                          rs.getLong("user_id"),
+                                          toDateTime(rs.getTimestamp("last_login_at")),
+                                          toDateTime(rs.getTimestamp("last_seen_at"))), userId)
+                           .stream()
+                           .findFirst();
+    }
+
+    private Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+
+    private LocalDateTime toDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -1,14 +1,16 @@
 package by.innowise.auth.repository.entity;
 
+import by.innowise.auth.repository.generator.AssignableSequenceId;
+import by.innowise.auth.repository.listener.AuthUserVersionListener;
 import by.innowise.internship.security.dto.Role;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -16,6 +18,8 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
+import java.util.Objects;
+
 @Data
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = true)
 @ToString(callSuper = true)
@@ -23,12 +27,13 @@ import lombok.experimental.SuperBuilder;
 @AllArgsConstructor
 @SuperBuilder
 @Entity
+@EntityListeners(AuthUserVersionListener.class)
 @Table(name = "auth_users")
 public class AuthUser extends BaseEntity {
 
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableSequenceId(sequenceName = "app.auth_users_id_seq")
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
 
@@ -45,4 +50,15 @@ public class AuthUser extends BaseEntity {
     @Column(name = "status", nullable = false, length = 32)
     @Enumerated(EnumType.STRING)
     private UserStatus status;
+
+    /**
+     * Hash of the fields access tokens are issued from, as they were loaded or last flushed.
+     */
+    @Transient
+    @ToString.Exclude
+    private int securityState;
+
+    public int currentSecurityState() {
+        return Objects.hash(email == null ? null : email.toLowerCase(), role, status);
+    }
 }
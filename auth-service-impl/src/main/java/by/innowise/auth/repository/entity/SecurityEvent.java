@@ -0,0 +1,67 @@
+package by.innowise.auth.repository.entity;
+
+import by.innowise.internship.security.dto.Role;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row written in the transaction of the user or token mutation it describes.
+ * {@code relaySeq} is assigned by the relay in commit order and is the cursor consumers resume from.
+ */
+@Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "security_events")
+public class SecurityEvent {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, updatable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private SecurityEventType eventType;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "user_version", updatable = false)
+    private Long userVersion;
+
+    @Column(name = "role", updatable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private Role role;
+
+    @Column(name = "hashed_token", updatable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "token_expires_at", updatable = false)
+    private LocalDateTime tokenExpiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "relay_seq", insertable = false, updatable = false)
+    private Long relaySeq;
+
+    @Column(name = "relayed_at", insertable = false, updatable = false)
+    private LocalDateTime relayedAt;
+}
@@ -0,0 +1,9 @@
+package by.innowise.auth.repository.entity;
+
+public enum SecurityEventType {
+
+    USER_CREATED,
+    USER_DELETED,
+    REFRESH_TOKEN_REVOKED
+
+}
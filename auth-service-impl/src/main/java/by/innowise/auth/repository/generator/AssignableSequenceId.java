@@ -0,0 +1,19 @@
+package by.innowise.auth.repository.generator;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps an id assigned before persisting, otherwise takes the next value of the sequence.
+ */
+@IdGeneratorType(AssignableSequenceIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface AssignableSequenceId {
+
+    String sequenceName();
+}
@@ -0,0 +1,65 @@
+package by.innowise.auth.repository.generator;
+
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+
+/**
+ * Generator of {@link AssignableSequenceId}. The sequence is read on the session's own connection, so
+ * the value comes from the database the entity is written to.
+ */
+public class AssignableSequenceIdGenerator implements BeforeExecutionGenerator {
+
+    private final String nextValueSql;
+
+    public AssignableSequenceIdGenerator(AssignableSequenceId config, Member member,
+                                         CustomIdGeneratorCreationContext context) {
+        this.nextValueSql = context.getDatabase()
+                                   .getDialect()
+                                   .getSequenceSupport()
+                                   .getSequenceNextValString(config.sequenceName());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        Object assigned = session.getEntityPersister(null, owner).getIdentifier(owner, session);
+        return assigned != null ? assigned : nextValue(session);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    private long nextValue(SharedSessionContractImplementor session) {
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbcCoordinator.getStatementPreparer().prepareStatement(nextValueSql);
+        try {
+            ResultSet resultSet = jdbcCoordinator.getResultSetReturn().extract(statement, nextValueSql);
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            throw session.getJdbcServices()
+                         .getSqlExceptionHelper()
+                         .convert(e, "Could not fetch the next id", nextValueSql);
+        } finally {
+            jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+    }
+}
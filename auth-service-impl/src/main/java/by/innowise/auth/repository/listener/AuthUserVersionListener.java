@@ -0,0 +1,73 @@
+package by.innowise.auth.repository.listener;
+
+import by.innowise.auth.degraded.UserSnapshotCache;
+import by.innowise.auth.invalidation.Invalidation;
+import by.innowise.auth.invalidation.InvalidationPublisher;
+import by.innowise.auth.repository.entity.AuthUser;
+import by.innowise.auth.service.jwt.UserVersionRegistry;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Feeds {@link UserVersionRegistry} and {@link UserSnapshotCache} with changes of the fields access
+ * tokens are issued from. Both are updated only after commit, so a rolled back change revokes nothing.
+ * Other replicas are notified within the changing transaction, Postgres delivers on commit as well.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthUserVersionListener {
+
+    private final UserVersionRegistry userVersionRegistry;
+    private final UserSnapshotCache userSnapshotCache;
+    private final InvalidationPublisher invalidationPublisher;
+
+    @PostLoad
+    @PostPersist
+    void rememberSecurityState(AuthUser user) {
+        user.setSecurityState(user.currentSecurityState());
+    }
+
+    @PostUpdate
+    void onUpdate(AuthUser user) {
+        int previous = user.getSecurityState();
+        rememberSecurityState(user);
+        if (previous != user.getSecurityState()) {
+            Long userId = user.getId();
+            Long version = user.getVersion();
+            invalidationPublisher.publish(Invalidation.userChanged(userId, version));
+            afterCommit(() -> {
+                userVersionRegistry.revokeBelow(userId, version);
+                userSnapshotCache.evict(userId);
+            });
+        }
+    }
+
+    @PostRemove
+    void onRemove(AuthUser user) {
+        Long userId = user.getId();
+        invalidationPublisher.publish(Invalidation.userRemoved(userId));
+        afterCommit(() -> {
+            userVersionRegistry.revokeAll(userId);
+            userSnapshotCache.evict(userId);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
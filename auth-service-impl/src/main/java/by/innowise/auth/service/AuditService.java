@@ -0,0 +1,16 @@
+package by.innowise.auth.service;
+
+import by.innowise.auth.audit.AuditEventType;
+import by.innowise.auth.dto.event.AuditEventDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditService {
+
+    /**
+     * Newest events first, every filter is optional. The range defaults to the last day and the limit
+     * is capped.
+     */
+    List<AuditEventDto> find(AuditEventType type, Long userId, LocalDateTime from, LocalDateTime to, int limit);
+}
@@ -0,0 +1,41 @@
+package by.innowise.auth.service;
+
+import by.innowise.auth.dto.event.RevokedTokenDto;
+import by.innowise.auth.dto.event.SecurityEventDto;
+import by.innowise.auth.repository.entity.AuthUser;
+import by.innowise.auth.repository.entity.RefreshToken;
+import by.innowise.auth.repository.entity.SecurityEventType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SecurityEventService {
+
+    /**
+     * Must join the transaction of the mutation the event describes.
+     */
+    void record(SecurityEventType type, AuthUser user);
+
+    void record(SecurityEventType type, Long userId);
+
+    /**
+     * Records a {@link SecurityEventType#REFRESH_TOKEN_REVOKED} event carrying the token hash and expiry,
+     * must join the transaction that deletes the token.
+     */
+    void recordRevoked(RefreshToken token);
+
+    /**
+     * Assigns stream positions to a batch of committed events, unless another instance holds the relay lock.
+     *
+     * @return the number of relayed events
+     */
+    int relayPending(int batchSize);
+
+    int purgeRelayedBefore(LocalDateTime threshold);
+
+    List<SecurityEventDto> getRelayedAfter(long seq, int limit);
+
+    long getLastRelayedSeq();
+
+    List<RevokedTokenDto> getRevokedTokensAfter(long seq, int limit);
+}
@@ -12,8 +12,17 @@ public interface TokenService {
 
     TokenResponseDto generate(AuthUser user);
 
+    /**
+     * Same as {@link #generate(AuthUser)} for a user that is already committed, so the refresh token
+     * may be written by the group commit writer outside the current transaction.
+     */
+    TokenResponseDto generateForExistingUser(AuthUser user);
+
     void validate(TokenRequestDto token);
 
+    /**
+     * Validates the token and maps its claims, parsing it once.
+     */
     ParsedTokenDto getParsedTokenClaims(TokenRequestDto tokenRequest);
 
     Optional<RefreshToken> getRefreshTokenByTokenHash(String hashedToken);
@@ -23,4 +32,15 @@ public interface TokenService {
     Optional<RefreshToken> getRefreshTokenByUserId(Long userId);
 
     void deleteForUser(Long userId);
+
+    /**
+     * Marks the rotation of a stateless refresh token as used and issues the next token of its family,
+     * without writing to the database.
+     */
+    TokenResponseDto rotate(AuthUser user, ParsedTokenDto refreshToken);
+
+    /**
+     * Revokes every token of the family of a stateless refresh token.
+     */
+    void revokeFamily(ParsedTokenDto refreshToken);
 }
\ No newline at end of file
@@ -10,7 +10,11 @@ public interface UserService {
 
     boolean isEmailFree(String email);
 
-    AuthUser create(UserCreateDto userCreateDto);
+    /**
+     * @param id id allocated by the user directory when storage is sharded, {@code null} to take the next
+     *           one from the database
+     */
+    AuthUser create(UserCreateDto userCreateDto, Long id);
 
     Optional<AuthUser> getActiveById(Long userId);
 
@@ -5,7 +5,12 @@ import lombok.Builder;
 import lombok.Value;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
 
+/**
+ * Timestamps are kept as epoch seconds, as they are in the token, and converted only on demand.
+ */
 @Value
 @Builder
 public class ParsedTokenDto {
@@ -14,11 +19,38 @@ public class ParsedTokenDto {
 
     Long userId;
 
-    LocalDateTime issuedAt;
+    long issuedAtEpochSecond;
 
-    LocalDateTime expiresAt;
+    long expiresAtEpochSecond;
 
     String email;
 
     Role role;
+
+    Long userVersion;
+
+    /**
+     * Family of a stateless refresh token, {@code null} for signed tokens.
+     */
+    UUID familyId;
+
+    /**
+     * Position of a stateless refresh token within its family, incremented on every refresh.
+     */
+    long rotation;
+
+    /**
+     * Compact access tokens don't carry the email, so they match any.
+     */
+    public boolean matchesEmail(String userEmail) {
+        return email == null || email.equalsIgnoreCase(userEmail);
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return LocalDateTime.ofEpochSecond(issuedAtEpochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return LocalDateTime.ofEpochSecond(expiresAtEpochSecond, 0, ZoneOffset.UTC);
+    }
 }
@@ -0,0 +1,11 @@
+package by.innowise.auth.service.dto;
+
+import by.innowise.internship.security.dto.Role;
+
+public record TokenSubject(
+        Long userId,
+        String email,
+        Role role,
+        Long version
+) {
+}
@@ -2,25 +2,42 @@ package by.innowise.auth.service.dto;
 
 import lombok.Getter;
 
-import java.util.Arrays;
-
 public enum TokenType {
 
-    ACCESS("access"),
-    REFRESH("refresh");
+    ACCESS("access", 0),
+    REFRESH("refresh", 1);
+
+    private static final TokenType[] VALUES = values();
 
     @Getter
     private final String type;
 
-    TokenType(String type) {
+    /**
+     * Code of the type in compact tokens, kept stable across releases.
+     */
+    @Getter
+    private final int code;
+
+    TokenType(String type, int code) {
         this.type = type;
+        this.code = code;
     }
 
     public static TokenType fromType(String typeName) {
-        return Arrays.stream(TokenType.values())
-                     .filter(e -> e.getType().equalsIgnoreCase(typeName))
-                     .findFirst()
-                     .orElseThrow(() -> new IllegalArgumentException(
-                             "Haven't found a TokenType for [%s] value".formatted(typeName)));
+        for (TokenType tokenType : VALUES) {
+            if (tokenType.type.equalsIgnoreCase(typeName)) {
+                return tokenType;
+            }
+        }
+        throw new IllegalArgumentException("Haven't found a TokenType for [%s] value".formatted(typeName));
+    }
+
+    public static TokenType fromCode(int code) {
+        for (TokenType tokenType : VALUES) {
+            if (tokenType.code == code) {
+                return tokenType;
+            }
+        }
+        throw new IllegalArgumentException("Haven't found a TokenType for [%d] code".formatted(code));
     }
 }
@@ -4,6 +4,7 @@ import by.innowise.auth.dto.AuthDetails;
 import by.innowise.auth.dto.UserCreateDto;
 import by.innowise.auth.dto.token.TokenRequestDto;
 import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.service.dto.ParsedTokenDto;
 
 public interface AuthFacade {
 
@@ -11,6 +12,11 @@ public interface AuthFacade {
 
     void validate(TokenRequestDto tokenRequest);
 
+    /**
+     * Applies the same checks as {@link #validate(TokenRequestDto)} and returns the verified claims.
+     */
+    ParsedTokenDto introspect(TokenRequestDto tokenRequest);
+
     TokenResponseDto refresh(TokenRequestDto tokenRequest);
 
     TokenResponseDto login(AuthDetails authDetails);
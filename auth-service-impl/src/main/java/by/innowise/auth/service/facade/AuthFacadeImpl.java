@@ -1,9 +1,19 @@
 package by.innowise.auth.service.facade;
 
+import by.innowise.auth.activity.UserActivityTracker;
+import by.innowise.auth.audit.AuditEventType;
+import by.innowise.auth.audit.AuditTrail;
+import by.innowise.auth.config.datasource.ReadYourWritesGuard;
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.degraded.DatabaseCircuitBreaker;
+import by.innowise.auth.degraded.StaleUserValidator;
+import by.innowise.auth.degraded.UserSnapshotCache;
+import by.innowise.auth.denylist.RefreshTokenDenylist;
 import by.innowise.auth.dto.AuthDetails;
 import by.innowise.auth.dto.UserCreateDto;
 import by.innowise.auth.dto.token.TokenRequestDto;
 import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.exception.DatabaseUnavailableException;
 import by.innowise.auth.exception.TokenValidationException;
 import by.innowise.auth.repository.entity.AuthUser;
 import by.innowise.auth.repository.entity.RefreshToken;
@@ -12,7 +22,11 @@ import by.innowise.auth.service.TokenService;
 import by.innowise.auth.service.UserService;
 import by.innowise.auth.service.dto.ParsedTokenDto;
 import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.service.jwt.UserVersionRegistry;
 import by.innowise.auth.util.TokenHasher;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,29 +34,61 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.function.Supplier;
+
+/**
+ * Each call gets a span from {@link Observed}. Its stages are private methods the aspect doesn't see,
+ * so they are observed explicitly as {@value #STAGE_OBSERVATION} child spans.
+ */
 @Slf4j
 @Service
+@Observed(name = "auth.facade")
 @RequiredArgsConstructor
 public class AuthFacadeImpl implements AuthFacade {
 
+    private static final String STAGE_OBSERVATION = "auth.facade.stage";
+    private static final String STAGE_KEY = "stage";
+
     private final UserService userService;
     private final TokenService tokenService;
     private final RefreshTokenCleanupService refreshTokenCleanupService;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final UserVersionRegistry userVersionRegistry;
+    private final RefreshTokenDenylist refreshTokenDenylist;
+    private final ShardRouter shardRouter;
+    private final AuditTrail auditTrail;
+    private final UserActivityTracker userActivityTracker;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final UserSnapshotCache userSnapshotCache;
+    private final StaleUserValidator staleUserValidator;
+    private final ObservationRegistry observationRegistry;
 
     @Transactional
     @Override
     public TokenResponseDto register(UserCreateDto userCreateDto) {
-        log.info("Invoking authService to create a new user with email: {}", userCreateDto.email());
-        AuthUser user = userService.create(userCreateDto);
-        log.info("Invoking token service to generate a token for a user: {}", user.getId());
-        return tokenService.generate(user);
+        Long userId = shardRouter.reserveUserId(userCreateDto.email());
+        return shardRouter.callOnShardOf(userId, () -> {
+            log.info("Invoking authService to create a new user with email: {}", userCreateDto.email());
+            AuthUser user = userService.create(userCreateDto, userId);
+            log.info("Invoking token service to generate a token for a user: {}", user.getId());
+            return tokenService.generate(user);
+        });
     }
 
-    @Transactional
+    /**
+     * Not transactional, so a token validated by its user version never takes a connection. The user
+     * lookup runs in the user service's read-only transaction and may be served by a replica; users
+     * written recently by this instance are read from the primary. Refresh stays read-write: the
+     * rotated token must be looked up on the primary.
+     */
     @Override
     public void validate(TokenRequestDto tokenRequest) {
-        ParsedTokenDto parsedTokenDto = validateAndParse(tokenRequest);
-        getValidatedUser(tokenRequest, parsedTokenDto);
+        validateAndGetClaims(tokenRequest);
+    }
+
+    @Override
+    public ParsedTokenDto introspect(TokenRequestDto tokenRequest) {
+        return validateAndGetClaims(tokenRequest);
     }
 
     @Transactional
@@ -50,52 +96,109 @@ public class AuthFacadeImpl implements AuthFacade {
     public TokenResponseDto refresh(TokenRequestDto tokenRequest) {
         ParsedTokenDto parsedTokenDto = validateAndParse(tokenRequest);
         checkIfRefreshToken(parsedTokenDto);
-        AuthUser validatedUser = getValidatedUser(tokenRequest, parsedTokenDto);
-        return refreshTokenByTokenHash(validatedUser, convertTokenToHex(tokenRequest));
+        auditTrail.recordOnCommit(AuditEventType.REFRESH, parsedTokenDto.getUserId(), null, null);
+        TokenResponseDto tokens = observeStage("refresh-token-rotation",
+                                               () -> rotateRefreshToken(tokenRequest, parsedTokenDto));
+        userActivityTracker.recordSeen(parsedTokenDto.getUserId());
+        return tokens;
     }
 
     @Transactional
     @Override
     public TokenResponseDto login(AuthDetails authDetails) {
-        AuthUser authenticated = userService.authenticate(authDetails);
-        log.info("Retrieved a user from user service: {}", authenticated);
-        return refreshTokenByUser(authenticated);
+        return shardRouter.callOnShardOfEmail(authDetails.email(), () -> {
+            AuthUser authenticated = databaseCircuitBreaker.call(() -> userService.authenticate(authDetails));
+            log.info("Retrieved a user from user service: {}", authenticated);
+            auditTrail.recordOnCommit(AuditEventType.LOGIN, authenticated.getId(), authenticated.getEmail(), null);
+            userActivityTracker.recordLogin(authenticated.getId());
+            return observeStage("refresh-token-rotation", () -> refreshTokenByUser(authenticated));
+        });
     }
 
     @Transactional
     @Override
     public void delete(Long userId) {
-        tokenService.deleteForUser(userId);
-        userService.delete(userId);
+        shardRouter.runOnShardOf(userId, () -> {
+            tokenService.deleteForUser(userId);
+            userService.delete(userId);
+        });
     }
 
-    private ParsedTokenDto validateAndParse(TokenRequestDto tokenRequest) {
-        validateJwt(tokenRequest);
-        return parseToken(tokenRequest);
+    private ParsedTokenDto validateAndGetClaims(TokenRequestDto tokenRequest) {
+        ParsedTokenDto parsedTokenDto = validateAndParse(tokenRequest);
+        if (userVersionRegistry.canValidateWithoutDatabase(parsedTokenDto)) {
+            observeStage("user-version-check", () -> ensureUserVersionIsCurrent(parsedTokenDto));
+        } else {
+            observeStage("user-validation", () -> validateWithUser(tokenRequest, parsedTokenDto));
+        }
+        userActivityTracker.recordSeen(parsedTokenDto.getUserId());
+        return parsedTokenDto;
     }
 
-    private void validateJwt(TokenRequestDto tokenRequest) {
-        log.info("Validating if token is not expired or malformed: {}", tokenRequest.token());
-        tokenService.validate(tokenRequest);
+    /**
+     * Falls back to the last known snapshot of the user when the database is unavailable.
+     */
+    private void validateWithUser(TokenRequestDto tokenRequest, ParsedTokenDto parsedTokenDto) {
+        try {
+            shardRouter.callOnShardOf(parsedTokenDto.getUserId(),
+                                      () -> readYourWritesGuard.readConsistently(
+                                              parsedTokenDto.getUserId(),
+                                              () -> getValidatedUser(tokenRequest, parsedTokenDto)));
+        } catch (DatabaseUnavailableException e) {
+            staleUserValidator.validate(parsedTokenDto, e);
+        }
+    }
+
+    private TokenResponseDto rotateRefreshToken(TokenRequestDto tokenRequest, ParsedTokenDto parsedTokenDto) {
+        return isStatelessRefreshToken(parsedTokenDto)
+                ? rotateStatelessRefreshToken(tokenRequest, parsedTokenDto)
+                : rotateStoredRefreshToken(tokenRequest, parsedTokenDto);
+    }
+
+    private TokenResponseDto rotateStatelessRefreshToken(TokenRequestDto tokenRequest, ParsedTokenDto parsedTokenDto) {
+        return shardRouter.callOnShardOf(parsedTokenDto.getUserId(), () -> tokenService.rotate(
+                getValidatedUser(tokenRequest, parsedTokenDto), parsedTokenDto));
+    }
+
+    private TokenResponseDto rotateStoredRefreshToken(TokenRequestDto tokenRequest, ParsedTokenDto parsedTokenDto) {
+        String hashedToken = convertTokenToHex(tokenRequest);
+        ensureNotRevoked(hashedToken, parsedTokenDto);
+        return shardRouter.callOnShardOf(parsedTokenDto.getUserId(), () -> {
+            AuthUser validatedUser = getValidatedUser(tokenRequest, parsedTokenDto);
+            return refreshTokenByTokenHash(validatedUser, hashedToken);
+        });
     }
 
-    private ParsedTokenDto parseToken(TokenRequestDto tokenRequest) {
-        ParsedTokenDto parsedTokenDto = tokenService.getParsedTokenClaims(tokenRequest);
+    private void ensureUserVersionIsCurrent(ParsedTokenDto parsedTokenDto) {
+        if (userVersionRegistry.isRevoked(parsedTokenDto)) {
+            log.info("Token user version: {} is revoked for user: {}", parsedTokenDto.getUserVersion(),
+                     parsedTokenDto.getUserId());
+            throw new TokenValidationException("Token contains insufficient data", HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+    private ParsedTokenDto validateAndParse(TokenRequestDto tokenRequest) {
+        log.info("Validating if token is not expired or malformed: {}", tokenRequest.token());
+        ParsedTokenDto parsedTokenDto = observeStage("token-parse",
+                                                     () -> tokenService.getParsedTokenClaims(tokenRequest));
         log.info("Retrieved parsed token dto from claims: {}", parsedTokenDto);
         return parsedTokenDto;
     }
 
     private AuthUser getValidatedUser(TokenRequestDto tokenRequest, ParsedTokenDto parsedTokenDto) {
-        return userService.getActiveById(parsedTokenDto.getUserId())
-                          .map(u -> {
-                              ensureClaimsAreConsistent(u, parsedTokenDto, tokenRequest);
-                              return u;
-                          })
-                          .orElseThrow(() -> {
-                              clearRefreshToken(tokenRequest, parsedTokenDto);
-                              return new TokenValidationException("The subject user is not found or deactivated",
-                                                                  HttpStatus.UNAUTHORIZED);
-                          });
+        return databaseCircuitBreaker.call(() -> userService.getActiveById(parsedTokenDto.getUserId()))
+                                     .map(u -> {
+                                         userSnapshotCache.remember(u);
+                                         ensureClaimsAreConsistent(u, parsedTokenDto, tokenRequest);
+                                         return u;
+                                     })
+                                     .orElseThrow(() -> {
+                                         userSnapshotCache.evict(parsedTokenDto.getUserId());
+                                         clearRefreshToken(tokenRequest, parsedTokenDto);
+                                         return new TokenValidationException(
+                                                 "The subject user is not found or deactivated",
+                                                 HttpStatus.UNAUTHORIZED);
+                                     });
     }
 
     private void checkIfRefreshToken(ParsedTokenDto parsedTokenDto) {
@@ -106,23 +209,30 @@ public class AuthFacadeImpl implements AuthFacade {
         }
     }
 
+    private void ensureNotRevoked(String hashedToken, ParsedTokenDto parsedTokenDto) {
+        if (refreshTokenDenylist.isRevoked(hashedToken)) {
+            log.info("Refresh token of user: {} is already rotated or revoked", parsedTokenDto.getUserId());
+            throw new TokenValidationException("Refresh token is revoked", HttpStatus.UNAUTHORIZED);
+        }
+    }
+
     private TokenResponseDto refreshTokenByTokenHash(AuthUser user, String hashedToken) {
-        return tokenService.getRefreshTokenByTokenHash(hashedToken)
-                           .map(t -> replaceRefreshToken(user, t))
-                           .orElseGet(() -> tokenService.generate(user));
+        return databaseCircuitBreaker.call(() -> tokenService.getRefreshTokenByTokenHash(hashedToken))
+                                     .map(t -> replaceRefreshToken(user, t))
+                                     .orElseGet(() -> tokenService.generateForExistingUser(user));
     }
 
     private TokenResponseDto refreshTokenByUser(AuthUser user) {
-        return tokenService.getRefreshTokenByUserId(user.getId())
-                           .map(t -> replaceRefreshToken(user, t))
-                           .orElseGet(() -> tokenService.generate(user));
+        return databaseCircuitBreaker.call(() -> tokenService.getRefreshTokenByUserId(user.getId()))
+                                     .map(t -> replaceRefreshToken(user, t))
+                                     .orElseGet(() -> tokenService.generateForExistingUser(user));
     }
 
     private TokenResponseDto replaceRefreshToken(AuthUser user, RefreshToken token) {
         log.info("Refresh token found: {}", token);
         refreshTokenCleanupService.clearTokenIfStored(token.getTokenHash());
         log.info("Refresh token was pre-deleted: {}", token.getId());
-        return tokenService.generate(user);
+        return tokenService.generateForExistingUser(user);
     }
 
     private void ensureClaimsAreConsistent(@NotNull AuthUser user,
@@ -138,29 +248,56 @@ public class AuthFacadeImpl implements AuthFacade {
     }
 
     private void handleInconsistentClaims(ParsedTokenDto parsedTokenDto, TokenRequestDto tokenRequest) {
+        recordRevocation(parsedTokenDto, "Token claims are inconsistent with the user");
         clearRefreshTokenIfStored(tokenRequest, parsedTokenDto);
         throw new TokenValidationException("Token contains insufficient data", HttpStatus.UNAUTHORIZED);
     }
 
     private void clearRefreshToken(TokenRequestDto tokenRequest, ParsedTokenDto parsedTokenDto) {
         log.info("Auth user with id: [{}] is not found", parsedTokenDto.getUserId());
+        recordRevocation(parsedTokenDto, "The subject user is not found or deactivated");
         clearRefreshTokenIfStored(tokenRequest, parsedTokenDto);
     }
 
+    /**
+     * Recorded at once: the rejection that follows may roll the deletion of the token back.
+     */
+    private void recordRevocation(ParsedTokenDto parsedTokenDto, String reason) {
+        if (isRefreshToken(parsedTokenDto)) {
+            auditTrail.record(AuditEventType.TOKEN_REVOKED, parsedTokenDto.getUserId(), null, reason);
+        }
+    }
+
     private boolean tokenClaimsIsNotConsistent(AuthUser user, ParsedTokenDto parsedTokenDto) {
         return user.getRole() != parsedTokenDto.getRole()
-                || !user.getEmail().equalsIgnoreCase(parsedTokenDto.getEmail());
+                || !parsedTokenDto.matchesEmail(user.getEmail());
     }
 
     private void clearRefreshTokenIfStored(TokenRequestDto tokenRequest, ParsedTokenDto parsedTokenDto) {
         log.info("Token is a refresh token: {}", isRefreshToken(parsedTokenDto));
-        if (isRefreshToken(parsedTokenDto)) {
+        if (isStatelessRefreshToken(parsedTokenDto)) {
+            tokenService.revokeFamily(parsedTokenDto);
+        } else if (isRefreshToken(parsedTokenDto)) {
             log.info("Checking if refresh token stored in db");
             refreshTokenCleanupService.clearTokenIfStored(convertTokenToHex(tokenRequest));
             log.info("Refresh token was deleted successfully");
         }
     }
 
+    private <T> T observeStage(String stage, Supplier<T> action) {
+        return Observation.createNotStarted(STAGE_OBSERVATION, observationRegistry)
+                          .contextualName(stage)
+                          .lowCardinalityKeyValue(STAGE_KEY, stage)
+                          .observe(action);
+    }
+
+    private void observeStage(String stage, Runnable action) {
+        observeStage(stage, () -> {
+            action.run();
+            return null;
+        });
+    }
+
     private String convertTokenToHex(TokenRequestDto tokenRequest) {
         return TokenHasher.hashSha256(tokenRequest.token());
     }
@@ -169,6 +306,10 @@ public class AuthFacadeImpl implements AuthFacade {
         return parsedTokenDto.getTokenType() == TokenType.REFRESH;
     }
 
+    private boolean isStatelessRefreshToken(ParsedTokenDto parsedTokenDto) {
+        return parsedTokenDto.getFamilyId() != null;
+    }
+
     private boolean isNotRefreshToken(ParsedTokenDto parsedTokenDto) {
         return parsedTokenDto.getTokenType() != TokenType.REFRESH;
     }
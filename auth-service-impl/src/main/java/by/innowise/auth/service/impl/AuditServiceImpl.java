@@ -0,0 +1,35 @@
+package by.innowise.auth.service.impl;
+
+import by.innowise.auth.audit.AuditEventType;
+import by.innowise.auth.audit.AuditProperties;
+import by.innowise.auth.dto.event.AuditEventDto;
+import by.innowise.auth.repository.AuditEventRepository;
+import by.innowise.auth.service.AuditService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditServiceImpl implements AuditService {
+
+    private static final long DEFAULT_RANGE_DAYS = 1;
+
+    private final AuditEventRepository auditEventRepository;
+    private final AuditProperties properties;
+
+    @Override
+    public List<AuditEventDto> find(AuditEventType type, Long userId, LocalDateTime from, LocalDateTime to,
+                                    int limit) {
+        LocalDateTime until = to == null ? LocalDateTime.now(ZoneOffset.UTC) : to;
+        LocalDateTime since = from == null ? until.minusDays(DEFAULT_RANGE_DAYS) : from;
+        int cappedLimit = Math.clamp(limit, 1, properties.getMaxQueryLimit());
+        log.info("Retrieving audit events of type: {}, user: {} from: {} to: {}", type, userId, since, until);
+        return auditEventRepository.find(type, userId, since, until, cappedLimit);
+    }
+}
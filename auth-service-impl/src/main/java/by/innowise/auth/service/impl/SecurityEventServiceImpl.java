@@ -0,0 +1,103 @@
+package by.innowise.auth.service.impl;
+
+import by.innowise.auth.dto.event.RevokedTokenDto;
+import by.innowise.auth.dto.event.SecurityEventDto;
+import by.innowise.auth.mapper.SecurityEventMapper;
+import by.innowise.auth.repository.SecurityEventRepository;
+import by.innowise.auth.repository.entity.AuthUser;
+import by.innowise.auth.repository.entity.RefreshToken;
+import by.innowise.auth.repository.entity.SecurityEvent;
+import by.innowise.auth.repository.entity.SecurityEventType;
+import by.innowise.auth.service.SecurityEventService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SecurityEventServiceImpl implements SecurityEventService {
+
+    private static final long RELAY_LOCK_KEY = 0x5EC0_E7E1L;
+
+    private final SecurityEventRepository securityEventRepository;
+    private final SecurityEventMapper mapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void record(SecurityEventType type, AuthUser user) {
+        save(SecurityEvent.builder()
+                          .eventType(type)
+                          .userId(user.getId())
+                          .userVersion(user.getVersion())
+                          .role(user.getRole()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void record(SecurityEventType type, Long userId) {
+        save(SecurityEvent.builder()
+                          .eventType(type)
+                          .userId(userId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void recordRevoked(RefreshToken token) {
+        save(SecurityEvent.builder()
+                          .eventType(SecurityEventType.REFRESH_TOKEN_REVOKED)
+                          .userId(token.getAuthUser().getId())
+                          .tokenHash(token.getTokenHash())
+                          .tokenExpiresAt(token.getExpiresAt()));
+    }
+
+    @Transactional
+    @Override
+    public int relayPending(int batchSize) {
+        if (!securityEventRepository.tryAdvisoryXactLock(RELAY_LOCK_KEY)) {
+            log.debug("Security events are relayed by another instance");
+            return 0;
+        }
+        return securityEventRepository.assignRelaySeq(batchSize);
+    }
+
+    @Transactional
+    @Override
+    public int purgeRelayedBefore(LocalDateTime threshold) {
+        return securityEventRepository.deleteRelayedBefore(threshold);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<SecurityEventDto> getRelayedAfter(long seq, int limit) {
+        return mapper.toDto(securityEventRepository.findByRelaySeqGreaterThanOrderByRelaySeq(seq, Limit.of(limit)));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long getLastRelayedSeq() {
+        Long max = securityEventRepository.findMaxRelaySeq();
+        return max == null ? 0 : max;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<RevokedTokenDto> getRevokedTokensAfter(long seq, int limit) {
+        return mapper.toRevokedTokenDto(securityEventRepository.findByEventTypeAndRelaySeqGreaterThanOrderByRelaySeq(
+                SecurityEventType.REFRESH_TOKEN_REVOKED, seq, Limit.of(limit)));
+    }
+
+    private void save(SecurityEvent.SecurityEventBuilder builder) {
+        SecurityEvent event = builder.createdAt(LocalDateTime.now(ZoneOffset.UTC))
+                                     .build();
+        log.info("Recording security event: {} for user: {}", event.getEventType(), event.getUserId());
+        securityEventRepository.save(event);
+    }
+}
@@ -1,27 +1,26 @@
 package by.innowise.auth.service.impl;
 
+import by.innowise.auth.config.datasource.ReadYourWritesGuard;
 import by.innowise.auth.dto.token.TokenRequestDto;
 import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.denylist.RefreshTokenDenylist;
+import by.innowise.auth.denylist.RefreshTokenFamilyDenylist;
 import by.innowise.auth.exception.TokenValidationException;
-import by.innowise.auth.mapper.RefreshTokenMapper;
-import by.innowise.auth.repository.TokenRepository;
+import by.innowise.auth.invalidation.Invalidation;
+import by.innowise.auth.invalidation.InvalidationPublisher;
+import by.innowise.auth.refreshtoken.RefreshTokenStore;
 import by.innowise.auth.repository.entity.AuthUser;
 import by.innowise.auth.repository.entity.RefreshToken;
 import by.innowise.auth.service.RefreshTokenCleanupService;
+import by.innowise.auth.service.SecurityEventService;
 import by.innowise.auth.service.TokenService;
-import by.innowise.auth.service.dto.ClaimsDto;
 import by.innowise.auth.service.dto.ParsedTokenDto;
 import by.innowise.auth.service.dto.RefreshTokenCreateDto;
+import by.innowise.auth.service.dto.TokenSubject;
 import by.innowise.auth.service.dto.TokenType;
-import by.innowise.auth.util.DateTimeUtil;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
 import by.innowise.auth.util.TokenHasher;
-import by.innowise.internship.security.config.JwtSecurityProperties;
-import by.innowise.internship.security.dto.Role;
-import by.innowise.internship.security.util.JwtConstants;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.JwtParser;
-import io.jsonwebtoken.Jwts;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -29,62 +28,73 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.SecretKey;
-import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
+@Observed(name = "auth.token-service")
 @RequiredArgsConstructor
 @Slf4j
 public class TokenServiceImpl implements TokenService, RefreshTokenCleanupService {
 
-    private static final String SECURITY_ROLE_PREFIX = "ROLE_";
-    private final JwtParser jwtParser;
-    private final JwtSecurityProperties jwtSecurityProperties;
-    private final SecretKey secretKey;
-    private final RefreshTokenMapper mapper;
-    private final TokenRepository tokenRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenStore refreshTokenStore;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final SecurityEventService securityEventService;
+    private final RefreshTokenDenylist refreshTokenDenylist;
+    private final InvalidationPublisher invalidationPublisher;
+    private final Optional<RefreshTokenFamilyDenylist> refreshTokenFamilyDenylist;
 
     @Transactional
     @Override
     public TokenResponseDto generate(AuthUser user) {
+        return generate(user, refreshTokenStore::save);
+    }
+
+    @Transactional
+    @Override
+    public TokenResponseDto generateForExistingUser(AuthUser user) {
+        return generate(user, refreshTokenStore::saveForExistingUser);
+    }
+
+    private TokenResponseDto generate(AuthUser user, Consumer<RefreshTokenCreateDto> persister) {
+        if (refreshTokenFamilyDenylist.isPresent()) {
+            return generateStateless(user, UUID.randomUUID(), 0);
+        }
         log.info("Generating access and refresh tokens");
         LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
         String accessToken = generateToken(user, now, TokenType.ACCESS);
         String refreshToken = generateToken(user, now, TokenType.REFRESH);
         log.debug("Access: {} and refresh: {} tokens were generated", accessToken, refreshToken);
-        RefreshToken toSave = mapper.toEntity(
-                getRefreshTokenCreateDto(user,
-                                         TokenHasher.hashSha256(refreshToken),
-                                         getExpirationDateByTokenType(now, TokenType.REFRESH))
-        );
-        log.info("Saving refresh token to db: {}", toSave);
-        tokenRepository.saveAndFlush(toSave);
+        persister.accept(getRefreshTokenCreateDto(user,
+                                                  TokenHasher.hashSha256(refreshToken),
+                                                  jwtTokenProvider.getExpirationDate(now, TokenType.REFRESH)));
+        readYourWritesGuard.recordWrite(user.getId());
         return new TokenResponseDto(accessToken, refreshToken);
     }
 
+    private TokenResponseDto generateStateless(AuthUser user, UUID familyId, long rotation) {
+        log.info("Generating access and stateless refresh tokens of family: {}", familyId);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        return new TokenResponseDto(generateToken(user, now, TokenType.ACCESS),
+                                    jwtTokenProvider.generateEncrypted(toSubject(user), now, familyId, rotation));
+    }
+
     @Override
     public void validate(TokenRequestDto token) {
-        try {
-            jwtParser.parseSignedClaims(token.token());
-        } catch (JwtException | IllegalArgumentException e) {
-            throw new TokenValidationException("The provided token is invalid or expired", HttpStatus.UNAUTHORIZED, e);
-        }
+        jwtTokenProvider.validate(token.token());
     }
 
     @Override
     public ParsedTokenDto getParsedTokenClaims(TokenRequestDto tokenRequest) {
-        log.info("Get token payload");
-        Claims claims = jwtParser.parseSignedClaims(tokenRequest.token())
-                                 .getPayload();
-        log.info("Parsing token claims");
-        return generateParsedTokenDtoFromClaims(claims);
+        log.info("Get token payload and parse token claims");
+        if (refreshTokenFamilyDenylist.isPresent() && JwtTokenProvider.isEncrypted(tokenRequest.token())) {
+            return jwtTokenProvider.parseEncrypted(tokenRequest.token());
+        }
+        return jwtTokenProvider.parse(tokenRequest.token());
     }
 
     @Transactional(readOnly = true)
@@ -96,7 +106,7 @@ public class TokenServiceImpl implements TokenService, RefreshTokenCleanupServic
     @Override
     public void delete(RefreshToken token) {
         log.info("Requested to delete a token: {}", token.getId());
-        tokenRepository.delete(token);
+        revoke(token);
     }
 
     @Override
@@ -109,12 +119,37 @@ public class TokenServiceImpl implements TokenService, RefreshTokenCleanupServic
     public void deleteForUser(Long userId) {
         log.info("Removing refresh token for user: {}", userId);
         getTokenByUserId(userId).ifPresentOrElse(token -> {
-                                                     tokenRepository.delete(token);
+                                                     revoke(token);
                                                      log.info("Refresh token for user: {} pre-deleted", userId);
                                                  },
                                                  () -> log.info("Not found refresh tokens for user: {}", userId));
     }
 
+    @Override
+    public TokenResponseDto rotate(AuthUser user, ParsedTokenDto refreshToken) {
+        getRefreshTokenFamilyDenylist().rotate(refreshToken.getFamilyId(), refreshToken.getRotation(),
+                                               getRefreshExpirationEpochSecond());
+        return generateStateless(user, refreshToken.getFamilyId(), refreshToken.getRotation() + 1);
+    }
+
+    @Override
+    public void revokeFamily(ParsedTokenDto refreshToken) {
+        getRefreshTokenFamilyDenylist().revoke(refreshToken.getFamilyId(), getRefreshExpirationEpochSecond());
+    }
+
+    /**
+     * Expiration of a refresh token issued now, which outlives every token of a family issued before.
+     */
+    private long getRefreshExpirationEpochSecond() {
+        return jwtTokenProvider.getExpirationDate(LocalDateTime.now(ZoneOffset.UTC), TokenType.REFRESH)
+                               .toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private RefreshTokenFamilyDenylist getRefreshTokenFamilyDenylist() {
+        return refreshTokenFamilyDenylist.orElseThrow(
+                () -> new TokenValidationException("Stateless refresh tokens are disabled", HttpStatus.UNAUTHORIZED));
+    }
+
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
     public void clearTokenIfStored(String hashedToken) {
@@ -122,55 +157,39 @@ public class TokenServiceImpl implements TokenService, RefreshTokenCleanupServic
         findRefreshTokenByTokenHash(hashedToken)
                 .ifPresentOrElse(t -> {
                                      log.info("Refresh token found: {}", t);
-                                     tokenRepository.delete(t);
+                                     revoke(t);
                                      log.info("Refresh token was deleted successfully: {}", t.getId());
                                  },
                                  () -> log.info("No refresh token found for hash: {}", hashedToken));
     }
 
+    private void revoke(RefreshToken token) {
+        refreshTokenStore.delete(token);
+        readYourWritesGuard.recordWrite(token.getAuthUser().getId());
+        if (refreshTokenStore.isShared()) {
+            securityEventService.recordRevoked(token);
+            invalidationPublisher.publish(Invalidation.refreshTokenRevoked(token.getTokenHash(),
+                                                                           token.getExpiresAt()));
+        }
+        refreshTokenDenylist.addAfterCommit(token.getTokenHash(), token.getExpiresAt());
+    }
+
     private Optional<RefreshToken> getTokenByUserId(Long userId) {
         log.info("Retrieving refresh token userId: {}", userId);
-        return tokenRepository.findTokenByAuthUserId(userId);
+        return refreshTokenStore.findByUserId(userId);
     }
 
     private Optional<RefreshToken> findRefreshTokenByTokenHash(String hashedToken) {
         log.info("Retrieving refresh token by token hash in HEX: {}", hashedToken);
-        return tokenRepository.findTokenByTokenHash(hashedToken);
+        return refreshTokenStore.findByTokenHash(hashedToken);
     }
 
     private String generateToken(AuthUser user, LocalDateTime now, TokenType type) {
-        ClaimsDto claimsDto = prepareAndGetClaimsForToken(user, now, type);
-        return generateAndSign(claimsDto);
-    }
-
-    private ClaimsDto prepareAndGetClaimsForToken(AuthUser user, LocalDateTime now, TokenType type) {
-        Map<String, Object> customClaims =
-                Map.of(JwtConstants.JWT_EMAIL_CLAIM_NAME, user.getEmail(),
-                       JwtConstants.JWT_ROLE_CLAIM_NAME, List.of(SECURITY_ROLE_PREFIX + user.getRole()),
-                       JwtConstants.JWT_TOKEN_TYPE_CLAIM_NAME, type.getType());
-        Instant expiresAt = getExpirationDateByTokenType(now, type).toInstant(ZoneOffset.UTC);
-        return ClaimsDto.builder()
-                        .subject(user.getId().toString())
-                        .issuedAt(Date.from(now.toInstant(ZoneOffset.UTC)))
-                        .expiresAt(Date.from(expiresAt))
-                        .customClaims(customClaims)
-                        .build();
-    }
-
-    private LocalDateTime getExpirationDateByTokenType(LocalDateTime now, TokenType type) {
-        return now.plus(jwtSecurityProperties.getTtlForType(type.getType()));
-
+        return jwtTokenProvider.generate(toSubject(user), now, type);
     }
 
-    private String generateAndSign(ClaimsDto claimsDto) {
-        return Jwts.builder()
-                   .issuer(jwtSecurityProperties.getIssuer())
-                   .subject(claimsDto.getSubject())
-                   .issuedAt(claimsDto.getIssuedAt())
-                   .expiration(claimsDto.getExpiresAt())
-                   .claims(claimsDto.getCustomClaims())
-                   .signWith(secretKey, Jwts.SIG.HS256)
-                   .compact();
+    private TokenSubject toSubject(AuthUser user) {
+        return new TokenSubject(user.getId(), user.getEmail(), user.getRole(), user.getVersion());
     }
 
     private RefreshTokenCreateDto getRefreshTokenCreateDto(AuthUser user, String hashedRefreshToken,
@@ -181,36 +200,4 @@ public class TokenServiceImpl implements TokenService, RefreshTokenCleanupServic
                                          user);
     }
 
-    private ParsedTokenDto generateParsedTokenDtoFromClaims(Claims claims) {
-        return ParsedTokenDto.builder()
-                             .userId(Long.parseLong(claims.getSubject()))
-                             .issuedAt(DateTimeUtil.convertDateToLocalDateTime(claims.getIssuedAt()))
-                             .expiresAt(DateTimeUtil.convertDateToLocalDateTime(claims.getExpiration()))
-                             .tokenType(TokenType.fromType(
-                                     claims.get(JwtConstants.JWT_TOKEN_TYPE_CLAIM_NAME, String.class)))
-                             .email(claims.get(JwtConstants.JWT_EMAIL_CLAIM_NAME, String.class))
-                             .role(getRoleFromClaims(claims))
-                             .build();
-    }
-
-    private Role getRoleFromClaims(Claims claims) {
-        List<?> rawRoles = claims.get(JwtConstants.JWT_ROLE_CLAIM_NAME, List.class);
-        List<Role> roles = rawRoles.stream()
-                                   .filter(String.class::isInstance)
-                                   .map(String.class::cast)
-                                   .map(this::getRoleFromString)
-                                   .toList();
-        if (roles.size() != 1) {
-            throw new UnsupportedOperationException(
-                    "%s claims cannot be empty or more than 2".formatted(JwtConstants.JWT_ROLE_CLAIM_NAME));
-        }
-        return roles.getFirst();
-
-    }
-
-    private Role getRoleFromString(String roleWithPrefix) {
-        return Role.valueOf(roleWithPrefix.substring(SECURITY_ROLE_PREFIX.length()));
-    }
-
-
 }
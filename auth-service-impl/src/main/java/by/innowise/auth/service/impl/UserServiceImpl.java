@@ -1,14 +1,21 @@
 package by.innowise.auth.service.impl;
 
+import by.innowise.auth.audit.AuditEventType;
+import by.innowise.auth.audit.AuditTrail;
+import by.innowise.auth.config.datasource.ReadYourWritesGuard;
+import by.innowise.auth.config.sharding.ShardRouter;
 import by.innowise.auth.dto.AuthDetails;
 import by.innowise.auth.dto.UserCreateDto;
 import by.innowise.auth.exception.AuthenticationFailedException;
 import by.innowise.auth.mapper.UserMapper;
 import by.innowise.auth.repository.UserRepository;
 import by.innowise.auth.repository.entity.AuthUser;
+import by.innowise.auth.repository.entity.SecurityEventType;
 import by.innowise.auth.repository.entity.UserStatus;
+import by.innowise.auth.service.SecurityEventService;
 import by.innowise.auth.service.UserService;
 import by.innowise.common.library.exception.UserNotFoundException;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -20,31 +27,44 @@ import java.util.Optional;
 
 @Slf4j
 @Service
+@Observed(name = "auth.user-service")
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper mapper;
     private final PasswordEncoder passwordEncoder;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final SecurityEventService securityEventService;
+    private final ShardRouter shardRouter;
+    private final AuditTrail auditTrail;
 
     @Override
     public boolean isEmailFree(String email) {
         log.info("Checking whether the email [{}] is free", email);
-        return userRepository.findByEmailAndStatus(email, UserStatus.ACTIVATED)
-                             .isEmpty();
+        return shardRouter.callOnShardOfEmail(
+                email, () -> userRepository.findByEmailAndStatus(email, UserStatus.ACTIVATED).isEmpty());
     }
 
     @Transactional
     @Override
-    public AuthUser create(UserCreateDto userCreateDto) {
+    public AuthUser create(UserCreateDto userCreateDto, Long id) {
         AuthUser toSave = mapper.toEntity(userCreateDto,
                                           UserStatus.ACTIVATED,
                                           passwordEncoder.encode(userCreateDto.password())
         );
+        toSave.setId(id);
         log.info("Invoking user repository to save a user: {}", toSave);
-        return userRepository.saveAndFlush(toSave);
+        AuthUser saved = userRepository.saveAndFlush(toSave);
+        readYourWritesGuard.recordWrite(saved.getId());
+        securityEventService.record(SecurityEventType.USER_CREATED, saved);
+        return saved;
     }
 
+    /**
+     * Read-only, so a lookup outside a caller's transaction may be served by a replica.
+     */
+    @Transactional(readOnly = true)
     @Override
     public Optional<AuthUser> getActiveById(Long userId) {
         return getOptionalActiveUserById(userId);
@@ -63,8 +83,11 @@ public class UserServiceImpl implements UserService {
                                  log.info("Checking if the provided password matches");
                                  return passwordEncoder.matches(authDetails.password(), u.getPassword());
                              })
-                             .orElseThrow(() -> new AuthenticationFailedException("Login or password is incorrect!",
-                                                                                  HttpStatus.UNAUTHORIZED));
+                             .orElseThrow(() -> {
+                                 auditTrail.record(AuditEventType.LOGIN_FAILED, null, authDetails.email(), null);
+                                 return new AuthenticationFailedException("Login or password is incorrect!",
+                                                                          HttpStatus.UNAUTHORIZED);
+                             });
     }
 
     @Transactional
@@ -75,6 +98,10 @@ public class UserServiceImpl implements UserService {
                         user -> {
                             log.info("Deleting the user: {}", userId);
                             userRepository.delete(user);
+                            readYourWritesGuard.recordWrite(userId);
+                            securityEventService.record(SecurityEventType.USER_DELETED, user);
+                            shardRouter.releaseEmailAfterCommit(user.getEmail(), userId);
+                            auditTrail.recordOnCommit(AuditEventType.USER_DELETED, userId, user.getEmail(), null);
                             log.info("User: {} pre-deleted", userId);
                         }
                         , () -> {
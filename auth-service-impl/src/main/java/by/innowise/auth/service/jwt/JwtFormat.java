@@ -0,0 +1,17 @@
+package by.innowise.auth.service.jwt;
+
+/**
+ * Claim profile of issued tokens. Tokens of every format are accepted regardless of the issued one.
+ */
+public enum JwtFormat {
+
+    /**
+     * Named claims of the shared security library: {@code email}, {@code roles} and {@code type}.
+     */
+    LEGACY,
+
+    /**
+     * Format version header, short claim names, coded role and type and no email in access tokens.
+     */
+    COMPACT
+}
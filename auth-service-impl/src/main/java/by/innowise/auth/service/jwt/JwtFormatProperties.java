@@ -0,0 +1,19 @@
+package by.innowise.auth.service.jwt;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.jwt")
+public class JwtFormatProperties {
+
+    /**
+     * Format of issued tokens. Compact access tokens drop the legacy {@code email}, {@code roles} and
+     * {@code type} claims the security starter's {@code JwtFilter} reads, so they would fail authentication
+     * and the admin role checks wherever that filter runs, including this service's own servlet variant,
+     * which therefore refuses to start with it. Switch to compact only once every consumer reads it.
+     */
+    private JwtFormat format = JwtFormat.LEGACY;
+}
@@ -0,0 +1,396 @@
+package by.innowise.auth.service.jwt;
+
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.dto.TokenSubject;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.internship.security.config.JwtSecurityProperties;
+import by.innowise.internship.security.dto.Role;
+import by.innowise.internship.security.util.JwtConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jwe;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signs and parses access/refresh JWTs. Has no persistence or web dependencies, so it is shared
+ * by the servlet and the reactive variants of the service.
+ * <p>
+ * Parsing sits on the validate path, so it avoids per-call allocations beyond what jjwt itself needs:
+ * role authorities are cached per role and timestamps are kept as epoch seconds.
+ * <p>
+ * Stateless refresh tokens are encrypted (JWE, direct AES-256-GCM) with a key derived from the signing
+ * key, so their family id and rotation counter can't be read or forged by the client.
+ * <p>
+ * Tokens are issued in the configured {@link JwtFormat} and parsed in either: compact tokens are told
+ * apart by their format version header. Role and type codes of the compact format are part of issued
+ * tokens, so new codes are only ever appended.
+ */
+@Component
+public class JwtTokenProvider {
+
+    private static final String SECURITY_ROLE_PREFIX = "ROLE_";
+    private static final String USER_VERSION_CLAIM_NAME = "ver";
+    private static final String FAMILY_ID_CLAIM_NAME = "fam";
+    private static final String ROTATION_CLAIM_NAME = "rot";
+    private static final String FORMAT_VERSION_HEADER_NAME = "v";
+    private static final int COMPACT_FORMAT_VERSION = 1;
+    private static final String COMPACT_EMAIL_CLAIM_NAME = "e";
+    private static final String COMPACT_ROLE_CLAIM_NAME = "r";
+    private static final String COMPACT_TYPE_CLAIM_NAME = "t";
+    private static final String COMPACT_USER_VERSION_CLAIM_NAME = "uv";
+    private static final String COMPACT_FAMILY_ID_CLAIM_NAME = "f";
+    private static final String COMPACT_ROTATION_CLAIM_NAME = "n";
+    private static final Role[] ROLES_BY_CODE = {Role.USER, Role.ADMIN};
+    private static final Base64.Encoder FAMILY_ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder FAMILY_ID_DECODER = Base64.getUrlDecoder();
+    private static final int FAMILY_ID_BYTES = 16;
+    private static final byte[] ENCRYPTION_KEY_LABEL = "auth-service refresh token encryption"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int JWE_SEPARATORS = 4;
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final Map<Role, List<String>> ROLE_CLAIMS = new EnumMap<>(Role.class);
+    private static final Map<String, Role> ROLES_BY_AUTHORITY = new HashMap<>();
+    private static final Map<Role, Integer> ROLE_CODES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            String authority = SECURITY_ROLE_PREFIX + role.name();
+            ROLE_CLAIMS.put(role, List.of(authority));
+            ROLES_BY_AUTHORITY.put(authority, role);
+        }
+        for (int code = 0; code < ROLES_BY_CODE.length; code++) {
+            ROLE_CODES.put(ROLES_BY_CODE[code], code);
+        }
+    }
+
+    private final JwtSecurityProperties jwtSecurityProperties;
+    private final JwtFormat format;
+    private final JwtParser jwtParser;
+    private final SecretKey secretKey;
+    private volatile EncryptionKey encryptionKey;
+
+    public JwtTokenProvider(JwtParser jwtParser, JwtSecurityProperties jwtSecurityProperties, SecretKey secretKey,
+                            JwtFormatProperties jwtFormatProperties) {
+        this.jwtParser = jwtParser;
+        this.jwtSecurityProperties = jwtSecurityProperties;
+        this.format = jwtFormatProperties.getFormat();
+        this.secretKey = secretKey;
+        this.encryptionKey = EncryptionKey.derivedFrom(secretKey);
+    }
+
+    /**
+     * @return whether the token is a JWE (five parts) rather than a signed JWT (three parts)
+     */
+    public static boolean isEncrypted(String token) {
+        int separators = 0;
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) == '.') {
+                separators++;
+            }
+        }
+        return separators == JWE_SEPARATORS;
+    }
+
+    public SecretKey getSecretKey() {
+        return secretKey;
+    }
+
+    /**
+     * Replaces the signing key, e.g. when a JVM checkpoint is restored with a different secret. The key
+     * is rotated in place, so the parser shared with the security starter follows with all its settings.
+     * Tokens signed with the previous key are rejected afterwards.
+     *
+     * @throws IllegalStateException if the signing key is not a {@link RotatableSecretKey}
+     */
+    public void replaceSecretKey(SecretKey newSecretKey) {
+        if (!(secretKey instanceof RotatableSecretKey rotatable)) {
+            throw new IllegalStateException("The signing key can't be replaced, it is not rotatable");
+        }
+        rotatable.rotate(newSecretKey);
+        this.encryptionKey = EncryptionKey.derivedFrom(newSecretKey);
+    }
+
+    @Observed(name = "auth.jwt", contextualName = "jwt-generate")
+    public String generate(TokenSubject subject, LocalDateTime now, TokenType type) {
+        return builder(subject, now, type).signWith(secretKey, Jwts.SIG.HS256)
+                                          .compact();
+    }
+
+    /**
+     * Generates a stateless refresh token of the given family and rotation.
+     */
+    @Observed(name = "auth.jwt", contextualName = "jwe-generate")
+    public String generateEncrypted(TokenSubject subject, LocalDateTime now, UUID familyId, long rotation) {
+        JwtBuilder builder = builder(subject, now, TokenType.REFRESH);
+        if (format == JwtFormat.COMPACT) {
+            builder.claim(COMPACT_FAMILY_ID_CLAIM_NAME, encodeFamilyId(familyId))
+                   .claim(COMPACT_ROTATION_CLAIM_NAME, rotation);
+        } else {
+            builder.claim(FAMILY_ID_CLAIM_NAME, familyId.toString())
+                   .claim(ROTATION_CLAIM_NAME, rotation);
+        }
+        return builder.encryptWith(encryptionKey.key(), Jwts.ENC.A256GCM)
+                      .compact();
+    }
+
+    /**
+     * Both formats keep the full issuer: the parser shared with the security starter requires it.
+     */
+    private JwtBuilder builder(TokenSubject subject, LocalDateTime now, TokenType type) {
+        long issuedAtMillis = now.toEpochSecond(ZoneOffset.UTC) * MILLIS_PER_SECOND;
+        long ttlMillis = jwtSecurityProperties.getTtlForType(type.getType()).toMillis();
+        JwtBuilder builder = Jwts.builder()
+                                 .issuer(jwtSecurityProperties.getIssuer())
+                                 .subject(subject.userId().toString())
+                                 .issuedAt(new Date(issuedAtMillis))
+                                 .expiration(new Date(issuedAtMillis + ttlMillis));
+        return format == JwtFormat.COMPACT
+                ? withCompactClaims(builder, subject, type)
+                : withLegacyClaims(builder, subject, type);
+    }
+
+    private JwtBuilder withLegacyClaims(JwtBuilder builder, TokenSubject subject, TokenType type) {
+        builder.claim(JwtConstants.JWT_EMAIL_CLAIM_NAME, subject.email())
+               .claim(JwtConstants.JWT_ROLE_CLAIM_NAME, ROLE_CLAIMS.get(subject.role()))
+               .claim(JwtConstants.JWT_TOKEN_TYPE_CLAIM_NAME, type.getType());
+        if (subject.version() != null) {
+            builder.claim(USER_VERSION_CLAIM_NAME, subject.version());
+        }
+        return builder;
+    }
+
+    /**
+     * Access tokens are read on every request, so they leave the email out: it is checked against the
+     * user on refresh, which still carries it.
+     */
+    private JwtBuilder withCompactClaims(JwtBuilder builder, TokenSubject subject, TokenType type) {
+        builder.header()
+               .add(FORMAT_VERSION_HEADER_NAME, COMPACT_FORMAT_VERSION)
+               .and()
+               .claim(COMPACT_ROLE_CLAIM_NAME, getRoleCode(subject.role()))
+               .claim(COMPACT_TYPE_CLAIM_NAME, type.getCode());
+        if (type == TokenType.REFRESH) {
+            builder.claim(COMPACT_EMAIL_CLAIM_NAME, subject.email());
+        }
+        if (subject.version() != null) {
+            builder.claim(COMPACT_USER_VERSION_CLAIM_NAME, subject.version());
+        }
+        return builder;
+    }
+
+    public LocalDateTime getExpirationDate(LocalDateTime now, TokenType type) {
+        return now.plus(jwtSecurityProperties.getTtlForType(type.getType()));
+    }
+
+    public void validate(String token) {
+        parseSignedClaims(token);
+    }
+
+    /**
+     * Verifies the signature and expiration and maps the claims in a single pass over the token.
+     * Claims that don't map, e.g. an unknown code, reject the token like a bad signature does.
+     */
+    @Observed(name = "auth.jwt", contextualName = "jwt-parse")
+    public ParsedTokenDto parse(String token) {
+        try {
+            Jws<Claims> jws = jwtParser.parseSignedClaims(token);
+            return generateParsedTokenDto(jws.getHeader(), jws.getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw invalidToken(e);
+        }
+    }
+
+    /**
+     * Decrypts a stateless refresh token, verifies its expiration and maps the claims.
+     */
+    @Observed(name = "auth.jwt", contextualName = "jwe-parse")
+    public ParsedTokenDto parseEncrypted(String token) {
+        try {
+            Jwe<Claims> jwe = encryptionKey.parser()
+                                           .parseEncryptedClaims(token);
+            return generateParsedTokenDto(jwe.getHeader(), jwe.getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw invalidToken(e);
+        }
+    }
+
+    private Jws<Claims> parseSignedClaims(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw invalidToken(e);
+        }
+    }
+
+    private TokenValidationException invalidToken(RuntimeException cause) {
+        return new TokenValidationException("The provided token is invalid or expired", HttpStatus.UNAUTHORIZED, cause);
+    }
+
+    private ParsedTokenDto generateParsedTokenDto(Header header, Claims claims) {
+        Object version = header.get(FORMAT_VERSION_HEADER_NAME);
+        if (version == null) {
+            return generateParsedTokenDtoFromClaims(claims);
+        }
+        if (version instanceof Number number && number.intValue() == COMPACT_FORMAT_VERSION) {
+            return generateParsedTokenDtoFromCompactClaims(claims);
+        }
+        throw new TokenValidationException("Unsupported token format version: " + version, HttpStatus.UNAUTHORIZED);
+    }
+
+    private ParsedTokenDto generateParsedTokenDtoFromCompactClaims(Claims claims) {
+        return ParsedTokenDto.builder()
+                             .userId(Long.parseLong(requireClaim(claims.getSubject(), Claims.SUBJECT)))
+                             .issuedAtEpochSecond(getEpochSecond(claims.getIssuedAt(), Claims.ISSUED_AT))
+                             .expiresAtEpochSecond(getEpochSecond(claims.getExpiration(), Claims.EXPIRATION))
+                             .tokenType(TokenType.fromCode(getCode(claims, COMPACT_TYPE_CLAIM_NAME)))
+                             .email(claims.get(COMPACT_EMAIL_CLAIM_NAME, String.class))
+                             .role(getRoleFromCode(getCode(claims, COMPACT_ROLE_CLAIM_NAME)))
+                             .userVersion(claims.get(COMPACT_USER_VERSION_CLAIM_NAME, Long.class))
+                             .familyId(decodeFamilyId(claims.get(COMPACT_FAMILY_ID_CLAIM_NAME, String.class)))
+                             .rotation(getRotation(claims.get(COMPACT_ROTATION_CLAIM_NAME, Long.class)))
+                             .build();
+    }
+
+    private ParsedTokenDto generateParsedTokenDtoFromClaims(Claims claims) {
+        return ParsedTokenDto.builder()
+                             .userId(Long.parseLong(requireClaim(claims.getSubject(), Claims.SUBJECT)))
+                             .issuedAtEpochSecond(getEpochSecond(claims.getIssuedAt(), Claims.ISSUED_AT))
+                             .expiresAtEpochSecond(getEpochSecond(claims.getExpiration(), Claims.EXPIRATION))
+                             .tokenType(TokenType.fromType(
+                                     claims.get(JwtConstants.JWT_TOKEN_TYPE_CLAIM_NAME, String.class)))
+                             .email(claims.get(JwtConstants.JWT_EMAIL_CLAIM_NAME, String.class))
+                             .role(getRoleFromClaims(claims))
+                             .userVersion(claims.get(USER_VERSION_CLAIM_NAME, Long.class))
+                             .familyId(getFamilyIdFromClaims(claims))
+                             .rotation(getRotation(claims.get(ROTATION_CLAIM_NAME, Long.class)))
+                             .build();
+    }
+
+    private static <T> T requireClaim(T value, String claimName) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing %s claim".formatted(claimName));
+        }
+        return value;
+    }
+
+    private static long getEpochSecond(Date date, String claimName) {
+        return requireClaim(date, claimName).getTime() / MILLIS_PER_SECOND;
+    }
+
+    private UUID getFamilyIdFromClaims(Claims claims) {
+        String familyId = claims.get(FAMILY_ID_CLAIM_NAME, String.class);
+        return familyId == null ? null : UUID.fromString(familyId);
+    }
+
+    private long getRotation(Long rotation) {
+        return rotation == null ? 0 : rotation;
+    }
+
+    private int getCode(Claims claims, String claimName) {
+        return requireClaim(claims.get(claimName, Integer.class), claimName);
+    }
+
+    private int getRoleCode(Role role) {
+        Integer code = ROLE_CODES.get(role);
+        if (code == null) {
+            throw new IllegalArgumentException("No compact code for role: " + role);
+        }
+        return code;
+    }
+
+    private Role getRoleFromCode(int code) {
+        if (code < 0 || code >= ROLES_BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown role code: " + code);
+        }
+        return ROLES_BY_CODE[code];
+    }
+
+    /**
+     * Family id as base64url of its 16 bytes, 22 characters instead of 36.
+     */
+    private static String encodeFamilyId(UUID familyId) {
+        return FAMILY_ID_ENCODER.encodeToString(ByteBuffer.allocate(FAMILY_ID_BYTES)
+                                                          .putLong(familyId.getMostSignificantBits())
+                                                          .putLong(familyId.getLeastSignificantBits())
+                                                          .array());
+    }
+
+    private static UUID decodeFamilyId(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        byte[] bytes = FAMILY_ID_DECODER.decode(encoded);
+        if (bytes.length != FAMILY_ID_BYTES) {
+            throw new IllegalArgumentException("Invalid family id: " + encoded);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private Role getRoleFromClaims(Claims claims) {
+        List<?> rawRoles = requireClaim(claims.get(JwtConstants.JWT_ROLE_CLAIM_NAME, List.class),
+                                        JwtConstants.JWT_ROLE_CLAIM_NAME);
+        Role found = null;
+        int count = 0;
+        for (int i = 0; i < rawRoles.size(); i++) {
+            if (rawRoles.get(i) instanceof String authority) {
+                found = getRoleFromAuthority(authority);
+                count++;
+            }
+        }
+        if (count != 1) {
+            throw new IllegalArgumentException(
+                    "%s claims cannot be empty or more than 1".formatted(JwtConstants.JWT_ROLE_CLAIM_NAME));
+        }
+        return found;
+    }
+
+    private Role getRoleFromAuthority(String authority) {
+        Role role = ROLES_BY_AUTHORITY.get(authority);
+        if (role == null) {
+            throw new IllegalArgumentException("Unknown role authority: " + authority);
+        }
+        return role;
+    }
+
+    private record EncryptionKey(SecretKey key, JwtParser parser) {
+
+        static EncryptionKey derivedFrom(SecretKey signingKey) {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(new SecretKeySpec(signingKey.getEncoded(), HMAC_ALGORITHM));
+                SecretKey key = new SecretKeySpec(mac.doFinal(ENCRYPTION_KEY_LABEL), "AES");
+                return new EncryptionKey(key, Jwts.parser()
+                                                  .decryptWith(key)
+                                                  .build());
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to derive the refresh token encryption key", e);
+            }
+        }
+    }
+}
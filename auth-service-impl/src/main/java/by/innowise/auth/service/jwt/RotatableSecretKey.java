@@ -0,0 +1,40 @@
+package by.innowise.auth.service.jwt;
+
+import javax.crypto.SecretKey;
+import java.io.Serial;
+
+/**
+ * Signing key that can be swapped in place. Parsers and filters keep verifying with the same key object,
+ * built once with all their settings, and follow a rotation without being rebuilt: the key bytes are read
+ * on every signature check.
+ */
+public final class RotatableSecretKey implements SecretKey {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private transient volatile SecretKey current;
+
+    public RotatableSecretKey(SecretKey initial) {
+        this.current = initial;
+    }
+
+    public void rotate(SecretKey next) {
+        this.current = next;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return current.getAlgorithm();
+    }
+
+    @Override
+    public String getFormat() {
+        return current.getFormat();
+    }
+
+    @Override
+    public byte[] getEncoded() {
+        return current.getEncoded();
+    }
+}
@@ -0,0 +1,17 @@
+package by.innowise.auth.service.jwt;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.token-validation.stateless")
+public class StatelessValidationProperties {
+
+    /**
+     * Validates access tokens by signature and user version only, without reading the user.
+     * Revocations are kept per instance, so it is only safe when every instance sees every user change.
+     */
+    private boolean enabled;
+}
@@ -0,0 +1,92 @@
+package by.innowise.auth.service.jwt;
+
+import by.innowise.auth.invalidation.Invalidation;
+import by.innowise.auth.invalidation.InvalidationSubscriber;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.internship.security.config.JwtSecurityProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Minimum user version an access token must carry to be valid. A user's entry is raised whenever
+ * their role, email or status changes or they are removed, and is dropped once every token issued
+ * before that change has expired.
+ * <p>
+ * Changes made before this instance started are unknown to it, so only tokens issued after the
+ * start can skip the database. Older ones are checked against the user as before. Changes made by
+ * other replicas arrive as invalidations, and the same holds from the moment they can't be trusted to.
+ */
+@Slf4j
+@Component
+public class UserVersionRegistry implements InvalidationSubscriber {
+
+    private final Map<Long, Revocation> revocations = new ConcurrentHashMap<>();
+    private final StatelessValidationProperties properties;
+    private final Duration accessTokenTtl;
+    private volatile long trustedSinceEpochSecond = Instant.now().getEpochSecond();
+
+    public UserVersionRegistry(StatelessValidationProperties properties, JwtSecurityProperties jwtSecurityProperties) {
+        this.properties = properties;
+        this.accessTokenTtl = jwtSecurityProperties.getTtlForType(TokenType.ACCESS.getType());
+    }
+
+    public boolean canValidateWithoutDatabase(ParsedTokenDto token) {
+        return properties.isEnabled()
+                && token.getTokenType() == TokenType.ACCESS
+                && token.getUserVersion() != null
+                && token.getIssuedAtEpochSecond() > trustedSinceEpochSecond;
+    }
+
+    public boolean isRevoked(ParsedTokenDto token) {
+        Revocation revocation = revocations.get(token.getUserId());
+        return revocation != null && token.getUserVersion() < revocation.minVersion();
+    }
+
+    /**
+     * Invalidates access tokens of the user issued with a version lower than the given one.
+     */
+    public void revokeBelow(Long userId, Long version) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        revocations.values().removeIf(r -> r.expiresAt().isBefore(now));
+        revocations.merge(userId, new Revocation(version, now.plus(accessTokenTtl)),
+                          (current, added) -> new Revocation(Math.max(current.minVersion(), added.minVersion()),
+                                                             added.expiresAt()));
+        log.info("Access tokens of user: {} below version: {} are revoked", userId, version);
+    }
+
+    public void revokeAll(Long userId) {
+        revokeBelow(userId, Long.MAX_VALUE);
+    }
+
+    @Override
+    public void invalidate(Invalidation invalidation) {
+        switch (invalidation.type()) {
+            case USER_CHANGED -> revokeBelow(invalidation.userId(), invalidation.version());
+            case USER_REMOVED -> revokeAll(invalidation.userId());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Tokens issued until now are checked against the user again, changes of other replicas may be missed.
+     */
+    @Override
+    public void invalidateAll() {
+        trustedSinceEpochSecond = Instant.now().getEpochSecond();
+    }
+
+    private record Revocation(long minVersion, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,9 @@
+package by.innowise.auth.tablestats;
+
+public record IndexStats(
+        String table,
+        String index,
+        long scans,
+        long sizeBytes
+) {
+}
@@ -0,0 +1,37 @@
+package by.innowise.auth.tablestats;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code DEGRADED} while the last sample of any database exceeds a threshold. The service keeps serving,
+ * so the status is mapped to 200 and isn't part of the readiness group.
+ */
+@Component("tableHealth")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.table-stats", name = "enabled", havingValue = "true")
+public class TableHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Table statistics exceed thresholds");
+
+    private final TableStatsSampler tableStatsSampler;
+
+    @Override
+    public Health health() {
+        Map<String, TableStatsSnapshot> snapshots = tableStatsSampler.getSnapshots();
+        if (snapshots.isEmpty()) {
+            return Health.unknown().withDetail("reason", "Not sampled yet").build();
+        }
+        Health.Builder health = snapshots.values().stream().allMatch(s -> s.problems().isEmpty())
+                ? Health.up()
+                : Health.status(DEGRADED);
+        snapshots.forEach((database, snapshot) -> health.withDetail(database, snapshot.problems()));
+        return health.build();
+    }
+}
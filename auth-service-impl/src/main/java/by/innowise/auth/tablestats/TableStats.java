@@ -0,0 +1,21 @@
+package by.innowise.auth.tablestats;
+
+/**
+ * One row of {@code pg_stat_user_tables}. {@code vacuumAgeSeconds} is {@code -1} for never vacuumed tables.
+ */
+public record TableStats(
+        String table,
+        long liveTuples,
+        long deadTuples,
+        long vacuumAgeSeconds,
+        long autovacuumCount,
+        long seqScans,
+        long indexScans,
+        long totalBytes
+) {
+
+    public double deadTupleRatio() {
+        long total = liveTuples + deadTuples;
+        return total == 0 ? 0 : (double) deadTuples / total;
+    }
+}
@@ -0,0 +1,26 @@
+package by.innowise.auth.tablestats;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/tablestats}: the last sample of every database.
+ */
+@Component
+@Endpoint(id = "tablestats")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.table-stats", name = "enabled", havingValue = "true")
+public class TableStatsEndpoint {
+
+    private final TableStatsSampler tableStatsSampler;
+
+    @ReadOperation
+    public Map<String, TableStatsSnapshot> tableStats() {
+        return tableStatsSampler.getSnapshots();
+    }
+}
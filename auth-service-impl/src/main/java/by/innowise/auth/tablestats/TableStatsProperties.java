@@ -0,0 +1,47 @@
+package by.innowise.auth.tablestats;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.table-stats")
+public class TableStatsProperties {
+
+    private boolean enabled;
+
+    private String schema = "app";
+
+    private Duration sampleInterval = Duration.ofMinutes(1);
+
+    /**
+     * Dead tuple thresholds are ignored for tables with fewer dead tuples, small tables are vacuumed cheaply.
+     */
+    private long minDeadTuples = 1_000;
+
+    private double maxDeadTupleRatio = 0.2;
+
+    /**
+     * Longest tolerated time since the last (auto)vacuum of a table with dead tuples above the minimum.
+     */
+    private Duration maxVacuumAge = Duration.ofHours(1);
+
+    /**
+     * Tables expected to be read through indexes, e.g. users looked up by id and email.
+     */
+    private List<String> indexScanTables = List.of("auth_users");
+
+    /**
+     * Highest tolerated share of sequential scans between two samples of an index scan table.
+     */
+    private double maxSeqScanRatio = 0.5;
+
+    /**
+     * Sequential scan ratio is ignored below this number of scans between two samples.
+     */
+    private long minScans = 100;
+}
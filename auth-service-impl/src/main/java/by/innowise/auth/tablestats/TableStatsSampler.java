@@ -0,0 +1,146 @@
+package by.innowise.auth.tablestats;
+
+import by.innowise.auth.config.datasource.DataSourceRoutingContext;
+import by.innowise.auth.config.sharding.ShardContext;
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.repository.TableStatsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Periodically samples table and index statistics of every shard, publishes them as gauges and checks
+ * them against the configured thresholds. Scan counters are cumulative, so the sequential scan ratio
+ * is computed between two samples.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.table-stats", name = "enabled", havingValue = "true")
+public class TableStatsSampler {
+
+    private static final String PRIMARY_DATABASE = "primary";
+
+    private final TableStatsRepository tableStatsRepository;
+    private final TableStatsProperties properties;
+    private final ShardRouter shardRouter;
+    private final Map<String, TableStatsSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, TableStats> previousByShardTable = new ConcurrentHashMap<>();
+    private final Map<String, ToDoubleFunction<TableStats>> tableMetrics = Map.of(
+            "auth.db.table.live-tuples", TableStats::liveTuples,
+            "auth.db.table.dead-tuples", TableStats::deadTuples,
+            "auth.db.table.dead-tuple-ratio", TableStats::deadTupleRatio,
+            "auth.db.table.vacuum-age", TableStats::vacuumAgeSeconds,
+            "auth.db.table.autovacuum-count", TableStats::autovacuumCount,
+            "auth.db.table.seq-scans", TableStats::seqScans,
+            "auth.db.table.index-scans", TableStats::indexScans,
+            "auth.db.table.size", TableStats::totalBytes);
+    private final Map<String, MultiGauge> tableGauges = new ConcurrentHashMap<>();
+    private final MultiGauge indexScans;
+    private final MultiGauge indexSize;
+
+    public TableStatsSampler(TableStatsRepository tableStatsRepository, TableStatsProperties properties,
+                             ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.tableStatsRepository = tableStatsRepository;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        tableMetrics.keySet().forEach(name -> tableGauges.put(name, MultiGauge.builder(name)
+                                                                              .register(meterRegistry)));
+        this.indexScans = MultiGauge.builder("auth.db.index.scans").register(meterRegistry);
+        this.indexSize = MultiGauge.builder("auth.db.index.size").baseUnit("bytes").register(meterRegistry);
+    }
+
+    public Map<String, TableStatsSnapshot> getSnapshots() {
+        return Map.copyOf(snapshots);
+    }
+
+    @Scheduled(fixedDelayString = "${application.table-stats.sample-interval:1m}")
+    public void sample() {
+        shardRouter.forEachShard(() -> {
+            String database = Objects.requireNonNullElse(ShardContext.current(), PRIMARY_DATABASE);
+            try {
+                snapshots.put(database, DataSourceRoutingContext.callInBackground(() -> sample(database)));
+            } catch (DataAccessException e) {
+                log.warn("Failed to sample table statistics of database: {}", database, e);
+            }
+        });
+        publish();
+    }
+
+    private TableStatsSnapshot sample(String database) {
+        List<TableStats> tables = tableStatsRepository.findTableStats(properties.getSchema());
+        List<IndexStats> indexes = tableStatsRepository.findIndexStats(properties.getSchema());
+        List<String> problems = new ArrayList<>();
+        for (TableStats table : tables) {
+            checkDeadTuples(table, problems);
+            TableStats previous = previousByShardTable.put(database + '/' + table.table(), table);
+            if (previous != null && properties.getIndexScanTables().contains(table.table())) {
+                checkSeqScans(previous, table, problems);
+            }
+        }
+        if (!problems.isEmpty()) {
+            log.warn("Table statistics of database: {} exceed thresholds: {}", database, problems);
+        }
+        return new TableStatsSnapshot(Instant.now(), tables, indexes, problems);
+    }
+
+    private void checkDeadTuples(TableStats table, List<String> problems) {
+        if (table.deadTuples() < properties.getMinDeadTuples()) {
+            return;
+        }
+        if (table.deadTupleRatio() > properties.getMaxDeadTupleRatio()) {
+            problems.add("%s: dead tuple ratio %.2f is above %.2f".formatted(
+                    table.table(), table.deadTupleRatio(), properties.getMaxDeadTupleRatio()));
+        }
+        if (table.vacuumAgeSeconds() < 0) {
+            problems.add("%s: %d dead tuples and never vacuumed".formatted(table.table(), table.deadTuples()));
+        } else if (table.vacuumAgeSeconds() > properties.getMaxVacuumAge().toSeconds()) {
+            problems.add("%s: %d dead tuples and last vacuumed %ds ago".formatted(
+                    table.table(), table.deadTuples(), table.vacuumAgeSeconds()));
+        }
+    }
+
+    private void checkSeqScans(TableStats previous, TableStats current, List<String> problems) {
+        long seqScans = current.seqScans() - previous.seqScans();
+        long total = seqScans + current.indexScans() - previous.indexScans();
+        if (total >= properties.getMinScans() && (double) seqScans / total > properties.getMaxSeqScanRatio()) {
+            problems.add("%s: %d of %d scans since the last sample were sequential".formatted(
+                    current.table(), seqScans, total));
+        }
+    }
+
+    private void publish() {
+        tableMetrics.forEach((name, value) -> tableGauges.get(name).register(
+                rows(TableStatsSnapshot::tables,
+                     table -> Tags.of("table", table.table()),
+                     value),
+                true));
+        indexScans.register(rows(TableStatsSnapshot::indexes, this::indexTags, IndexStats::scans), true);
+        indexSize.register(rows(TableStatsSnapshot::indexes, this::indexTags, IndexStats::sizeBytes), true);
+    }
+
+    private Tags indexTags(IndexStats index) {
+        return Tags.of("table", index.table(), "index", index.index());
+    }
+
+    private <T> List<MultiGauge.Row<?>> rows(Function<TableStatsSnapshot, List<T>> stats,
+                                             Function<T, Tags> tags, ToDoubleFunction<T> value) {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        snapshots.forEach((database, snapshot) -> stats.apply(snapshot).forEach(
+                s -> rows.add(MultiGauge.Row.of(tags.apply(s).and("database", database), value.applyAsDouble(s)))));
+        return rows;
+    }
+}
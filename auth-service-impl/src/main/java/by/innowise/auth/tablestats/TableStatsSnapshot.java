@@ -0,0 +1,15 @@
+package by.innowise.auth.tablestats;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Statistics of one database at {@code sampledAt} with the thresholds they violate.
+ */
+public record TableStatsSnapshot(
+        Instant sampledAt,
+        List<TableStats> tables,
+        List<IndexStats> indexes,
+        List<String> problems
+) {
+}
@@ -0,0 +1,34 @@
+package by.innowise.auth.warmup;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Drops application logs below WARN written while the {@link #MDC_KEY} flag is set, i.e. by the warm-up
+ * calls only. Requests and scheduled jobs running meanwhile on other threads keep their log levels.
+ */
+class WarmupLogFilter extends TurboFilter {
+
+    static final String MDC_KEY = "warmup";
+
+    private final String loggerPrefix;
+
+    WarmupLogFilter(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (level != null && !level.isGreaterOrEqual(Level.WARN)
+                && logger.getName().startsWith(loggerPrefix)
+                && MDC.get(MDC_KEY) != null) {
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
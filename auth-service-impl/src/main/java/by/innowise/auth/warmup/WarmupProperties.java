@@ -0,0 +1,38 @@
+package by.innowise.auth.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.warmup")
+public class WarmupProperties {
+
+    private boolean enabled;
+
+    /**
+     * Longest time the instance stays unready, the warm-up is cut short once it is spent.
+     */
+    private Duration timeBudget = Duration.ofSeconds(30);
+
+    /**
+     * Token generate, parse and hash cycles run between two checks of the JIT compilation time.
+     */
+    private int roundSize = 500;
+
+    private int minRounds = 5;
+
+    /**
+     * Token cycles end after this many consecutive rounds that compiled less than {@link #stableCompilationTime}.
+     */
+    private int stableRounds = 3;
+
+    private Duration stableCompilationTime = Duration.ofMillis(5);
+
+    private int passwordChecks = 20;
+
+    private int repositoryQueries = 50;
+}
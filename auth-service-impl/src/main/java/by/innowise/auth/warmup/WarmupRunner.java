@@ -0,0 +1,251 @@
+package by.innowise.auth.warmup;
+
+import by.innowise.auth.config.datasource.RoutingDataSource;
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.config.sharding.ShardRoutingDataSource;
+import by.innowise.auth.dto.token.TokenRequestDto;
+import by.innowise.auth.refreshtoken.RefreshTokenProperties;
+import by.innowise.auth.refreshtoken.RefreshTokenStorage;
+import by.innowise.auth.service.TokenService;
+import by.innowise.auth.service.UserService;
+import by.innowise.auth.service.dto.TokenSubject;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
+import by.innowise.auth.util.TokenHasher;
+import by.innowise.internship.security.dto.Role;
+import ch.qos.logback.classic.LoggerContext;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Runs synthetic work through the hot paths before the instance takes traffic: token generate, parse
+ * and hash cycles until the JIT compilation time stops growing, BCrypt checks, read-only user and token
+ * lookups, and opens the minimum idle connections of every pool. Boot reports readiness
+ * {@code ACCEPTING_TRAFFIC} only after all application runners complete, so the readiness probe refuses
+ * traffic until the warm-up is done or its time budget is spent.
+ * <p>
+ * Application INFO logs of the warm-up calls are muted, most hot paths log every call.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "application.warmup", name = "enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final String APPLICATION_LOGGER = "by.innowise.auth";
+    private static final TokenSubject SUBJECT = new TokenSubject(0L, "warmup@auth.local", Role.USER, 0L);
+    private static final String PASSWORD = "warmup-password";
+    private static final long NO_USER_ID = -1L;
+
+    private final WarmupProperties properties;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenService tokenService;
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
+    private final ShardRouter shardRouter;
+    private final RefreshTokenProperties refreshTokenProperties;
+    private final DataSource dataSource;
+    private final ObjectProvider<RoutingDataSource> routingDataSource;
+    private final ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource;
+    private final MeterRegistry meterRegistry;
+    private final WarmupLogFilter logFilter = new WarmupLogFilter(APPLICATION_LOGGER);
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Warming up within: {}", properties.getTimeBudget());
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeBudget().toNanos();
+        addLogFilter();
+        boolean completed;
+        try (MDC.MDCCloseable flag = MDC.putCloseable(WarmupLogFilter.MDC_KEY, "true")) {
+            completed = record("pools", () -> fillPools(deadline))
+                    & record("tokens", () -> cycleTokens(deadline))
+                    & record("passwords", () -> checkPasswords(deadline))
+                    & record("repositories", () -> queryRepositories(deadline));
+        } finally {
+            removeLogFilter();
+        }
+        if (completed) {
+            log.info("Warm-up completed in: {}ms", (System.nanoTime() - start) / 1_000_000);
+        } else {
+            log.warn("Warm-up was cut short by its time budget: {} or a failed phase", properties.getTimeBudget());
+        }
+    }
+
+    /**
+     * Logs of other logging systems than Logback stay unfiltered.
+     */
+    private void addLogFilter() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            logFilter.start();
+            context.addTurboFilter(logFilter);
+        }
+    }
+
+    private void removeLogFilter() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.getTurboFilterList().remove(logFilter);
+        }
+    }
+
+    /**
+     * A failed phase is logged and skipped, the instance then starts colder but still starts.
+     */
+    private boolean record(String phase, Supplier<Boolean> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            outcome = action.get() ? "completed" : "budget-exceeded";
+        } catch (RuntimeException e) {
+            log.warn("Warm-up phase: {} failed", phase, e);
+            outcome = "failed";
+        }
+        sample.stop(Timer.builder("auth.warmup")
+                         .tag("phase", phase)
+                         .tag("outcome", outcome)
+                         .register(meterRegistry));
+        return outcome.equals("completed");
+    }
+
+    private boolean fillPools(long deadline) {
+        for (HikariDataSource pool : getPools()) {
+            List<Connection> connections = new ArrayList<>();
+            try {
+                while (connections.size() < pool.getMinimumIdle() && System.nanoTime() < deadline) {
+                    connections.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                log.warn("Failed to open a connection of pool: {}", pool.getPoolName(), e);
+            } finally {
+                connections.forEach(this::close);
+            }
+        }
+        return System.nanoTime() < deadline;
+    }
+
+    private Set<HikariDataSource> getPools() {
+        Set<HikariDataSource> pools = Collections.newSetFromMap(new IdentityHashMap<>());
+        routingDataSource.ifAvailable(routing -> routing.getResolvedDataSources().values().stream()
+                                                        .filter(HikariDataSource.class::isInstance)
+                                                        .map(HikariDataSource.class::cast)
+                                                        .forEach(pools::add));
+        shardRoutingDataSource.ifAvailable(sharding -> pools.addAll(sharding.getShards().values()));
+        if (pools.isEmpty()) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    pools.add(dataSource.unwrap(HikariDataSource.class));
+                }
+            } catch (SQLException e) {
+                log.warn("Failed to unwrap the connection pool", e);
+            }
+        }
+        return pools;
+    }
+
+    private void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Failed to return a warm-up connection", e);
+        }
+    }
+
+    /**
+     * Stops after {@code stableRounds} rounds in a row that compiled almost nothing. Without compilation
+     * time monitoring, e.g. in a native image, every round counts as stable.
+     */
+    private boolean cycleTokens(long deadline) {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean monitored = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long stableMillis = properties.getStableCompilationTime().toMillis();
+        long compilationMillis = monitored ? jit.getTotalCompilationTime() : 0;
+        Counter cycles = meterRegistry.counter("auth.warmup.token-cycles");
+        int rounds = 0;
+        int stableRounds = 0;
+        while (rounds < properties.getMinRounds() || stableRounds < properties.getStableRounds()) {
+            if (System.nanoTime() >= deadline) {
+                log.warn("Token cycles stopped after {} rounds, compilation isn't stable yet", rounds);
+                return false;
+            }
+            for (int i = 0; i < properties.getRoundSize(); i++) {
+                cycleToken();
+            }
+            cycles.increment(properties.getRoundSize());
+            rounds++;
+            long compiledMillis = monitored ? jit.getTotalCompilationTime() - compilationMillis : 0;
+            compilationMillis += compiledMillis;
+            stableRounds = compiledMillis <= stableMillis ? stableRounds + 1 : 0;
+        }
+        return true;
+    }
+
+    private void cycleToken() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        String accessToken = jwtTokenProvider.generate(SUBJECT, now, TokenType.ACCESS);
+        String refreshToken = refreshTokenProperties.getStorage() == RefreshTokenStorage.STATELESS
+                ? jwtTokenProvider.generateEncrypted(SUBJECT, now, UUID.randomUUID(), 0)
+                : jwtTokenProvider.generate(SUBJECT, now, TokenType.REFRESH);
+        tokenService.getParsedTokenClaims(new TokenRequestDto(accessToken));
+        tokenService.getParsedTokenClaims(new TokenRequestDto(refreshToken));
+        TokenHasher.hashSha256(refreshToken);
+    }
+
+    private boolean checkPasswords(long deadline) {
+        String encoded = passwordEncoder.encode(PASSWORD);
+        for (int i = 0; i < properties.getPasswordChecks(); i++) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            passwordEncoder.matches(PASSWORD, encoded);
+        }
+        return true;
+    }
+
+    /**
+     * Lookups of a user and a token that don't exist, which prepares the queries on every shard
+     * without writing anything.
+     */
+    private boolean queryRepositories(long deadline) {
+        String hashedToken = TokenHasher.hashSha256(PASSWORD);
+        for (int i = 0; i < properties.getRepositoryQueries(); i++) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            shardRouter.forEachShard(() -> {
+                userService.getActiveById(NO_USER_ID);
+                tokenService.getRefreshTokenByTokenHash(hashedToken);
+            });
+        }
+        return true;
+    }
+}
@@ -0,0 +1,21 @@
+--liquibase formatted sql
+
+--changeset Vlad:20261019_001_1100
+
+CREATE SEQUENCE app.security_events_relay_seq;
+
+CREATE TABLE app.security_events
+(
+id BIGSERIAL,
+event_type VARCHAR(32) NOT NULL,
+user_id BIGINT NOT NULL,
+user_version BIGINT,
+role VARCHAR(32),
+created_at TIMESTAMP(3) NOT NULL,
+relay_seq BIGINT,
+relayed_at TIMESTAMP(3),
+CONSTRAINT security_events_id_pk PRIMARY KEY(id),
+CONSTRAINT security_events_relay_seq_unq UNIQUE(relay_seq)
+);
+
+CREATE INDEX security_events_pending_idx ON app.security_events(id) WHERE relay_seq IS NULL;
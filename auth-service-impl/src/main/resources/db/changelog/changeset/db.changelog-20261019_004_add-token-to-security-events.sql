@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset Vlad:20261019_002_1200
+
+ALTER TABLE app.security_events
+    ADD COLUMN hashed_token VARCHAR(64),
+    ADD COLUMN token_expires_at TIMESTAMP(3);
@@ -0,0 +1,21 @@
+--liquibase formatted sql
+
+--changeset Vlad:20261019_005_1300
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT count(*) FROM information_schema.tables WHERE table_schema = 'app' AND table_name = 'audit_events'
+--comment: databases that applied it under its previous id 20261019_003_1300 already have the table
+
+CREATE TABLE app.audit_events
+(
+id BIGSERIAL,
+occurred_at TIMESTAMP(3) NOT NULL,
+event_type VARCHAR(32) NOT NULL,
+user_id BIGINT,
+email VARCHAR(255),
+detail VARCHAR(255),
+CONSTRAINT audit_events_pk PRIMARY KEY(occurred_at, id)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE TABLE app.audit_events_default PARTITION OF app.audit_events DEFAULT;
+
+CREATE INDEX audit_events_user_id_idx ON app.audit_events(user_id, occurred_at);
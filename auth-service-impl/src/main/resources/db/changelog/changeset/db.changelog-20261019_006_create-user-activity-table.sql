@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset Vlad:20261019_004_1400
+
+CREATE TABLE app.user_activity
+(
+user_id BIGINT,
+last_login_at TIMESTAMP(3),
+last_seen_at TIMESTAMP(3) NOT NULL,
+CONSTRAINT user_activity_user_id_pk PRIMARY KEY(user_id),
+CONSTRAINT user_activity_auth_users_fk FOREIGN KEY (user_id) REFERENCES app.auth_users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX user_activity_last_seen_at_idx ON app.user_activity(last_seen_at);
@@ -0,0 +1,17 @@
+--liquibase formatted sql
+
+--changeset Vlad:20261019_003_1300
+
+CREATE SEQUENCE app.user_id_seq;
+
+CREATE TABLE app.user_directory
+(
+email VARCHAR(255),
+user_id BIGINT NOT NULL,
+created_at TIMESTAMP(3) NOT NULL,
+CONSTRAINT user_directory_email_pk PRIMARY KEY(email),
+CONSTRAINT user_directory_user_id_unq UNIQUE(user_id)
+);
+
+-- ids of users written before sharding are already taken
+SELECT setval('app.user_id_seq', (SELECT coalesce(max(id), 0) + 1 FROM app.auth_users), false);
@@ -0,0 +1,136 @@
+package by.innowise.auth.activity;
+
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.config.sharding.ShardingProperties;
+import by.innowise.auth.repository.UserActivityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserActivityTrackerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserActivityProperties properties = new UserActivityProperties();
+    private final RecordingRepository repository = new RecordingRepository();
+    private UserActivityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        // a bucket this wide keeps the test within one bucket however long it takes
+        properties.setGranularity(Duration.ofDays(1));
+        tracker = new UserActivityTracker(properties, repository,
+                                          new ShardRouter(new ShardingProperties(), Optional.empty()),
+                                          meterRegistry);
+    }
+
+    @Test
+    void coalescesRepeatedActivityOfUser() {
+        for (int i = 0; i < 100; i++) {
+            tracker.recordSeen(1L);
+        }
+
+        tracker.flush();
+
+        assertThat(repository.batches).hasSize(1);
+        assertThat(repository.batches.getFirst()).singleElement()
+                                                 .satisfies(activity -> {
+                                                     assertThat(activity.userId()).isEqualTo(1L);
+                                                     assertThat(activity.lastLoginAt()).isNull();
+                                                     assertThat(activity.lastSeenAt()).isNotNull();
+                                                 });
+    }
+
+    @Test
+    void writesUnchangedActivityOnlyOnce() {
+        tracker.recordSeen(1L);
+        tracker.flush();
+
+        tracker.recordSeen(1L);
+        tracker.flush();
+
+        assertThat(repository.batches).hasSize(1);
+        assertThat(flushed()).isEqualTo(1);
+    }
+
+    @Test
+    void loginCountsAsSeen() {
+        tracker.recordLogin(1L);
+        tracker.recordSeen(1L);
+
+        tracker.flush();
+
+        UserActivity activity = repository.batches.getFirst().getFirst();
+        assertThat(activity.lastLoginAt()).isNotNull()
+                                          .isEqualTo(activity.lastSeenAt());
+    }
+
+    @Test
+    void writesUsersOrderedByIdInBatches() {
+        properties.setBatchSize(2);
+        tracker.recordSeen(5L);
+        tracker.recordLogin(3L);
+        tracker.recordSeen(1L);
+
+        tracker.flush();
+
+        assertThat(repository.batches).extracting(batch -> batch.stream().map(UserActivity::userId).toList())
+                                      .containsExactly(List.of(1L, 3L), List.of(5L));
+        assertThat(flushed()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsActivityPendingWhenFlushFails() {
+        tracker.recordSeen(1L);
+        repository.failures = 1;
+
+        tracker.flush();
+        assertThat(repository.batches).isEmpty();
+
+        tracker.flush();
+        assertThat(repository.batches).hasSize(1);
+    }
+
+    @Test
+    void ignoresActivityWhenDisabled() {
+        properties.setEnabled(false);
+        tracker.recordLogin(1L);
+        tracker.recordSeen(2L);
+
+        tracker.flush();
+
+        assertThat(repository.batches).isEmpty();
+        assertThat(meterRegistry.get("auth.user-activity.tracked").gauge().value()).isZero();
+    }
+
+    private double flushed() {
+        return meterRegistry.get("auth.user-activity.flushed").counter().count();
+    }
+
+    private static class RecordingRepository extends UserActivityRepository {
+
+        private final List<List<UserActivity>> batches = new ArrayList<>();
+        private int failures;
+
+        RecordingRepository() {
+            super(null);
+        }
+
+        @Override
+        public void upsertAll(List<UserActivity> activities) {
+            if (failures > 0) {
+                failures--;
+                throw new DataAccessResourceFailureException("connection refused");
+            }
+            batches.add(List.copyOf(activities));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package by.innowise.auth.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    private static final LocalDateTime OCCURRED_AT = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new AuditRingBuffer(1).capacity()).isEqualTo(2);
+        assertThat(new AuditRingBuffer(1000).capacity()).isEqualTo(1024);
+        assertThat(new AuditRingBuffer(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void pollsInOfferOrderAcrossWrapAround() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+
+        for (long round = 0; round < 3; round++) {
+            for (long i = 0; i < 4; i++) {
+                assertThat(buffer.offer(event(round * 4 + i))).isTrue();
+            }
+            for (long i = 0; i < 4; i++) {
+                assertThat(buffer.poll().userId()).isEqualTo(round * 4 + i);
+            }
+        }
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void rejectsOfferWhenFull() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (long i = 0; i < 4; i++) {
+            buffer.offer(event(i));
+        }
+
+        assertThat(buffer.offer(event(4))).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        buffer.poll();
+        assertThat(buffer.offer(event(4))).isTrue();
+    }
+
+    @Test
+    void drainsUpToLimit() {
+        AuditRingBuffer buffer = new AuditRingBuffer(8);
+        for (long i = 0; i < 5; i++) {
+            buffer.offer(event(i));
+        }
+        List<AuditEvent> batch = new ArrayList<>();
+
+        assertThat(buffer.drainTo(batch, 3)).isEqualTo(3);
+        assertThat(buffer.drainTo(batch, 3)).isEqualTo(2);
+        assertThat(batch).extracting(AuditEvent::userId).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        AuditRingBuffer buffer = new AuditRingBuffer(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            long first = (long) p * perProducer;
+            executor.execute(() -> {
+                awaitQuietly(start);
+                for (long i = first; i < first + perProducer; i++) {
+                    while (!buffer.offer(event(i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        Set<Long> received = new HashSet<>();
+        List<AuditEvent> batch = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 256);
+            batch.forEach(event -> assertThat(received.add(event.userId())).isTrue());
+        }
+        executor.shutdownNow();
+
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    private static AuditEvent event(long userId) {
+        return new AuditEvent(AuditEventType.LOGIN, userId, null, null, OCCURRED_AT);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
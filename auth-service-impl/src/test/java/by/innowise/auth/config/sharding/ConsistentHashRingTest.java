@@ -0,0 +1,65 @@
+package by.innowise.auth.config.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int USERS = 30_000;
+    private static final int VIRTUAL_NODES = 128;
+
+    @Test
+    void singleShardOwnsEveryUser() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-0"), VIRTUAL_NODES);
+
+        for (long userId = 1; userId <= 1_000; userId++) {
+            assertThat(ring.shardFor(userId)).isEqualTo("shard-0");
+        }
+    }
+
+    @Test
+    void placementDoesNotDependOnShardOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2"), VIRTUAL_NODES);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("shard-2", "shard-0", "shard-1"), VIRTUAL_NODES);
+
+        for (long userId = 1; userId <= USERS; userId++) {
+            assertThat(reordered.shardFor(userId)).isEqualTo(ring.shardFor(userId));
+        }
+    }
+
+    @Test
+    void sequentialIdsAreSpreadEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2"), VIRTUAL_NODES);
+
+        Map<String, Integer> users = new HashMap<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.merge(ring.shardFor(userId), 1, Integer::sum);
+        }
+
+        assertThat(users).hasSize(3);
+        assertThat(users.values()).allSatisfy(count -> assertThat(count).isBetween(USERS / 4, USERS * 5 / 12));
+    }
+
+    @Test
+    void addingShardMovesUsersOnlyToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"),
+                                                          VIRTUAL_NODES);
+
+        int moved = 0;
+        for (long userId = 1; userId <= USERS; userId++) {
+            String shard = after.shardFor(userId);
+            if (!shard.equals(before.shardFor(userId))) {
+                assertThat(shard).isEqualTo("shard-3");
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(USERS / 6, USERS / 3);
+    }
+}
@@ -0,0 +1,118 @@
+package by.innowise.auth.config.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against two databases of a Postgres container, skipped where no container runtime is available.
+ */
+class ShardRebalancerTest {
+
+    private static final String SOURCE = "shard-0";
+    private static final String TARGET = "shard-1";
+    private static final Timestamp NOW = Timestamp.valueOf(LocalDateTime.of(2026, 10, 19, 12, 0));
+
+    private static PostgreSQLContainer<?> postgres;
+    private static Map<String, HikariDataSource> shards;
+
+    @BeforeAll
+    static void startPostgres() throws Exception {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "No container runtime available");
+        postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+        postgres.start();
+        HikariDataSource source = dataSource(postgres.getJdbcUrl());
+        new JdbcTemplate(source).execute("CREATE DATABASE shard_1");
+        HikariDataSource target = dataSource(postgres.getJdbcUrl().replace("/" + postgres.getDatabaseName(), "/shard_1"));
+        shards = Map.of(SOURCE, source, TARGET, target);
+        for (HikariDataSource shard : shards.values()) {
+            migrate(shard);
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() {
+        if (shards != null) {
+            shards.values().forEach(HikariDataSource::close);
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    void movesActivityWithTheUser() {
+        ShardRouter shardRouter = new ShardRouter(shardingProperties(), Optional.empty());
+        long userId = LongStream.rangeClosed(1, 1000)
+                                .filter(id -> shardRouter.shardOf(id).equals(TARGET))
+                                .findFirst()
+                                .orElseThrow();
+        JdbcTemplate source = new JdbcTemplate(shards.get(SOURCE));
+        JdbcTemplate target = new JdbcTemplate(shards.get(TARGET));
+        source.update("""
+                      INSERT INTO app.auth_users (id, email, password, role, status, created_at, updated_at, version)
+                      VALUES (?, 'moved@example.com', 'hash', 'USER', 'ACTIVATED', ?, ?, 0)
+                      """, userId, NOW, NOW);
+        source.update("""
+                      INSERT INTO app.refresh_tokens (id, hashed_token, expires_at, user_id, created_at, updated_at, version)
+                      VALUES (?, 'hashed', ?, ?, ?, ?, 0)
+                      """, UUID.randomUUID(), NOW, userId, NOW, NOW);
+        source.update("INSERT INTO app.user_activity (user_id, last_login_at, last_seen_at) VALUES (?, ?, ?)",
+                      userId, NOW, NOW);
+
+        new ShardRebalancer(null, shardRouter, shardingProperties(), null).moveMisplacedUsers(SOURCE, shards);
+
+        assertThat(target.queryForList("SELECT last_login_at, last_seen_at FROM app.user_activity WHERE user_id = ?",
+                                       userId))
+                .containsExactly(Map.of("last_login_at", NOW, "last_seen_at", NOW));
+        assertThat(target.queryForObject("SELECT count(*) FROM app.refresh_tokens WHERE user_id = ?",
+                                         Long.class, userId)).isOne();
+        assertThat(source.queryForList("SELECT user_id FROM app.user_activity WHERE user_id = ?", Long.class, userId))
+                .isEmpty();
+        assertThat(source.queryForList("SELECT id FROM app.auth_users WHERE id = ?", Long.class, userId)).isEmpty();
+    }
+
+    private static ShardingProperties shardingProperties() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        properties.setPrimaryShardId(SOURCE);
+        ShardingProperties.Shard shard = new ShardingProperties.Shard();
+        shard.setId(TARGET);
+        properties.setShards(List.of(shard));
+        return properties;
+    }
+
+    private static HikariDataSource dataSource(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        return dataSource;
+    }
+
+    private static void migrate(HikariDataSource shard) throws Exception {
+        new JdbcTemplate(shard).execute("CREATE SCHEMA IF NOT EXISTS app");
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(shard);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+}
@@ -0,0 +1,165 @@
+package by.innowise.auth.degraded;
+
+import by.innowise.auth.exception.DatabaseUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatabaseCircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DegradedModeProperties properties = new DegradedModeProperties();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicLong nanoTime = new AtomicLong();
+    private DatabaseCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setFailureThreshold(3);
+        properties.setOpenDuration(OPEN_DURATION);
+        breaker = new DatabaseCircuitBreaker(properties, meterRegistry, nanoTime::get);
+    }
+
+    @Test
+    void opensAfterConsecutiveDatabaseFailures() {
+        failTimes(3);
+
+        assertThat(state()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        assertThat(breaker.isOpen()).isTrue();
+        assertThatThrownBy(() -> breaker.call(succeeding())).isInstanceOf(DatabaseUnavailableException.class);
+        assertThat(lookups).hasValue(3);
+    }
+
+    @Test
+    void staysOpenUntilOpenDurationPassed() {
+        failTimes(3);
+        advance(OPEN_DURATION.minusNanos(1));
+
+        assertThat(breaker.isOpen()).isTrue();
+        assertThatThrownBy(() -> breaker.call(succeeding())).isInstanceOf(DatabaseUnavailableException.class);
+        assertThat(lookups).hasValue(3);
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        failTimes(2);
+        breaker.call(succeeding());
+        failTimes(2);
+
+        assertThat(state()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void nonDatabaseErrorsDoNotCount() {
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> breaker.call(() -> {
+                throw new IllegalStateException("not a database error");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(state()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void slowLookupsCountAsFailures() {
+        properties.setSlowCallThreshold(Duration.ofMillis(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(breaker.call(() -> {
+                advance(Duration.ofMillis(5));
+                return "slow";
+            })).isEqualTo("slow");
+        }
+
+        assertThat(state()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void successfulProbeClosesCircuit() {
+        failTimes(3);
+        advance(OPEN_DURATION);
+
+        assertThat(breaker.isOpen()).isFalse();
+        assertThat(breaker.call(succeeding())).isEqualTo("found");
+        assertThat(state()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void onlyOneLookupProbesWhileHalfOpen() {
+        failTimes(3);
+        advance(OPEN_DURATION);
+
+        String probed = breaker.call(() -> {
+            assertThat(state()).isEqualTo(DatabaseCircuitBreaker.State.HALF_OPEN);
+            assertThatThrownBy(() -> breaker.call(succeeding())).isInstanceOf(DatabaseUnavailableException.class);
+            return "probed";
+        });
+
+        assertThat(probed).isEqualTo("probed");
+        assertThat(state()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedProbeReopensCircuit() {
+        failTimes(3);
+        advance(OPEN_DURATION);
+
+        failTimes(1);
+
+        assertThat(state()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        assertThat(breaker.isOpen()).isTrue();
+        assertThatThrownBy(() -> breaker.call(succeeding())).isInstanceOf(DatabaseUnavailableException.class);
+    }
+
+    @Test
+    void disabledBreakerPassesErrorsThrough() {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> breaker.call(failing()))
+                    .isInstanceOf(DataAccessResourceFailureException.class);
+        }
+        assertThat(state()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThatThrownBy(() -> breaker.call(failing())).isInstanceOf(DatabaseUnavailableException.class);
+        }
+    }
+
+    private Supplier<String> succeeding() {
+        return () -> {
+            lookups.incrementAndGet();
+            return "found";
+        };
+    }
+
+    private Supplier<String> failing() {
+        return () -> {
+            lookups.incrementAndGet();
+            throw new DataAccessResourceFailureException("connection refused");
+        };
+    }
+
+    private DatabaseCircuitBreaker.State state() {
+        double ordinal = meterRegistry.get("auth.db.circuit.state").gauge().value();
+        return DatabaseCircuitBreaker.State.values()[(int) ordinal];
+    }
+
+    private void advance(Duration duration) {
+        nanoTime.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,81 @@
+package by.innowise.auth.denylist;
+
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.refreshtoken.RefreshTokenProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenFamilyDenylistTest {
+
+    private static final long EXPIRES_AT = Instant.now().plusSeconds(3600).getEpochSecond();
+
+    private final RefreshTokenFamilyDenylist denylist =
+            new RefreshTokenFamilyDenylist(new RefreshTokenProperties(), new SimpleMeterRegistry());
+    private final UUID familyId = UUID.randomUUID();
+
+    @Test
+    void rejectsReplayedRotationAndRevokesFamily() {
+        denylist.rotate(familyId, 0, EXPIRES_AT);
+
+        assertThatThrownBy(() -> denylist.rotate(familyId, 0, EXPIRES_AT))
+                .isInstanceOf(TokenValidationException.class);
+        assertThatThrownBy(() -> denylist.rotate(familyId, 1, EXPIRES_AT))
+                .isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void keepsRotationOfCommittedTransaction() {
+        inTransaction(() -> denylist.rotate(familyId, 0, EXPIRES_AT), TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThatThrownBy(() -> denylist.rotate(familyId, 0, EXPIRES_AT))
+                .isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void undoesRotationOfRolledBackTransaction() {
+        inTransaction(() -> denylist.rotate(familyId, 0, EXPIRES_AT), TransactionSynchronization.STATUS_ROLLED_BACK);
+        inTransaction(() -> denylist.rotate(familyId, 0, EXPIRES_AT), TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThatCode(() -> denylist.rotate(familyId, 1, EXPIRES_AT)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void restoresPreviousRotationOnRollback() {
+        denylist.rotate(familyId, 0, EXPIRES_AT);
+
+        inTransaction(() -> denylist.rotate(familyId, 1, EXPIRES_AT), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThatCode(() -> denylist.rotate(familyId, 1, EXPIRES_AT)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void keepsRevocationWhenRolledBack() {
+        denylist.rotate(familyId, 0, EXPIRES_AT);
+        inTransaction(() -> {
+            denylist.rotate(familyId, 1, EXPIRES_AT);
+            denylist.revoke(familyId, EXPIRES_AT);
+        }, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThatThrownBy(() -> denylist.rotate(familyId, 2, EXPIRES_AT))
+                .isInstanceOf(TokenValidationException.class);
+    }
+
+    private static void inTransaction(Runnable action, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            TransactionSynchronizationManager.getSynchronizations()
+                                             .forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package by.innowise.auth.groupcommit;
+
+import by.innowise.auth.config.sharding.ShardRouter;
+import by.innowise.auth.config.sharding.ShardingProperties;
+import by.innowise.auth.exception.TokenPersistenceException;
+import by.innowise.auth.repository.RefreshTokenBatchRepository;
+import by.innowise.auth.repository.entity.AuthUser;
+import by.innowise.auth.service.dto.RefreshTokenCreateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenGroupCommitWriterTest {
+
+    private static final Duration LONG_DELAY = Duration.ofSeconds(10);
+
+    private final GroupCommitProperties properties = new GroupCommitProperties();
+    private final RecordingRepository direct = new RecordingRepository();
+    private final RecordingRepository writerRepository = new RecordingRepository();
+    private final AtomicBoolean poolClosed = new AtomicBoolean();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private RefreshTokenGroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties.setCommitTimeout(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer.isRunning()) {
+            writer.stop();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    void batchesConcurrentWritersAndFlushesOnSize() throws Exception {
+        properties.setMaxBatchSize(8);
+        properties.setMaxDelay(LONG_DELAY);
+        startWriter();
+
+        List<RefreshTokenCreateDto> tokens = tokens(8);
+        long start = System.nanoTime();
+        insertConcurrently(tokens).get(5, TimeUnit.SECONDS);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(LONG_DELAY);
+        assertThat(writerRepository.batches).hasSize(1);
+        assertThat(writerRepository.inserted()).containsExactlyInAnyOrderElementsOf(tokens);
+        assertThat(direct.batches).isEmpty();
+    }
+
+    @Test
+    void flushesPartialBatchOnceDelayPassed() {
+        properties.setMaxBatchSize(100);
+        properties.setMaxDelay(Duration.ofMillis(20));
+        startWriter();
+        RefreshTokenCreateDto token = token();
+
+        writer.insert(token);
+
+        assertThat(writerRepository.batches).containsExactly(List.of(token));
+    }
+
+    @Test
+    void failsEveryWaiterOfFailedBatch() throws Exception {
+        properties.setMaxBatchSize(4);
+        properties.setMaxDelay(LONG_DELAY);
+        writerRepository.failing = token -> true;
+        startWriter();
+
+        List<CompletableFuture<Void>> inserts = tokens(4).stream().map(this::insertAsync).toList();
+
+        for (CompletableFuture<Void> insert : inserts) {
+            assertThatThrownBy(() -> insert.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(TokenPersistenceException.class)
+                    .hasRootCauseInstanceOf(DataIntegrityViolationException.class);
+        }
+        assertThat(writerRepository.batches).isEmpty();
+    }
+
+    @Test
+    void failsOnlyTheWaiterOfFailingRowWhenBatchIsRetriedOneByOne() throws Exception {
+        properties.setMaxBatchSize(4);
+        properties.setMaxDelay(LONG_DELAY);
+        List<RefreshTokenCreateDto> tokens = tokens(4);
+        RefreshTokenCreateDto bad = tokens.get(2);
+        writerRepository.failing = token -> token.equals(bad);
+        startWriter();
+
+        List<CompletableFuture<Void>> inserts = tokens.stream().map(this::insertAsync).toList();
+
+        for (int i = 0; i < tokens.size(); i++) {
+            CompletableFuture<Void> insert = inserts.get(i);
+            if (tokens.get(i).equals(bad)) {
+                assertThatThrownBy(() -> insert.get(5, TimeUnit.SECONDS))
+                        .hasCauseInstanceOf(TokenPersistenceException.class);
+            } else {
+                insert.get(5, TimeUnit.SECONDS);
+            }
+        }
+        assertThat(writerRepository.inserted()).containsExactlyInAnyOrderElementsOf(
+                tokens.stream().filter(token -> !token.equals(bad)).toList());
+    }
+
+    @Test
+    void drainsQueuedRowsOnStop() throws Exception {
+        properties.setMaxBatchSize(1);
+        properties.setMaxDelay(Duration.ZERO);
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        writerRepository.beforeInsert = () -> {
+            firstBatchStarted.countDown();
+            await(releaseFirstBatch);
+        };
+        startWriter();
+        List<RefreshTokenCreateDto> tokens = tokens(5);
+
+        CompletableFuture<Void> first = insertAsync(tokens.getFirst());
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Void>> queued = tokens.subList(1, tokens.size()).stream()
+                                                     .map(this::insertAsync)
+                                                     .toList();
+        awaitWaitingCallers(tokens.size());
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(writer::stop, callers);
+        writerRepository.beforeInsert = () -> {
+        };
+        releaseFirstBatch.countDown();
+
+        stopped.get(5, TimeUnit.SECONDS);
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(queued.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(writerRepository.inserted()).containsExactlyInAnyOrderElementsOf(tokens);
+        assertThat(direct.batches).isEmpty();
+        assertThat(poolClosed).isTrue();
+    }
+
+    @Test
+    void insertsDirectlyOnceStopped() {
+        startWriter();
+        writer.stop();
+        RefreshTokenCreateDto token = token();
+
+        writer.insert(token);
+
+        assertThat(direct.batches).containsExactly(List.of(token));
+        assertThat(writerRepository.batches).isEmpty();
+    }
+
+    private void startWriter() {
+        writer = new RefreshTokenGroupCommitWriter(direct, properties,
+                                                   new ShardRouter(new ShardingProperties(), Optional.empty()),
+                                                   writerRepository, () -> poolClosed.set(true));
+        writer.start();
+    }
+
+    private CompletableFuture<Void> insertConcurrently(List<RefreshTokenCreateDto> tokens) {
+        return CompletableFuture.allOf(tokens.stream().map(this::insertAsync).toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> insertAsync(RefreshTokenCreateDto token) {
+        return CompletableFuture.runAsync(() -> writer.insert(token), callers);
+    }
+
+    /**
+     * Callers block in the writer while their row is queued or being written.
+     */
+    private void awaitWaitingCallers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waitingCallers() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(waitingCallers()).isEqualTo(count);
+    }
+
+    private long waitingCallers() {
+        return Thread.getAllStackTraces().entrySet().stream()
+                     .filter(entry -> entry.getKey().getState() == Thread.State.TIMED_WAITING)
+                     .filter(entry -> Arrays.stream(entry.getValue())
+                                            .anyMatch(frame -> frame.getMethodName().equals("awaitCommit")))
+                     .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<RefreshTokenCreateDto> tokens(int count) {
+        return IntStream.range(0, count).mapToObj(i -> token()).toList();
+    }
+
+    private static RefreshTokenCreateDto token() {
+        AuthUser user = new AuthUser();
+        user.setId(42L);
+        return new RefreshTokenCreateDto(UUID.randomUUID(), UUID.randomUUID().toString(),
+                                         LocalDateTime.now().plusDays(1), user);
+    }
+
+    private static class RecordingRepository extends RefreshTokenBatchRepository {
+
+        private final List<List<RefreshTokenCreateDto>> batches = Collections.synchronizedList(new ArrayList<>());
+        private volatile Predicate<RefreshTokenCreateDto> failing = token -> false;
+        private volatile Runnable beforeInsert = () -> {
+        };
+
+        RecordingRepository() {
+            super(null);
+        }
+
+        @Override
+        public void insertAll(List<RefreshTokenCreateDto> tokens) {
+            beforeInsert.run();
+            if (tokens.stream().anyMatch(failing)) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            batches.add(List.copyOf(tokens));
+        }
+
+        List<RefreshTokenCreateDto> inserted() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package by.innowise.auth.invalidation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InvalidationTest {
+
+    @Test
+    void userChangedRoundTrips() {
+        Invalidation invalidation = Invalidation.userChanged(42L, 7L);
+
+        assertThat(invalidation.encode()).isEqualTo("u:42:7");
+        assertThat(Invalidation.decode(invalidation.encode())).isEqualTo(invalidation);
+    }
+
+    @Test
+    void userRemovedRoundTrips() {
+        Invalidation invalidation = Invalidation.userRemoved(42L);
+
+        assertThat(invalidation.encode()).isEqualTo("d:42");
+        assertThat(Invalidation.decode(invalidation.encode())).isEqualTo(invalidation);
+    }
+
+    @Test
+    void refreshTokenRevokedRoundTripsWithSecondPrecision() {
+        LocalDateTime expiresAt = LocalDateTime.of(2030, 1, 2, 3, 4, 5, 600_000_000);
+        Invalidation invalidation = Invalidation.refreshTokenRevoked("9f86d081884c7d65", expiresAt);
+
+        Invalidation decoded = Invalidation.decode(invalidation.encode());
+
+        assertThat(decoded.type()).isEqualTo(InvalidationType.REFRESH_TOKEN_REVOKED);
+        assertThat(decoded.tokenHash()).isEqualTo("9f86d081884c7d65");
+        assertThat(decoded.expiresAt()).isEqualTo(expiresAt.withNano(0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "x:42", "uu:42:7", "u:42", "u:forty-two:7", "t:9f86d081884c7d65", "d"})
+    void rejectsMalformedPayloads(String payload) {
+        assertThatThrownBy(() -> Invalidation.decode(payload)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,85 @@
+package by.innowise.auth.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.getClasses().put(EndpointClass.REFRESH,
+                                    new ConcurrencyLimitProperties.ClassLimit(1, 1, 1, Duration.ofSeconds(1)));
+        filter = new ConcurrencyLimitFilter(new ConcurrencyLimiter(properties, new SimpleMeterRegistry()),
+                                            new ObjectMapper());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/token/refresh", "/token/refresh/"})
+    void shedsRequestsBeyondTheLimit(String servletPath) throws Exception {
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+
+        MockHttpServletResponse admitted = filterWhileInFlight(request(servletPath), request(servletPath), shed);
+
+        assertThat(admitted.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(shed.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void matchesThePathWithinTheApplication() throws Exception {
+        MockHttpServletRequest request = request("/token/refresh");
+        request.setContextPath("/auth-service");
+        request.setRequestURI("/auth-service//token/refresh;jsessionid=42");
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+
+        filterWhileInFlight(request, request, shed);
+
+        assertThat(shed.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void passesUnlimitedPaths() throws Exception {
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        filterWhileInFlight(request("/token/refreshed"), request("/token/refreshed"), second);
+
+        assertThat(second.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    /**
+     * Filters the second request while the first one is still in the chain.
+     */
+    private MockHttpServletResponse filterWhileInFlight(MockHttpServletRequest first, MockHttpServletRequest second,
+                                                        MockHttpServletResponse secondResponse) throws Exception {
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        filter.doFilter(first, firstResponse, (request, response) -> {
+            MockHttpServletRequest copy = request(second.getServletPath());
+            copy.setContextPath(second.getContextPath());
+            copy.setRequestURI(second.getRequestURI());
+            filter.doFilter(copy, secondResponse, (nestedRequest, nestedResponse) -> {
+            });
+        });
+        return firstResponse;
+    }
+
+    private static MockHttpServletRequest request(String servletPath) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", servletPath);
+        request.setServletPath(servletPath);
+        return request;
+    }
+}
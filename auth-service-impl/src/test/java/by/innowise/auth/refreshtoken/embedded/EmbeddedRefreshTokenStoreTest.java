@@ -0,0 +1,189 @@
+package by.innowise.auth.refreshtoken.embedded;
+
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.refreshtoken.RefreshTokenProperties;
+import by.innowise.auth.repository.entity.AuthUser;
+import by.innowise.auth.repository.entity.RefreshToken;
+import by.innowise.auth.service.dto.RefreshTokenCreateDto;
+import by.innowise.auth.util.TokenHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddedRefreshTokenStoreTest {
+
+    private static final int RECORDS_PER_SEGMENT = 4;
+    private static final long USER_ID = 42L;
+
+    @TempDir
+    Path directory;
+
+    private final RefreshTokenProperties properties = new RefreshTokenProperties();
+    private final LocalDateTime expiresAt = LocalDateTime.now(ZoneOffset.UTC)
+                                                         .plusDays(1)
+                                                         .truncatedTo(ChronoUnit.SECONDS);
+    private EmbeddedRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties.getEmbedded().setDirectory(directory);
+        properties.getEmbedded().setSegmentSize(DataSize.ofBytes((long) Segment.RECORD_SIZE * RECORDS_PER_SEGMENT));
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void rollsOverToNewSegmentWhenFull() throws IOException {
+        List<RefreshTokenCreateDto> tokens = save(RECORDS_PER_SEGMENT * 2 + 1);
+
+        assertThat(segmentFiles()).hasSize(3);
+        tokens.forEach(token -> assertThat(store.findByTokenHash(token.tokenHash())).isPresent());
+    }
+
+    @Test
+    void restoresTokensAndDeletionsAfterReopen() {
+        List<RefreshTokenCreateDto> tokens = save(RECORDS_PER_SEGMENT + 2);
+        store.delete(find(tokens.get(1)));
+
+        store.close();
+        store = open();
+
+        assertThat(store.findByTokenHash(tokens.get(1).tokenHash())).isEmpty();
+        RefreshToken restored = find(tokens.getFirst());
+        assertThat(restored.getId()).isEqualTo(tokens.getFirst().id());
+        assertThat(restored.getExpiresAt()).isEqualTo(expiresAt);
+        assertThat(restored.getAuthUser().getId()).isEqualTo(USER_ID);
+        assertThat(store.findByUserId(USER_ID)).isPresent();
+        tokens.stream()
+              .filter(token -> token != tokens.get(1))
+              .forEach(token -> assertThat(store.findByTokenHash(token.tokenHash())).isPresent());
+    }
+
+    @Test
+    void dropsTornTailRecordAndAppendsOverIt() throws IOException {
+        List<RefreshTokenCreateDto> tokens = save(3);
+        store.close();
+        Path segment = segmentFiles().getFirst();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), Segment.RECORD_SIZE * 2L + 10);
+        }
+
+        store = open();
+        assertThat(store.findByTokenHash(tokens.get(0).tokenHash())).isPresent();
+        assertThat(store.findByTokenHash(tokens.get(1).tokenHash())).isPresent();
+        assertThat(store.findByTokenHash(tokens.get(2).tokenHash())).isEmpty();
+
+        RefreshTokenCreateDto next = save(1).getFirst();
+        store.close();
+        store = open();
+        assertThat(store.findByTokenHash(next.tokenHash())).isPresent();
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    @Test
+    void dropsTruncatedTailRecord() throws IOException {
+        List<RefreshTokenCreateDto> tokens = save(2);
+        store.close();
+        Path segment = segmentFiles().getFirst();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Segment.RECORD_SIZE + Segment.RECORD_SIZE / 2);
+        }
+
+        store = open();
+
+        assertThat(store.findByTokenHash(tokens.get(0).tokenHash())).isPresent();
+        assertThat(store.findByTokenHash(tokens.get(1).tokenHash())).isEmpty();
+    }
+
+    @Test
+    void compactsOldestSegmentAndKeepsItsLiveTokens() throws IOException {
+        List<RefreshTokenCreateDto> tokens = save(RECORDS_PER_SEGMENT + 1);
+        Path oldest = segmentFiles().getFirst();
+        for (int i = 1; i < RECORDS_PER_SEGMENT; i++) {
+            store.delete(find(tokens.get(i)));
+        }
+
+        store.compact();
+
+        assertThat(oldest).doesNotExist();
+        assertThat(store.findByTokenHash(tokens.getFirst().tokenHash())).isPresent();
+        store.close();
+        store = open();
+        assertThat(store.findByTokenHash(tokens.getFirst().tokenHash())).isPresent();
+        assertThat(store.findByTokenHash(tokens.getLast().tokenHash())).isPresent();
+        for (int i = 1; i < RECORDS_PER_SEGMENT; i++) {
+            assertThat(store.findByTokenHash(tokens.get(i).tokenHash())).isEmpty();
+        }
+    }
+
+    @Test
+    void keepsSegmentsAboveLiveRatio() throws IOException {
+        List<RefreshTokenCreateDto> tokens = save(RECORDS_PER_SEGMENT + 1);
+        store.delete(find(tokens.getFirst()));
+
+        store.compact();
+
+        assertThat(segmentFiles()).hasSize(2);
+    }
+
+    @Test
+    void rejectsSecondDeletionOfToken() {
+        RefreshToken token = find(save(1).getFirst());
+        store.delete(token);
+
+        assertThatThrownBy(() -> store.delete(token)).isInstanceOf(TokenValidationException.class);
+    }
+
+    private EmbeddedRefreshTokenStore open() {
+        return new EmbeddedRefreshTokenStore(properties, new SimpleMeterRegistry());
+    }
+
+    private List<RefreshTokenCreateDto> save(int count) {
+        List<RefreshTokenCreateDto> tokens = IntStream.range(0, count)
+                                                      .mapToObj(i -> token())
+                                                      .toList();
+        tokens.forEach(store::save);
+        return tokens;
+    }
+
+    private RefreshTokenCreateDto token() {
+        return new RefreshTokenCreateDto(UUID.randomUUID(), TokenHasher.hashSha256(UUID.randomUUID().toString()),
+                                         expiresAt, AuthUser.builder().id(USER_ID).build());
+    }
+
+    private RefreshToken find(RefreshTokenCreateDto token) {
+        return store.findByTokenHash(token.tokenHash()).orElseThrow();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> Segment.idOf(file) >= 0)
+                        .sorted()
+                        .toList();
+        }
+    }
+}
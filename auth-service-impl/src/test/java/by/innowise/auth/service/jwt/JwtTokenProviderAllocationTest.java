@@ -0,0 +1,63 @@
+package by.innowise.auth.service.jwt;
+
+import by.innowise.auth.service.dto.TokenSubject;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.internship.security.dto.Role;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation regression test of the validate path: parsing a compact access token has to allocate less
+ * than parsing a legacy one, both measured in the same run so the bound holds across JIT, JDK and jjwt
+ * versions. The absolute budget is checked by {@code AllocationBudgetCheck} of the load test module,
+ * which records the allocations with JFR.
+ */
+class JwtTokenProviderAllocationTest {
+
+    private static final TokenSubject SUBJECT = new TokenSubject(4242L, "allocation@example.com", Role.USER, 7L);
+    private static final int WARM_UP = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compactValidationAllocatesLessThanLegacy() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        SecretKey key = Jwts.SIG.HS256.key().build();
+
+        long legacy = allocatedPerValidation(TestJwtTokenProviders.create(key, JwtFormat.LEGACY));
+        long compact = allocatedPerValidation(TestJwtTokenProviders.create(key, JwtFormat.COMPACT));
+
+        assertThat(compact).as("bytes allocated per compact validation, legacy allocates %d", legacy)
+                           .isLessThan(legacy);
+    }
+
+    private long allocatedPerValidation(JwtTokenProvider provider) {
+        String token = provider.generate(SUBJECT, LocalDateTime.now(ZoneOffset.UTC), TokenType.ACCESS);
+        long checksum = validate(provider, token, WARM_UP);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        checksum += validate(provider, token, ITERATIONS);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(checksum).isPositive();
+        return allocated / ITERATIONS;
+    }
+
+    private static long validate(JwtTokenProvider provider, String token, int iterations) {
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += provider.parse(token).getExpiresAtEpochSecond();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,181 @@
+package by.innowise.auth.service.jwt;
+
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.dto.TokenSubject;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.internship.security.dto.Role;
+import by.innowise.internship.security.util.JwtConstants;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.crypto.SecretKey;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderFormatTest {
+
+    private static final TokenSubject SUBJECT = new TokenSubject(4242L, "format@example.com", Role.ADMIN, 7L);
+
+    private final SecretKey key = Jwts.SIG.HS256.key().build();
+    private final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+
+    @ParameterizedTest
+    @EnumSource(JwtFormat.class)
+    void refreshTokenRoundTrips(JwtFormat format) {
+        JwtTokenProvider provider = TestJwtTokenProviders.create(key, format);
+
+        ParsedTokenDto parsed = provider.parse(provider.generate(SUBJECT, now, TokenType.REFRESH));
+
+        assertThat(parsed.getTokenType()).isEqualTo(TokenType.REFRESH);
+        assertThat(parsed.getUserId()).isEqualTo(SUBJECT.userId());
+        assertThat(parsed.getEmail()).isEqualTo(SUBJECT.email());
+        assertThat(parsed.getRole()).isEqualTo(SUBJECT.role());
+        assertThat(parsed.getUserVersion()).isEqualTo(SUBJECT.version());
+        assertThat(parsed.getIssuedAt()).isEqualTo(now);
+        assertThat(parsed.getExpiresAt()).isEqualTo(provider.getExpirationDate(now, TokenType.REFRESH));
+        assertThat(parsed.getFamilyId()).isNull();
+        assertThat(parsed.getRotation()).isZero();
+    }
+
+    @Test
+    void compactAccessTokenLeavesEmailOut() {
+        JwtTokenProvider compact = TestJwtTokenProviders.create(key, JwtFormat.COMPACT);
+        JwtTokenProvider legacy = TestJwtTokenProviders.create(key, JwtFormat.LEGACY);
+        String compactToken = compact.generate(SUBJECT, now, TokenType.ACCESS);
+        String legacyToken = legacy.generate(SUBJECT, now, TokenType.ACCESS);
+
+        ParsedTokenDto parsed = compact.parse(compactToken);
+
+        assertThat(parsed.getTokenType()).isEqualTo(TokenType.ACCESS);
+        assertThat(parsed.getRole()).isEqualTo(SUBJECT.role());
+        assertThat(parsed.getEmail()).isNull();
+        assertThat(parsed.matchesEmail("anyone@example.com")).isTrue();
+        assertThat(compactToken).hasSizeLessThan(legacyToken.length());
+    }
+
+    @ParameterizedTest
+    @EnumSource(JwtFormat.class)
+    void parsesTokensOfEitherFormat(JwtFormat issuedAs) {
+        JwtTokenProvider issuer = TestJwtTokenProviders.create(key, issuedAs);
+        String token = issuer.generate(SUBJECT, now, TokenType.REFRESH);
+
+        for (JwtFormat parsedAs : JwtFormat.values()) {
+            ParsedTokenDto parsed = TestJwtTokenProviders.create(key, parsedAs).parse(token);
+
+            assertThat(parsed.getUserId()).isEqualTo(SUBJECT.userId());
+            assertThat(parsed.getRole()).isEqualTo(SUBJECT.role());
+            assertThat(parsed.getEmail()).isEqualTo(SUBJECT.email());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(JwtFormat.class)
+    void encryptedRefreshTokenKeepsFamilyAndRotation(JwtFormat format) {
+        JwtTokenProvider provider = TestJwtTokenProviders.create(key, format);
+        UUID familyId = UUID.randomUUID();
+
+        String token = provider.generateEncrypted(SUBJECT, now, familyId, 3);
+        ParsedTokenDto parsed = provider.parseEncrypted(token);
+
+        assertThat(JwtTokenProvider.isEncrypted(token)).isTrue();
+        assertThat(parsed.getTokenType()).isEqualTo(TokenType.REFRESH);
+        assertThat(parsed.getUserId()).isEqualTo(SUBJECT.userId());
+        assertThat(parsed.getEmail()).isEqualTo(SUBJECT.email());
+        assertThat(parsed.getFamilyId()).isEqualTo(familyId);
+        assertThat(parsed.getRotation()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsEncryptedTokenOfAnotherKey() {
+        String token = TestJwtTokenProviders.create(Jwts.SIG.HS256.key().build(), JwtFormat.COMPACT)
+                                            .generateEncrypted(SUBJECT, now, UUID.randomUUID(), 0);
+        JwtTokenProvider provider = TestJwtTokenProviders.create(key, JwtFormat.COMPACT);
+
+        assertThatThrownBy(() -> provider.parseEncrypted(token)).isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void rejectsUnknownCompactRoleCode() {
+        String token = sign(compactClaims(1, 9));
+
+        assertThatThrownBy(() -> parse(token)).isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void rejectsUnsupportedFormatVersion() {
+        String token = sign(compactClaims(2, 0));
+
+        assertThatThrownBy(() -> parse(token)).isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void rejectsCompactTokenWithoutIssuedAt() {
+        String token = sign(compactClaims(1, 0).issuedAt(null));
+
+        assertThatThrownBy(() -> parse(token)).isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void rejectsLegacyTokenWithoutIssuedAt() {
+        String token = sign(legacyClaims().claim(JwtConstants.JWT_ROLE_CLAIM_NAME, List.of("ROLE_USER"))
+                                          .issuedAt(null));
+
+        assertThatThrownBy(() -> parse(token)).isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void rejectsLegacyTokenWithoutRoles() {
+        String token = sign(legacyClaims());
+
+        assertThatThrownBy(() -> parse(token)).isInstanceOf(TokenValidationException.class);
+    }
+
+    @Test
+    void rejectsLegacyTokenWithUnknownRole() {
+        String token = sign(legacyClaims().claim(JwtConstants.JWT_ROLE_CLAIM_NAME, List.of("ROLE_ROOT")));
+
+        assertThatThrownBy(() -> parse(token)).isInstanceOf(TokenValidationException.class);
+    }
+
+    private ParsedTokenDto parse(String token) {
+        return TestJwtTokenProviders.create(key, JwtFormat.COMPACT).parse(token);
+    }
+
+    private JwtBuilder compactClaims(int formatVersion, int roleCode) {
+        return claims().header()
+                       .add("v", formatVersion)
+                       .and()
+                       .claim("r", roleCode)
+                       .claim("t", TokenType.ACCESS.getCode());
+    }
+
+    private JwtBuilder legacyClaims() {
+        return claims().claim(JwtConstants.JWT_EMAIL_CLAIM_NAME, SUBJECT.email())
+                       .claim(JwtConstants.JWT_TOKEN_TYPE_CLAIM_NAME, TokenType.ACCESS.getType());
+    }
+
+    private JwtBuilder claims() {
+        long issuedAtMillis = now.toEpochSecond(ZoneOffset.UTC) * 1000L;
+        return Jwts.builder()
+                   .issuer(TestJwtTokenProviders.ISSUER)
+                   .subject(SUBJECT.userId().toString())
+                   .issuedAt(new Date(issuedAtMillis))
+                   .expiration(new Date(issuedAtMillis + 60_000L));
+    }
+
+    private String sign(JwtBuilder builder) {
+        return builder.signWith(key, Jwts.SIG.HS256)
+                      .compact();
+    }
+}
@@ -0,0 +1,36 @@
+package by.innowise.auth.service.jwt;
+
+import by.innowise.internship.security.config.JwtSecurityProperties;
+import io.jsonwebtoken.Jwts;
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import javax.crypto.SecretKey;
+import java.util.Map;
+
+/**
+ * Builds providers the way the application context does, without starting one.
+ */
+@UtilityClass
+class TestJwtTokenProviders {
+
+    static final String ISSUER = "auth-service-test";
+
+    JwtTokenProvider create(SecretKey key, JwtFormat format) {
+        JwtSecurityProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "application.security.enabled", "true",
+                "application.security.issuer", ISSUER,
+                "application.security.ttl.access", "15m",
+                "application.security.ttl.refresh", "15d")))
+                .bind("application.security", JwtSecurityProperties.class)
+                .get();
+        JwtFormatProperties formatProperties = new JwtFormatProperties();
+        formatProperties.setFormat(format);
+        return new JwtTokenProvider(Jwts.parser()
+                                        .verifyWith(key)
+                                        .requireIssuer(ISSUER)
+                                        .build(),
+                                    properties, key, formatProperties);
+    }
+}
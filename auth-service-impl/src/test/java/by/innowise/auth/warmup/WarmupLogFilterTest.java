@@ -0,0 +1,56 @@
+package by.innowise.auth.warmup;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmupLogFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger applicationLogger = context.getLogger("by.innowise.auth.service.TokenServiceImpl");
+    private final Logger otherLogger = context.getLogger("org.springframework.jdbc.core.JdbcTemplate");
+    private final WarmupLogFilter filter = new WarmupLogFilter("by.innowise.auth");
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void deniesApplicationInfoOfWarmupCalls() {
+        MDC.put(WarmupLogFilter.MDC_KEY, "true");
+
+        assertThat(decide(applicationLogger, Level.INFO)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(applicationLogger, Level.DEBUG)).isEqualTo(FilterReply.DENY);
+    }
+
+    @Test
+    void keepsWarningsOfWarmupCalls() {
+        MDC.put(WarmupLogFilter.MDC_KEY, "true");
+
+        assertThat(decide(applicationLogger, Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(applicationLogger, Level.ERROR)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void keepsOtherLoggersOfWarmupCalls() {
+        MDC.put(WarmupLogFilter.MDC_KEY, "true");
+
+        assertThat(decide(otherLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void keepsApplicationInfoOutsideWarmup() {
+        assertThat(decide(applicationLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "message", null, null);
+    }
+}
@@ -0,0 +1,72 @@
+package by.innowise.auth.loadtest;
+
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.dto.TokenSubject;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
+import by.innowise.internship.security.dto.Role;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Allocation regression check of the validate path: parses the same access token N times on one
+ * thread and fails with exit code 1 when the allocated bytes per validation exceed the budget.
+ * An allocation profile is recorded with JFR and written next to the report when the budget is exceeded,
+ * inspect it with {@code jfr print --events jdk.ObjectAllocationSample}.
+ * Run it with {@code spring-boot:run -Dspring-boot.run.main-class=by.innowise.auth.loadtest.AllocationBudgetCheck}.
+ * <p>
+ * Options: {@code --iterations=100000 --warm-up=20000 --budget-bytes=49152 --jfr=allocation-check.jfr}
+ */
+@Slf4j
+public class AllocationBudgetCheck {
+
+    private static final String ALLOCATION_SAMPLE_EVENT = "jdk.ObjectAllocationSample";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestOptions.parseArguments(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "100000"));
+        int warmUp = Integer.parseInt(options.getOrDefault("warm-up", "20000"));
+        long budget = Long.parseLong(options.getOrDefault("budget-bytes", "49152"));
+        Path jfrOutput = Path.of(options.getOrDefault("jfr", "allocation-check.jfr"));
+
+        JwtTokenProvider provider = TokenProviderFactory.create("AllocationCheck");
+        String token = provider.generate(new TokenSubject(4242L, "allocation@example.com", Role.USER, 7L),
+                                         LocalDateTime.now(ZoneOffset.UTC), TokenType.ACCESS);
+        long checksum = validate(provider, token, warmUp);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        try (Recording recording = new Recording()) {
+            recording.enable(ALLOCATION_SAMPLE_EVENT).with("throttle", "1000/s");
+            recording.start();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            checksum += validate(provider, token, iterations);
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            recording.stop();
+
+            long perValidation = allocated / iterations;
+            log.info("Allocated {} bytes per validation over {} iterations, budget: {} (checksum {})",
+                     perValidation, iterations, budget, checksum);
+            if (perValidation > budget) {
+                recording.dump(jfrOutput);
+                log.error("Allocation budget exceeded, profile written to {}", jfrOutput.toAbsolutePath());
+                System.exit(1);
+            }
+        }
+    }
+
+    private static long validate(JwtTokenProvider provider, String token, int iterations) {
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            ParsedTokenDto parsed = provider.parse(token);
+            checksum += parsed.getExpiresAtEpochSecond();
+        }
+        return checksum;
+    }
+}
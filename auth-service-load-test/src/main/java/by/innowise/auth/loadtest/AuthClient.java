@@ -0,0 +1,84 @@
+package by.innowise.auth.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin blocking client of the public auth endpoints. The same paths are served by the servlet
+ * and the reactive variants, so either can be the target.
+ */
+public class AuthClient {
+
+    private static final String DEFAULT_ROLE = "USER";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    public AuthClient(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Result register(String email, String password) {
+        return post("/auth/register", Map.of("email", email, "password", password, "role", DEFAULT_ROLE));
+    }
+
+    public Result login(String email, String password) {
+        return post("/auth/login", Map.of("email", email, "password", password));
+    }
+
+    public Result refresh(String refreshToken) {
+        return post("/token/refresh", Map.of("token", refreshToken));
+    }
+
+    public Result validate(String accessToken) {
+        return post("/token/validate", Map.of("token", accessToken));
+    }
+
+    private Result post(String path, Map<String, String> body) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                             .timeout(requestTimeout)
+                                             .header("Content-Type", "application/json")
+                                             .POST(HttpRequest.BodyPublishers.ofString(
+                                                     objectMapper.writeValueAsString(body)))
+                                             .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return toResult(response);
+        } catch (IOException e) {
+            return Result.failed();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.failed();
+        }
+    }
+
+    private Result toResult(HttpResponse<String> response) throws JsonProcessingException {
+        boolean success = response.statusCode() / 100 == 2;
+        if (!success || response.body().isEmpty()) {
+            return new Result(success, null, null);
+        }
+        JsonNode tokens = objectMapper.readTree(response.body());
+        return new Result(true, tokens.path("accessToken").asText(null), tokens.path("refreshToken").asText(null));
+    }
+
+    public record Result(boolean success, String accessToken, String refreshToken) {
+
+        static Result failed() {
+            return new Result(false, null, null);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package by.innowise.auth.loadtest;
+
+import by.innowise.auth.AuthApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.Map;
+
+/**
+ * Runs {@link AuthApplication} in-process against a throwaway Postgres container, either its own or
+ * one shared with another variant under test.
+ */
+@Slf4j
+public class EmbeddedAuthService implements AutoCloseable {
+
+    static final String TOKEN_SECRET = "load-test-secret-key-that-is-long-enough-for-hs256";
+
+    private final PostgreSQLContainer<?> postgres;
+    private final boolean ownsPostgres;
+    private final ConfigurableApplicationContext context;
+
+    public EmbeddedAuthService(String postgresImage) {
+        this(startPostgres(postgresImage), true);
+    }
+
+    /**
+     * Runs against a started container, which is left running on {@link #close()}.
+     */
+    public EmbeddedAuthService(PostgreSQLContainer<?> postgres) {
+        this(postgres, false);
+    }
+
+    private EmbeddedAuthService(PostgreSQLContainer<?> postgres, boolean ownsPostgres) {
+        this.postgres = postgres;
+        this.ownsPostgres = ownsPostgres;
+        context = new SpringApplicationBuilder(AuthApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(Map.of(
+                        "APPLICATION_PROFILE", "local",
+                        "DB_URL", postgres.getJdbcUrl(),
+                        "DB_USER", postgres.getUsername(),
+                        "DB_PASSWORD", postgres.getPassword(),
+                        "TOKEN_SECRET", TOKEN_SECRET,
+                        "server.port", "0",
+                        "spring.docker.compose.enabled", "false",
+                        "spring.jpa.show-sql", "false"))
+                .run();
+    }
+
+    public static PostgreSQLContainer<?> startPostgres(String postgresImage) {
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(postgresImage);
+        postgres.start();
+        log.info("Postgres container started: {}", postgres.getJdbcUrl());
+        return postgres;
+    }
+
+    public String baseUrl() {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (ownsPostgres) {
+            postgres.stop();
+        }
+    }
+}
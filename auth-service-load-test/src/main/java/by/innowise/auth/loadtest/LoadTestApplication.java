@@ -0,0 +1,80 @@
+package by.innowise.auth.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a configurable register/login/refresh/validate mix from many virtual-thread clients and
+ * writes throughput and p50/p99/p99.9 latencies per operation to a JSON report.
+ * <p>
+ * Options: {@code --mix=1:5:20:200 --clients=200 --users-per-client=3 --warm-up=15s --duration=60s
+ * --request-timeout=5s --output=load-test-report.json --target-url=http://host:port --postgres-image=...}
+ */
+@Slf4j
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        EmbeddedAuthService embedded = options.targetUrl() == null
+                                       ? new EmbeddedAuthService(options.postgresImage())
+                                       : null;
+        try {
+            String target = embedded != null ? embedded.baseUrl() : options.targetUrl();
+            LoadTestReport report = run(options, target);
+            report.write(options.output(), new ObjectMapper());
+            log.info("Load test finished: {} req/s in total, report written to {}",
+                     Math.round(report.totalThroughput()), options.output().toAbsolutePath());
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    static LoadTestReport run(LoadTestOptions options, String target) throws InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        LatencyRecorder recorder = new LatencyRecorder();
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        Instant startedAt = Instant.now();
+        long deadline = System.nanoTime() + options.warmUp().plus(options.duration()).toNanos();
+
+        try (HttpClient httpClient = HttpClient.newBuilder()
+                                               .executor(Executors.newVirtualThreadPerTaskExecutor())
+                                               .connectTimeout(options.requestTimeout())
+                                               .build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            AuthClient authClient = new AuthClient(httpClient, objectMapper, target, options.requestTimeout());
+            List<SimulatedClient> simulated = new ArrayList<>(options.clients());
+            for (int i = 0; i < options.clients(); i++) {
+                simulated.add(new SimulatedClient(i, runId, authClient, options.mix(), recorder,
+                                                  () -> System.nanoTime() < deadline));
+            }
+            log.info("Seeding {} users per client for {} clients against {}",
+                     options.usersPerClient(), options.clients(), target);
+            simulated.forEach(client -> clients.submit(() -> {
+                client.seed(options.usersPerClient());
+                client.run();
+            }));
+
+            TimeUnit.NANOSECONDS.sleep(options.warmUp().toNanos());
+            recorder.reset();
+            long measuredFrom = System.nanoTime();
+            log.info("Warm-up finished, measuring for {}", options.duration());
+            clients.shutdown();
+            clients.awaitTermination(options.duration().plus(options.requestTimeout()).toMillis(),
+                                     TimeUnit.MILLISECONDS);
+            Duration measured = Duration.ofNanos(System.nanoTime() - measuredFrom);
+            return LoadTestReport.of(options, target, startedAt, measured, recorder);
+        }
+    }
+}
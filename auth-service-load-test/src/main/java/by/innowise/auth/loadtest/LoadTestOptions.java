@@ -0,0 +1,53 @@
+package by.innowise.auth.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options in the {@code --name=value} form.
+ *
+ * @param targetUrl base url of an already running service, the service is started in-process when absent
+ */
+public record LoadTestOptions(
+        TrafficMix mix,
+        int clients,
+        int usersPerClient,
+        Duration warmUp,
+        Duration duration,
+        Duration requestTimeout,
+        Path output,
+        String targetUrl,
+        String postgresImage
+) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = parseArguments(args);
+        return new LoadTestOptions(
+                TrafficMix.parse(values.getOrDefault("mix", "1:5:20:200")),
+                Integer.parseInt(values.getOrDefault("clients", "200")),
+                Integer.parseInt(values.getOrDefault("users-per-client", "3")),
+                Duration.parse("PT" + values.getOrDefault("warm-up", "15s")),
+                Duration.parse("PT" + values.getOrDefault("duration", "60s")),
+                Duration.parse("PT" + values.getOrDefault("request-timeout", "5s")),
+                Path.of(values.getOrDefault("output", "load-test-report.json")),
+                values.get("target-url"),
+                values.getOrDefault("postgres-image", "postgres:17-alpine"));
+    }
+
+    /**
+     * @return option values by name, also used by the single-purpose checks of this module
+     */
+    public static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value argument, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,75 @@
+package by.innowise.auth.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Machine-readable summary of one run, latencies are in milliseconds.
+ */
+public record LoadTestReport(
+        Instant startedAt,
+        String target,
+        String mix,
+        int clients,
+        double durationSeconds,
+        double totalThroughput,
+        Map<Operation, OperationStats> operations
+) {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    public static LoadTestReport of(LoadTestOptions options, String target, Instant startedAt,
+                                    Duration measured, LatencyRecorder recorder) {
+        double seconds = measured.toNanos() / 1_000_000_000.0;
+        Map<Operation, OperationStats> operations = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Operation, Histogram> entry : recorder.histograms().entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total += histogram.getTotalCount();
+            operations.put(entry.getKey(), new OperationStats(
+                    histogram.getTotalCount(),
+                    recorder.errors(entry.getKey()),
+                    histogram.getTotalCount() / seconds,
+                    toMillis(histogram.getValueAtPercentile(50)),
+                    toMillis(histogram.getValueAtPercentile(99)),
+                    toMillis(histogram.getValueAtPercentile(99.9)),
+                    toMillis(histogram.getMaxValue())));
+        }
+        return new LoadTestReport(startedAt, target, options.mix().toString(), options.clients(),
+                                  seconds, total / seconds, operations);
+    }
+
+    public void write(Path output, ObjectMapper objectMapper) throws IOException {
+        objectMapper.copy()
+                    .findAndRegisterModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(output.toFile(), this);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    public record OperationStats(
+            long requests,
+            long errors,
+            double throughput,
+            double p50,
+            double p99,
+            double p999,
+            double max
+    ) {
+    }
+}
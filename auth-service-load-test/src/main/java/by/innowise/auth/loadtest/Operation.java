@@ -0,0 +1,13 @@
+package by.innowise.auth.loadtest;
+
+/**
+ * Requests a simulated client can issue, in the order their weights are given in {@code --mix}.
+ */
+public enum Operation {
+
+    REGISTER,
+    LOGIN,
+    REFRESH,
+    VALIDATE,
+    VALIDATE_INVALID
+}
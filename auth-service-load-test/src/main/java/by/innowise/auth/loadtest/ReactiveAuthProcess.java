@@ -0,0 +1,100 @@
+package by.innowise.auth.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the reactive variant from its jar in a separate JVM against a started Postgres container. It
+ * can't run in-process next to {@link EmbeddedAuthService}: the servlet variant scans the reactive
+ * packages too. The schema is migrated by the servlet variant, so start that one first.
+ */
+@Slf4j
+public class ReactiveAuthProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final String HEALTH_PATH = "/actuator/health";
+
+    private final Process process;
+    private final int port;
+
+    public ReactiveAuthProcess(Path jar, PostgreSQLContainer<?> postgres) throws IOException, InterruptedException {
+        port = freePort();
+        Path output = Files.createTempFile("auth-service-reactive-", ".log");
+        ProcessBuilder builder = new ProcessBuilder(javaCommand(), "-jar", jar.toString(), "--server.port=" + port)
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile());
+        builder.environment().putAll(Map.of(
+                "R2DBC_URL", "r2dbc:postgresql://%s:%d/%s".formatted(
+                        postgres.getHost(), postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                        postgres.getDatabaseName()),
+                "DB_USER", postgres.getUsername(),
+                "DB_PASSWORD", postgres.getPassword(),
+                "TOKEN_SECRET", EmbeddedAuthService.TOKEN_SECRET));
+        process = builder.start();
+        log.info("Reactive variant started from {}, output: {}", jar, output);
+        awaitHealthy(output);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(STARTUP_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private void awaitHealthy(Path output) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + HEALTH_PATH))
+                                         .timeout(POLL_INTERVAL)
+                                         .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The reactive variant exited, see " + output);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    log.debug("The reactive variant is not up yet: {}", e.getMessage());
+                }
+                TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL.toMillis());
+            }
+        }
+        process.destroyForcibly();
+        throw new IllegalStateException("The reactive variant didn't become healthy within %s, see %s"
+                                                .formatted(STARTUP_TIMEOUT, output));
+    }
+
+    private static String javaCommand() {
+        return ProcessHandle.current()
+                            .info()
+                            .command()
+                            .orElse("java");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package by.innowise.auth.loadtest;
+
+import by.innowise.auth.advice.GlobalHandler;
+import by.innowise.auth.advice.TokenRejectionLog;
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.service.dto.TokenSubject;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
+import by.innowise.internship.security.dto.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cost per request of the validate path for a valid token and for the common kinds of rejected tokens:
+ * parsing plus, for rejections, {@link GlobalHandler} turning the exception into the response.
+ * Prints nanoseconds and allocated bytes per request, measured on one thread after a warm-up.
+ * Run it with {@code spring-boot:run -Dspring-boot.run.main-class=by.innowise.auth.loadtest.RejectionCostCheck}.
+ * <p>
+ * Options: {@code --iterations=200000 --warm-up=50000}
+ */
+@Slf4j
+public class RejectionCostCheck {
+
+    private static final TokenSubject SUBJECT = new TokenSubject(4242L, "rejection@example.com", Role.USER, 7L);
+
+    public static void main(String[] args) {
+        Map<String, String> options = LoadTestOptions.parseArguments(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "200000"));
+        int warmUp = Integer.parseInt(options.getOrDefault("warm-up", "50000"));
+
+        JwtTokenProvider provider = TokenProviderFactory.create("RejectionCheck");
+        GlobalHandler handler = new GlobalHandler(new TokenRejectionLog(new SimpleMeterRegistry()));
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        String valid = provider.generate(SUBJECT, now, TokenType.ACCESS);
+        Map<String, String> tokens = new LinkedHashMap<>();
+        tokens.put("valid", valid);
+        tokens.put("expired", provider.generate(SUBJECT, now.minusDays(1), TokenType.ACCESS));
+        tokens.put("forged", valid.substring(0, valid.length() - 4) + "AAAA");
+        tokens.put("malformed", "not-a-token");
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        tokens.forEach((kind, token) -> {
+            long checksum = validate(provider, handler, token, warmUp);
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            checksum += validate(provider, handler, token, iterations);
+            long nanos = System.nanoTime() - start;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            log.info("{}: {} ns and {} bytes per request over {} iterations (checksum {})",
+                     kind, nanos / iterations, allocated / iterations, iterations, checksum);
+        });
+    }
+
+    private static long validate(JwtTokenProvider provider, GlobalHandler handler, String token, int iterations) {
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            try {
+                checksum += provider.parse(token).getExpiresAtEpochSecond();
+            } catch (TokenValidationException e) {
+                checksum += handler.handle(e).getStatusCode().value();
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,70 @@
+package by.innowise.auth.loadtest;
+
+import by.innowise.auth.service.dto.TokenSubject;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.service.jwt.JwtFormat;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
+import by.innowise.internship.security.dto.Role;
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compares the token formats: size of the access, refresh and stateless refresh tokens of each format,
+ * and nanoseconds and allocated bytes per access token parse, measured on one thread after a warm-up.
+ * Run it with {@code spring-boot:run -Dspring-boot.run.main-class=by.innowise.auth.loadtest.TokenFormatCheck}.
+ * <p>
+ * Options: {@code --iterations=200000 --warm-up=50000}
+ */
+@Slf4j
+public class TokenFormatCheck {
+
+    private static final TokenSubject SUBJECT = new TokenSubject(4242L, "token-format@example.com", Role.USER, 7L);
+
+    public static void main(String[] args) {
+        Map<String, String> options = LoadTestOptions.parseArguments(args);
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "200000"));
+        int warmUp = Integer.parseInt(options.getOrDefault("warm-up", "50000"));
+
+        SecretKey key = Jwts.SIG.HS256.key().build();
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (JwtFormat format : JwtFormat.values()) {
+            JwtTokenProvider provider = TokenProviderFactory.create(key, format, "TokenFormatCheck");
+            String access = provider.generate(SUBJECT, now, TokenType.ACCESS);
+            String refresh = provider.generate(SUBJECT, now, TokenType.REFRESH);
+            String stateless = provider.generateEncrypted(SUBJECT, now, UUID.randomUUID(), 3);
+            log.info("{}: access {} bytes, refresh {} bytes, stateless refresh {} bytes",
+                     format, size(access), size(refresh), size(stateless));
+
+            long checksum = parse(provider, access, warmUp);
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            checksum += parse(provider, access, iterations);
+            long nanos = System.nanoTime() - start;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            log.info("{}: {} ns and {} bytes per access token parse over {} iterations (checksum {})",
+                     format, nanos / iterations, allocated / iterations, iterations, checksum);
+        }
+    }
+
+    private static int size(String token) {
+        return token.getBytes(StandardCharsets.US_ASCII).length;
+    }
+
+    private static long parse(JwtTokenProvider provider, String token, int iterations) {
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += provider.parse(token).getExpiresAtEpochSecond();
+        }
+        return checksum;
+    }
+}
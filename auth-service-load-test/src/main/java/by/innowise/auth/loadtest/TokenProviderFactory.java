@@ -0,0 +1,38 @@
+package by.innowise.auth.loadtest;
+
+import by.innowise.auth.service.jwt.JwtFormat;
+import by.innowise.auth.service.jwt.JwtFormatProperties;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
+import by.innowise.internship.security.config.JwtSecurityProperties;
+import io.jsonwebtoken.Jwts;
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import javax.crypto.SecretKey;
+import java.util.Map;
+
+/**
+ * Builds a {@link JwtTokenProvider} configured like the service's, for the checks that measure the
+ * validate path in-process without starting the service.
+ */
+@UtilityClass
+public class TokenProviderFactory {
+
+    public JwtTokenProvider create(String issuer) {
+        return create(Jwts.SIG.HS256.key().build(), JwtFormat.LEGACY, issuer);
+    }
+
+    public JwtTokenProvider create(SecretKey key, JwtFormat format, String issuer) {
+        JwtSecurityProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "application.security.enabled", "true",
+                "application.security.issuer", issuer,
+                "application.security.ttl.access", "15m",
+                "application.security.ttl.refresh", "15d")))
+                .bind("application.security", JwtSecurityProperties.class)
+                .get();
+        JwtFormatProperties formatProperties = new JwtFormatProperties();
+        formatProperties.setFormat(format);
+        return new JwtTokenProvider(Jwts.parser().verifyWith(key).build(), properties, key, formatProperties);
+    }
+}
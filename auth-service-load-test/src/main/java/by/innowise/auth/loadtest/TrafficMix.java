@@ -0,0 +1,66 @@
+package by.innowise.auth.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted choice between operations parsed from a ratio such as {@code 1:5:20:200}
+ * (register:login:refresh:validate, with an optional fifth weight for invalid-token validation).
+ */
+public final class TrafficMix {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final int[] cumulativeWeights;
+
+    private TrafficMix(int[] weights) {
+        cumulativeWeights = new int[weights.length];
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulativeWeights[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("Traffic mix must have at least one positive weight");
+        }
+    }
+
+    public static TrafficMix parse(String ratio) {
+        int[] weights = Arrays.stream(ratio.split(":"))
+                              .map(String::trim)
+                              .mapToInt(Integer::parseInt)
+                              .toArray();
+        if (weights.length < 4 || weights.length > OPERATIONS.length) {
+            throw new IllegalArgumentException(
+                    "Traffic mix must be register:login:refresh:validate[:validate_invalid], got: " + ratio);
+        }
+        if (Arrays.stream(weights).anyMatch(w -> w < 0)) {
+            throw new IllegalArgumentException("Traffic mix weights can't be negative: " + ratio);
+        }
+        return new TrafficMix(weights);
+    }
+
+    public Operation next() {
+        int point = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return OPERATIONS[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable traffic mix point: " + point);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder ratio = new StringBuilder();
+        int previous = 0;
+        for (int weight : cumulativeWeights) {
+            if (!ratio.isEmpty()) {
+                ratio.append(':');
+            }
+            ratio.append(weight - previous);
+            previous = weight;
+        }
+        return ratio.toString();
+    }
+}
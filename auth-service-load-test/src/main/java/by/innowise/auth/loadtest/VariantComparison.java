@@ -0,0 +1,65 @@
+package by.innowise.auth.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Benchmarks the servlet (MVC/JDBC) variant against the reactive (WebFlux/R2DBC) one: runs the same mix
+ * against each in turn, on one Postgres container, and writes a report per variant next to
+ * {@code --output} with a {@code -mvc}/{@code -reactive} suffix. Build the reactive jar first, then run it
+ * with {@code spring-boot:run -Dspring-boot.run.main-class=by.innowise.auth.loadtest.VariantComparison}.
+ * <p>
+ * Options: those of {@link LoadTestApplication} except {@code --target-url}, and
+ * {@code --reactive-jar=../auth-service-reactive/target/auth-service-reactive-1.0.0.jar}
+ */
+@Slf4j
+public class VariantComparison {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Path reactiveJar = Path.of(LoadTestOptions.parseArguments(args).getOrDefault(
+                "reactive-jar", "../auth-service-reactive/target/auth-service-reactive-1.0.0.jar"));
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        PostgreSQLContainer<?> postgres = EmbeddedAuthService.startPostgres(options.postgresImage());
+        try {
+            LoadTestReport mvc;
+            try (EmbeddedAuthService embedded = new EmbeddedAuthService(postgres)) {
+                mvc = LoadTestApplication.run(options, embedded.baseUrl());
+            }
+            mvc.write(withSuffix(options.output(), "mvc"), objectMapper);
+
+            LoadTestReport reactive;
+            try (ReactiveAuthProcess process = new ReactiveAuthProcess(reactiveJar, postgres)) {
+                reactive = LoadTestApplication.run(options, process.baseUrl());
+            }
+            reactive.write(withSuffix(options.output(), "reactive"), objectMapper);
+
+            log.info("Total: mvc {} req/s, reactive {} req/s",
+                     Math.round(mvc.totalThroughput()), Math.round(reactive.totalThroughput()));
+            for (Map.Entry<Operation, LoadTestReport.OperationStats> entry : mvc.operations().entrySet()) {
+                LoadTestReport.OperationStats other = reactive.operations().get(entry.getKey());
+                if (other != null) {
+                    log.info("{}: mvc {} req/s p99 {} ms, reactive {} req/s p99 {} ms", entry.getKey(),
+                             Math.round(entry.getValue().throughput()), entry.getValue().p99(),
+                             Math.round(other.throughput()), other.p99());
+                }
+            }
+        } finally {
+            postgres.stop();
+        }
+    }
+
+    private static Path withSuffix(Path output, String suffix) {
+        String name = output.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String suffixed = extension < 0
+                ? name + "-" + suffix
+                : name.substring(0, extension) + "-" + suffix + name.substring(extension);
+        return output.resolveSibling(suffixed);
+    }
+}
@@ -0,0 +1,18 @@
+package by.innowise.auth.reactive;
+
+import by.innowise.auth.service.jwt.JwtFormatProperties;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
+
+@SpringBootApplication
+@Import(JwtTokenProvider.class)
+@EnableConfigurationProperties(JwtFormatProperties.class)
+public class ReactiveAuthApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveAuthApplication.class, args);
+    }
+}
@@ -0,0 +1,77 @@
+package by.innowise.auth.reactive.advice;
+
+import by.innowise.auth.reactive.exception.EmailNotAvailableException;
+import by.innowise.common.library.exception.ApplicationException;
+import by.innowise.common.library.exception.dto.ComplexExceptionDto;
+import by.innowise.common.library.exception.dto.SimpleExceptionDto;
+import by.innowise.common.library.exception.dto.StructuredExceptionDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.List;
+
+@RestControllerAdvice
+@Slf4j
+public class ReactiveGlobalHandler {
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<SimpleExceptionDto> handle(Exception e) {
+        log.error("Internal server error", e);
+        return ResponseEntity.internalServerError()
+                             .body(new SimpleExceptionDto(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                                                          e.getMessage()));
+    }
+
+    @ExceptionHandler(ApplicationException.class)
+    public ResponseEntity<SimpleExceptionDto> handle(ApplicationException e) {
+        log.error("Application error: ", e);
+        return ResponseEntity.status(e.getHttpStatus())
+                             .body(new SimpleExceptionDto(e.getHttpStatus().value(),
+                                                          e.getMessage()));
+    }
+
+    /**
+     * Keeps the servlet contract, where a taken email is reported as a field error of the request body.
+     */
+    @ExceptionHandler(EmailNotAvailableException.class)
+    public ResponseEntity<ComplexExceptionDto> handle(EmailNotAvailableException e) {
+        log.error("Invalid user input: {}", e.getMessage());
+        return ResponseEntity.badRequest()
+                             .body(new ComplexExceptionDto(HttpStatus.BAD_REQUEST.value(),
+                                                           List.of(new StructuredExceptionDto("email",
+                                                                                              e.getMessage()))));
+    }
+
+    /**
+     * Occurred when some constraints were violated inside {@code @RequestBody}
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ComplexExceptionDto> handle(WebExchangeBindException e) {
+        log.error("Invalid user input: {}", e.getMessage());
+        List<StructuredExceptionDto> errors =
+                e.getBindingResult().getFieldErrors().stream()
+                 .map(er -> new StructuredExceptionDto(
+                         er.getField(),
+                         er.getDefaultMessage()))
+                 .toList();
+        return ResponseEntity.badRequest()
+                             .body(new ComplexExceptionDto(HttpStatus.BAD_REQUEST.value(), errors));
+    }
+
+    /**
+     * Occurred when there is invalid JSON, an empty {@code @RequestBody} or a type mismatch.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<SimpleExceptionDto> handle(ServerWebInputException e) {
+        log.error("Failed to read a request: {}", e.getReason(), e);
+        String message = e.getReason() != null ? e.getReason() : "Incorrect JSON or invalid request body!";
+        return ResponseEntity.badRequest()
+                             .body(new SimpleExceptionDto(HttpStatus.BAD_REQUEST.value(), message));
+    }
+
+}
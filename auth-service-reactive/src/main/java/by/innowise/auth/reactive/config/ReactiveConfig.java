@@ -0,0 +1,29 @@
+package by.innowise.auth.reactive.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@EnableR2dbcAuditing
+@EnableConfigurationProperties(ReactiveProperties.class)
+public class ReactiveConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordHashingScheduler(ReactiveProperties properties) {
+        ReactiveProperties.PasswordHashing passwordHashing = properties.getPasswordHashing();
+        return Schedulers.newBoundedElastic(passwordHashing.getThreads(),
+                                            passwordHashing.getQueueSize(),
+                                            "password-hashing");
+    }
+}
@@ -0,0 +1,25 @@
+package by.innowise.auth.reactive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.reactive")
+public class ReactiveProperties {
+
+    private PasswordHashing passwordHashing = new PasswordHashing();
+
+    @Getter
+    @Setter
+    public static class PasswordHashing {
+
+        /**
+         * BCrypt is CPU bound and blocking, it runs on a bounded scheduler instead of the event loop.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        private int queueSize = 10_000;
+    }
+}
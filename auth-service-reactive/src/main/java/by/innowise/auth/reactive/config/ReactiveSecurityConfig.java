@@ -0,0 +1,89 @@
+package by.innowise.auth.reactive.config;
+
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private static final String[] WHITELIST_PATHS = {
+            "/auth/register", "/auth/login",
+            "/token", "/token/**",
+            "/actuator/health", "/actuator/health/**"};
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String SECURITY_ROLE_PREFIX = "ROLE_";
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtTokenProvider jwtTokenProvider) {
+        HttpStatusServerEntryPoint unauthorized = new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED);
+        AuthenticationWebFilter bearerFilter = new AuthenticationWebFilter(accessTokenManager(jwtTokenProvider));
+        bearerFilter.setServerAuthenticationConverter(this::extractBearerToken);
+        bearerFilter.setRequiresAuthenticationMatcher(
+                new NegatedServerWebExchangeMatcher(ServerWebExchangeMatchers.pathMatchers(WHITELIST_PATHS)));
+        bearerFilter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(unauthorized));
+
+        return http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                   .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                   .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                   .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                   .authorizeExchange(exchanges -> exchanges
+                           .pathMatchers(WHITELIST_PATHS).permitAll()
+                           .anyExchange().authenticated())
+                   .exceptionHandling(configurer -> configurer
+                           .authenticationEntryPoint(unauthorized)
+                           .accessDeniedHandler((exchange, e) -> Mono.fromRunnable(
+                                   () -> exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN))))
+                   .addFilterAt(bearerFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                   .build();
+    }
+
+    private Mono<Authentication> extractBearerToken(ServerWebExchange exchange) {
+        return Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                   .filter(header -> header.startsWith(BEARER_PREFIX))
+                   .map(header -> new UsernamePasswordAuthenticationToken(null,
+                                                                          header.substring(BEARER_PREFIX.length())));
+    }
+
+    private ReactiveAuthenticationManager accessTokenManager(JwtTokenProvider jwtTokenProvider) {
+        return authentication -> Mono.<Authentication>fromCallable(() -> {
+                                         String token = (String) authentication.getCredentials();
+                                         ParsedTokenDto parsed = jwtTokenProvider.parse(token);
+                                         if (parsed.getTokenType() != TokenType.ACCESS) {
+                                             throw new BadCredentialsException("Only ACCESS tokens are accepted");
+                                         }
+                                         return UsernamePasswordAuthenticationToken.authenticated(
+                                                 parsed.getUserId(), null,
+                                                 List.of(new SimpleGrantedAuthority(
+                                                         SECURITY_ROLE_PREFIX + parsed.getRole())));
+                                     })
+                                     .onErrorMap(TokenValidationException.class,
+                                                 e -> new BadCredentialsException(e.getMessage(), e));
+    }
+}
@@ -0,0 +1,48 @@
+package by.innowise.auth.reactive.controller;
+
+import by.innowise.auth.dto.AuthDetails;
+import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.reactive.dto.RegisterRequestDto;
+import by.innowise.auth.reactive.service.facade.ReactiveAuthFacade;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/auth")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final ReactiveAuthFacade authFacade;
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<TokenResponseDto>> register(@RequestBody @Valid RegisterRequestDto registerRequest) {
+        log.info("Requested to create a user: {}", registerRequest.email());
+        return authFacade.register(registerRequest)
+                         .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<TokenResponseDto>> authenticate(@RequestBody @Valid AuthDetails authDetails) {
+        log.info("Requested to authenticate user: {}", authDetails.email());
+        return authFacade.login(authDetails)
+                         .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/remove")
+    public Mono<ResponseEntity<Void>> delete(@AuthenticationPrincipal Long userId) {
+        log.info("Requested to delete a user: {}", userId);
+        return authFacade.delete(userId)
+                         .then(Mono.fromSupplier(() -> ResponseEntity.ok().build()));
+    }
+
+}
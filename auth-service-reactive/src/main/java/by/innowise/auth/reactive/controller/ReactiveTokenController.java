@@ -0,0 +1,36 @@
+package by.innowise.auth.reactive.controller;
+
+import by.innowise.auth.dto.token.TokenRequestDto;
+import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.reactive.service.facade.ReactiveAuthFacade;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/token")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveTokenController {
+
+    private final ReactiveAuthFacade authFacade;
+
+    @PostMapping("/validate")
+    public Mono<ResponseEntity<Void>> validate(@RequestBody @Valid TokenRequestDto tokenRequest) {
+        return authFacade.validate(tokenRequest)
+                         .then(Mono.fromSupplier(() -> ResponseEntity.ok().build()));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<TokenResponseDto>> refresh(@RequestBody @Valid TokenRequestDto tokenRequest) {
+        return authFacade.refresh(tokenRequest)
+                         .map(ResponseEntity::ok);
+    }
+
+}
@@ -0,0 +1,28 @@
+package by.innowise.auth.reactive.dto;
+
+import by.innowise.common.library.validation.EnumValidator;
+import by.innowise.internship.security.dto.Role;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Same contract as {@code UserCreateDto}. Email availability needs a database call,
+ * so it is checked inside the reactive pipeline instead of a blocking constraint validator.
+ */
+public record RegisterRequestDto(
+
+        @NotBlank(message = "User email address can't be null")
+        @Email(message = "Invalid email address")
+        @Size(max = 255, message = "User email can't exceed 255 symbols")
+        String email,
+
+        @NotBlank(message = "User password can't be blank")
+        @Size(min = 8, max = 64, message = "User password should be min 8 symbols and not exceed 64 symbols")
+        String password,
+
+        @NotBlank(message = "User role can't be blank")
+        @EnumValidator(enumClass = Role.class)
+        String role
+) {
+}
@@ -0,0 +1,11 @@
+package by.innowise.auth.reactive.exception;
+
+import by.innowise.common.library.exception.ApplicationException;
+import org.springframework.http.HttpStatus;
+
+public class EmailNotAvailableException extends ApplicationException {
+
+    public EmailNotAvailableException(String message, HttpStatus httpStatus) {
+        super(message, httpStatus);
+    }
+}
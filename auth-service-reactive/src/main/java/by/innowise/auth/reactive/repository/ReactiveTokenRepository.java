@@ -0,0 +1,14 @@
+package by.innowise.auth.reactive.repository;
+
+import by.innowise.auth.reactive.repository.entity.RefreshTokenRecord;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveTokenRepository extends R2dbcRepository<RefreshTokenRecord, UUID> {
+
+    Mono<RefreshTokenRecord> findByTokenHash(String tokenHash);
+
+    Mono<RefreshTokenRecord> findByUserId(Long userId);
+}
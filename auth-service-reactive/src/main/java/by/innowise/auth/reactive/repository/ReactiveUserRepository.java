@@ -0,0 +1,13 @@
+package by.innowise.auth.reactive.repository;
+
+import by.innowise.auth.reactive.repository.entity.UserRecord;
+import by.innowise.auth.repository.entity.UserStatus;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends R2dbcRepository<UserRecord, Long> {
+
+    Mono<UserRecord> findByEmailAndStatus(String email, UserStatus status);
+
+    Mono<UserRecord> findByIdAndStatus(Long id, UserStatus status);
+}
@@ -0,0 +1,50 @@
+package by.innowise.auth.reactive.repository.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The id is assigned by the application, a {@code null} version marks the record as new.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(schema = "app", name = "refresh_tokens")
+public class RefreshTokenRecord {
+
+    @Id
+    private UUID id;
+
+    @Column("hashed_token")
+    private String tokenHash;
+
+    @Column("expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column("user_id")
+    private Long userId;
+
+    @CreatedDate
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column("version")
+    private Long version;
+}
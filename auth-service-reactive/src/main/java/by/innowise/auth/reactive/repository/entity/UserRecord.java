@@ -0,0 +1,53 @@
+package by.innowise.auth.reactive.repository.entity;
+
+import by.innowise.auth.repository.entity.UserStatus;
+import by.innowise.internship.security.dto.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(schema = "app", name = "auth_users")
+public class UserRecord {
+
+    @Id
+    private Long id;
+
+    @Column("email")
+    private String email;
+
+    @ToString.Exclude
+    @Column("password")
+    private String password;
+
+    @Column("role")
+    private Role role;
+
+    @Column("status")
+    private UserStatus status;
+
+    @CreatedDate
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column("version")
+    private Long version;
+}
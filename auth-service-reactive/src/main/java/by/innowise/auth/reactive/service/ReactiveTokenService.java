@@ -0,0 +1,25 @@
+package by.innowise.auth.reactive.service;
+
+import by.innowise.auth.dto.token.TokenRequestDto;
+import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.reactive.repository.entity.RefreshTokenRecord;
+import by.innowise.auth.reactive.repository.entity.UserRecord;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTokenService {
+
+    Mono<TokenResponseDto> generate(UserRecord user);
+
+    void validate(TokenRequestDto token);
+
+    ParsedTokenDto getParsedTokenClaims(TokenRequestDto tokenRequest);
+
+    Mono<RefreshTokenRecord> getRefreshTokenByTokenHash(String hashedToken);
+
+    Mono<RefreshTokenRecord> getRefreshTokenByUserId(Long userId);
+
+    Mono<Void> deleteForUser(Long userId);
+
+    Mono<Void> clearTokenIfStored(String hashedToken);
+}
@@ -0,0 +1,19 @@
+package by.innowise.auth.reactive.service;
+
+import by.innowise.auth.dto.AuthDetails;
+import by.innowise.auth.reactive.dto.RegisterRequestDto;
+import by.innowise.auth.reactive.repository.entity.UserRecord;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserService {
+
+    Mono<Boolean> isEmailFree(String email);
+
+    Mono<UserRecord> create(RegisterRequestDto registerRequest);
+
+    Mono<UserRecord> getActiveById(Long userId);
+
+    Mono<UserRecord> authenticate(AuthDetails authDetails);
+
+    Mono<Void> delete(Long userId);
+}
@@ -0,0 +1,20 @@
+package by.innowise.auth.reactive.service.facade;
+
+import by.innowise.auth.dto.AuthDetails;
+import by.innowise.auth.dto.token.TokenRequestDto;
+import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.reactive.dto.RegisterRequestDto;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAuthFacade {
+
+    Mono<TokenResponseDto> register(RegisterRequestDto registerRequest);
+
+    Mono<Void> validate(TokenRequestDto tokenRequest);
+
+    Mono<TokenResponseDto> refresh(TokenRequestDto tokenRequest);
+
+    Mono<TokenResponseDto> login(AuthDetails authDetails);
+
+    Mono<Void> delete(Long userId);
+}
@@ -0,0 +1,136 @@
+package by.innowise.auth.reactive.service.facade;
+
+import by.innowise.auth.dto.AuthDetails;
+import by.innowise.auth.dto.token.TokenRequestDto;
+import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.exception.TokenValidationException;
+import by.innowise.auth.reactive.dto.RegisterRequestDto;
+import by.innowise.auth.reactive.exception.EmailNotAvailableException;
+import by.innowise.auth.reactive.repository.entity.RefreshTokenRecord;
+import by.innowise.auth.reactive.repository.entity.UserRecord;
+import by.innowise.auth.reactive.service.ReactiveTokenService;
+import by.innowise.auth.reactive.service.ReactiveUserService;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.util.TokenHasher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@code AuthFacadeImpl}, keeps the same validation and rotation rules.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveAuthFacadeImpl implements ReactiveAuthFacade {
+
+    private static final String EMAIL_NOT_AVAILABLE_MESSAGE = "The user with such email address already exists!";
+
+    private final ReactiveUserService userService;
+    private final ReactiveTokenService tokenService;
+
+    @Transactional
+    @Override
+    public Mono<TokenResponseDto> register(RegisterRequestDto registerRequest) {
+        return userService.isEmailFree(registerRequest.email())
+                          .flatMap(free -> free
+                                  ? userService.create(registerRequest)
+                                  : Mono.error(new EmailNotAvailableException(EMAIL_NOT_AVAILABLE_MESSAGE,
+                                                                              HttpStatus.BAD_REQUEST)))
+                          .doOnNext(user -> log.info("Invoking token service to generate a token for a user: {}",
+                                                     user.getId()))
+                          .flatMap(tokenService::generate);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Mono<Void> validate(TokenRequestDto tokenRequest) {
+        return Mono.fromCallable(() -> validateAndParse(tokenRequest))
+                   .flatMap(parsed -> getValidatedUser(tokenRequest, parsed))
+                   .then();
+    }
+
+    @Transactional
+    @Override
+    public Mono<TokenResponseDto> refresh(TokenRequestDto tokenRequest) {
+        return Mono.fromCallable(() -> validateAndParse(tokenRequest))
+                   .doOnNext(this::checkIfRefreshToken)
+                   .flatMap(parsed -> getValidatedUser(tokenRequest, parsed))
+                   .flatMap(user -> refreshTokenByTokenHash(user, TokenHasher.hashSha256(tokenRequest.token())));
+    }
+
+    @Transactional
+    @Override
+    public Mono<TokenResponseDto> login(AuthDetails authDetails) {
+        return userService.authenticate(authDetails)
+                          .doOnNext(user -> log.info("Retrieved a user from user service: {}", user))
+                          .flatMap(this::refreshTokenByUser);
+    }
+
+    @Transactional
+    @Override
+    public Mono<Void> delete(Long userId) {
+        return tokenService.deleteForUser(userId)
+                           .then(userService.delete(userId));
+    }
+
+    private ParsedTokenDto validateAndParse(TokenRequestDto tokenRequest) {
+        return tokenService.getParsedTokenClaims(tokenRequest);
+    }
+
+    private Mono<UserRecord> getValidatedUser(TokenRequestDto tokenRequest, ParsedTokenDto parsedTokenDto) {
+        return userService.getActiveById(parsedTokenDto.getUserId())
+                          .switchIfEmpty(Mono.defer(
+                                  () -> clearRefreshTokenIfStored(tokenRequest, parsedTokenDto)
+                                          .then(Mono.error(new TokenValidationException(
+                                                  "The subject user is not found or deactivated",
+                                                  HttpStatus.UNAUTHORIZED)))))
+                          .flatMap(user -> tokenClaimsIsNotConsistent(user, parsedTokenDto)
+                                  ? clearRefreshTokenIfStored(tokenRequest, parsedTokenDto)
+                                          .then(Mono.error(new TokenValidationException(
+                                                  "Token contains insufficient data", HttpStatus.UNAUTHORIZED)))
+                                  : Mono.just(user));
+    }
+
+    private void checkIfRefreshToken(ParsedTokenDto parsedTokenDto) {
+        if (parsedTokenDto.getTokenType() != TokenType.REFRESH) {
+            throw new TokenValidationException(
+                    "Token type [%s] can't be refreshed, cause it's not a REFRESH token".formatted(
+                            parsedTokenDto.getTokenType().getType()), HttpStatus.CONFLICT);
+        }
+    }
+
+    private Mono<TokenResponseDto> refreshTokenByTokenHash(UserRecord user, String hashedToken) {
+        return tokenService.getRefreshTokenByTokenHash(hashedToken)
+                           .flatMap(t -> replaceRefreshToken(user, t))
+                           .switchIfEmpty(Mono.defer(() -> tokenService.generate(user)));
+    }
+
+    private Mono<TokenResponseDto> refreshTokenByUser(UserRecord user) {
+        return tokenService.getRefreshTokenByUserId(user.getId())
+                           .flatMap(t -> replaceRefreshToken(user, t))
+                           .switchIfEmpty(Mono.defer(() -> tokenService.generate(user)));
+    }
+
+    private Mono<TokenResponseDto> replaceRefreshToken(UserRecord user, RefreshTokenRecord token) {
+        log.info("Refresh token found: {}", token.getId());
+        return tokenService.clearTokenIfStored(token.getTokenHash())
+                           .then(Mono.defer(() -> tokenService.generate(user)));
+    }
+
+    private boolean tokenClaimsIsNotConsistent(UserRecord user, ParsedTokenDto parsedTokenDto) {
+        return user.getRole() != parsedTokenDto.getRole()
+                || !parsedTokenDto.matchesEmail(user.getEmail());
+    }
+
+    private Mono<Void> clearRefreshTokenIfStored(TokenRequestDto tokenRequest, ParsedTokenDto parsedTokenDto) {
+        if (parsedTokenDto.getTokenType() == TokenType.REFRESH) {
+            return tokenService.clearTokenIfStored(TokenHasher.hashSha256(tokenRequest.token()));
+        }
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,94 @@
+package by.innowise.auth.reactive.service.impl;
+
+import by.innowise.auth.dto.token.TokenRequestDto;
+import by.innowise.auth.dto.token.TokenResponseDto;
+import by.innowise.auth.reactive.repository.ReactiveTokenRepository;
+import by.innowise.auth.reactive.repository.entity.RefreshTokenRecord;
+import by.innowise.auth.reactive.repository.entity.UserRecord;
+import by.innowise.auth.reactive.service.ReactiveTokenService;
+import by.innowise.auth.service.dto.ParsedTokenDto;
+import by.innowise.auth.service.dto.TokenSubject;
+import by.innowise.auth.service.dto.TokenType;
+import by.innowise.auth.service.jwt.JwtTokenProvider;
+import by.innowise.auth.util.TokenHasher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveTokenServiceImpl implements ReactiveTokenService {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ReactiveTokenRepository tokenRepository;
+
+    @Transactional
+    @Override
+    public Mono<TokenResponseDto> generate(UserRecord user) {
+        return Mono.defer(() -> {
+            log.info("Generating access and refresh tokens");
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            TokenSubject subject = new TokenSubject(user.getId(), user.getEmail(), user.getRole(), user.getVersion());
+            String accessToken = jwtTokenProvider.generate(subject, now, TokenType.ACCESS);
+            String refreshToken = jwtTokenProvider.generate(subject, now, TokenType.REFRESH);
+            RefreshTokenRecord toSave = RefreshTokenRecord.builder()
+                                                          .id(UUID.randomUUID())
+                                                          .tokenHash(TokenHasher.hashSha256(refreshToken))
+                                                          .expiresAt(jwtTokenProvider.getExpirationDate(
+                                                                  now, TokenType.REFRESH))
+                                                          .userId(user.getId())
+                                                          .build();
+            log.info("Saving refresh token to db: {}", toSave.getId());
+            return tokenRepository.save(toSave)
+                                  .thenReturn(new TokenResponseDto(accessToken, refreshToken));
+        });
+    }
+
+    @Override
+    public void validate(TokenRequestDto token) {
+        jwtTokenProvider.validate(token.token());
+    }
+
+    @Override
+    public ParsedTokenDto getParsedTokenClaims(TokenRequestDto tokenRequest) {
+        return jwtTokenProvider.parse(tokenRequest.token());
+    }
+
+    @Override
+    public Mono<RefreshTokenRecord> getRefreshTokenByTokenHash(String hashedToken) {
+        log.info("Retrieving refresh token by token hash in HEX: {}", hashedToken);
+        return tokenRepository.findByTokenHash(hashedToken);
+    }
+
+    @Override
+    public Mono<RefreshTokenRecord> getRefreshTokenByUserId(Long userId) {
+        log.info("Retrieving refresh token userId: {}", userId);
+        return tokenRepository.findByUserId(userId);
+    }
+
+    @Transactional
+    @Override
+    public Mono<Void> deleteForUser(Long userId) {
+        log.info("Removing refresh token for user: {}", userId);
+        return getRefreshTokenByUserId(userId)
+                .flatMap(tokenRepository::delete);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public Mono<Void> clearTokenIfStored(String hashedToken) {
+        log.info("Requested to delete a token by hash in a separate transaction");
+        return getRefreshTokenByTokenHash(hashedToken)
+                .flatMap(t -> tokenRepository.delete(t)
+                                             .doOnSuccess(v -> log.info("Refresh token was deleted successfully: {}",
+                                                                        t.getId())));
+    }
+}
@@ -0,0 +1,82 @@
+package by.innowise.auth.reactive.service.impl;
+
+import by.innowise.auth.dto.AuthDetails;
+import by.innowise.auth.exception.AuthenticationFailedException;
+import by.innowise.auth.reactive.dto.RegisterRequestDto;
+import by.innowise.auth.reactive.repository.ReactiveUserRepository;
+import by.innowise.auth.reactive.repository.entity.UserRecord;
+import by.innowise.auth.reactive.service.ReactiveUserService;
+import by.innowise.auth.repository.entity.UserStatus;
+import by.innowise.common.library.exception.UserNotFoundException;
+import by.innowise.internship.security.dto.Role;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler passwordHashingScheduler;
+
+    @Override
+    public Mono<Boolean> isEmailFree(String email) {
+        log.info("Checking whether the email [{}] is free", email);
+        return userRepository.findByEmailAndStatus(email, UserStatus.ACTIVATED)
+                             .hasElement()
+                             .map(taken -> !taken);
+    }
+
+    @Transactional
+    @Override
+    public Mono<UserRecord> create(RegisterRequestDto registerRequest) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(registerRequest.password()))
+                   .subscribeOn(passwordHashingScheduler)
+                   .map(hashedPassword -> UserRecord.builder()
+                                                    .email(registerRequest.email())
+                                                    .password(hashedPassword)
+                                                    .role(Role.valueOf(registerRequest.role()))
+                                                    .status(UserStatus.ACTIVATED)
+                                                    .build())
+                   .doOnNext(toSave -> log.info("Invoking user repository to save a user: {}", toSave))
+                   .flatMap(userRepository::save);
+    }
+
+    @Override
+    public Mono<UserRecord> getActiveById(Long userId) {
+        log.info("Trying to retrieve active user by id: {}", userId);
+        return userRepository.findByIdAndStatus(userId, UserStatus.ACTIVATED);
+    }
+
+    @Override
+    public Mono<UserRecord> authenticate(AuthDetails authDetails) {
+        log.info("Retrieving a user by email:{}", authDetails.email());
+        return userRepository.findByEmailAndStatus(authDetails.email(), UserStatus.ACTIVATED)
+                             .filterWhen(u -> Mono.fromCallable(
+                                                          () -> passwordEncoder.matches(authDetails.password(),
+                                                                                        u.getPassword()))
+                                                  .subscribeOn(passwordHashingScheduler))
+                             .switchIfEmpty(Mono.error(() -> new AuthenticationFailedException(
+                                     "Login or password is incorrect!", HttpStatus.UNAUTHORIZED)));
+    }
+
+    @Transactional
+    @Override
+    public Mono<Void> delete(Long userId) {
+        return getActiveById(userId)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(
+                        "Not found the user with id: [%s]".formatted(userId), HttpStatus.NOT_FOUND)))
+                .flatMap(user -> {
+                    log.info("Deleting the user: {}", userId);
+                    return userRepository.delete(user);
+                });
+    }
+}
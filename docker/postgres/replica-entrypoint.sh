@@ -0,0 +1,17 @@
+#!/bin/sh
+# Clones the primary with pg_basebackup on the first start and runs as a hot standby afterwards.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until pg_isready -h "$PRIMARY_HOST" -p 5432 -U "$REPLICATION_USER"; do
+        echo "Waiting for primary $PRIMARY_HOST"
+        sleep 2
+    done
+    mkdir -p "$PGDATA"
+    chown postgres:postgres "$PGDATA"
+    chmod 700 "$PGDATA"
+    PGPASSWORD="$REPLICATION_PASSWORD" su-exec postgres \
+        pg_basebackup -h "$PRIMARY_HOST" -p 5432 -U "$REPLICATION_USER" -D "$PGDATA" -X stream -R -P
+fi
+
+exec docker-entrypoint.sh postgres -c hot_standby=on
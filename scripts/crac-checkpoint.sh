@@ -0,0 +1,53 @@
+#!/bin/bash
+# Starts the service on a CRaC-enabled JDK, warms the JIT up with login/validate traffic and
+# takes a checkpoint into auth-service-impl/target/checkpoint for Dockerfile.crac.
+# Requires a reachable database (DB_URL, DB_USER, DB_PASSWORD, TOKEN_SECRET exported), preferably a
+# throwaway one: the warm-up registers a user, which is removed again before the checkpoint.
+# The secret key and the pool connections are restored from the environment on restore.
+#
+# usage: scripts/crac-checkpoint.sh [warm-up requests]
+set -euo pipefail
+
+REQUESTS="${1:-2000}"
+PORT="${PORT:-9000}"
+JAR="$(ls auth-service-impl/target/auth-service-impl-*-exec.jar)"
+CHECKPOINT_DIR="auth-service-impl/target/checkpoint"
+BASE_URL="http://localhost:$PORT"
+export APPLICATION_PROFILE="${APPLICATION_PROFILE:-docker}"
+
+rm -rf "$CHECKPOINT_DIR"
+java -XX:CRaCCheckpointTo="$CHECKPOINT_DIR" -jar "$JAR" --server.port="$PORT" > /tmp/auth-crac.log 2>&1 &
+PID=$!
+until curl -sf "$BASE_URL/actuator/health/readiness" > /dev/null; do
+    if ! kill -0 "$PID" 2> /dev/null; then
+        echo "service failed to start, see /tmp/auth-crac.log" >&2
+        exit 1
+    fi
+    sleep 0.2
+done
+
+EMAIL="crac-warmup-$(date +%s)@example.com"
+curl -sf -X POST "$BASE_URL/auth/register" -H 'Content-Type: application/json' \
+     -d "{\"email\":\"$EMAIL\",\"password\":\"Warmup-Password1\",\"role\":\"USER\"}" > /dev/null || true
+for _ in $(seq "$REQUESTS"); do
+    TOKENS=$(curl -sf -X POST "$BASE_URL/auth/login" -H 'Content-Type: application/json' \
+                  -d "{\"email\":\"$EMAIL\",\"password\":\"Warmup-Password1\"}" || true)
+    ACCESS=$(echo "$TOKENS" | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+    [ -n "$ACCESS" ] && curl -sf -X POST "$BASE_URL/token/validate" -H 'Content-Type: application/json' \
+                             -d "{\"token\":\"$ACCESS\"}" > /dev/null || true
+done
+
+remove_warmup_user() {
+    TOKENS=$(curl -sf -X POST "$BASE_URL/auth/login" -H 'Content-Type: application/json' \
+                  -d "{\"email\":\"$EMAIL\",\"password\":\"Warmup-Password1\"}" || true)
+    ACCESS=$(echo "$TOKENS" | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+    if [ -z "$ACCESS" ] || ! curl -sf -X DELETE "$BASE_URL/auth/remove" \
+                                  -H "Authorization: Bearer $ACCESS" > /dev/null; then
+        echo "failed to remove warm-up user $EMAIL, remove it manually" >&2
+    fi
+}
+remove_warmup_user
+
+jcmd "$PID" JDK.checkpoint
+wait "$PID" 2> /dev/null || true
+echo "checkpoint written to $CHECKPOINT_DIR"
@@ -0,0 +1,44 @@
+#!/bin/bash
+# Compares startup time and resident memory of the JVM jar and the native executable.
+# Requires a reachable database (DB_URL, DB_USER, DB_PASSWORD, TOKEN_SECRET exported).
+#
+# usage: scripts/measure-startup.sh [runs] [output.csv]
+set -euo pipefail
+
+RUNS="${1:-5}"
+OUTPUT="${2:-startup-results.csv}"
+PORT="${PORT:-8080}"
+JAR="$(ls auth-service-impl/target/auth-service-impl-*-exec.jar)"
+NATIVE="auth-service-impl/target/auth-service-impl"
+export APPLICATION_PROFILE="${APPLICATION_PROFILE:-docker}"
+
+measure() {
+    local mode="$1"
+    shift
+    local started
+    started=$(date +%s%N)
+    "$@" --server.port="$PORT" > "/tmp/auth-startup-$mode.log" 2>&1 &
+    local pid=$!
+    until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$mode failed to start, see /tmp/auth-startup-$mode.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    local ready_ms=$(( ($(date +%s%N) - started) / 1000000 ))
+    local rss_kb
+    rss_kb=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$mode,$ready_ms,$rss_kb" >> "$OUTPUT"
+    echo "$mode: ready in ${ready_ms} ms, rss ${rss_kb} kB"
+}
+
+echo "mode,ready_ms,rss_kb" > "$OUTPUT"
+for _ in $(seq "$RUNS"); do
+    measure jvm java -jar "$JAR"
+    if [ -x "$NATIVE" ]; then
+        measure native "$NATIVE"
+    fi
+done
@@ -0,0 +1,17 @@
+#!/bin/bash
+# Moves users to the shards the hash ring assigns them to, e.g. after adding a shard, and fills the
+# email directory for users written before sharding was enabled. Stop every instance first.
+# Takes the same configuration as the service (DB_URL, DB_USER, DB_PASSWORD, TOKEN_SECRET and the
+# APPLICATION_DATASOURCE_SHARDING_SHARDS_* variables exported).
+#
+# usage: scripts/rebalance-shards.sh
+set -euo pipefail
+
+JAR="$(ls auth-service-impl/target/auth-service-impl-*-exec.jar)"
+export APPLICATION_PROFILE="${APPLICATION_PROFILE:-docker}"
+
+java -jar "$JAR" \
+     --spring.main.web-application-type=none \
+     --application.datasource.sharding.enabled=true \
+     --application.datasource.sharding.rebalance.enabled=true \
+     --application.grpc.enabled=false